@@ -0,0 +1,110 @@
+package tanks.benchmarks;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Random;
+
+import tanks.GameMap;
+
+/**
+ * Measures the cost of one tank and one missile collision query against the
+ * size of the map, comparing the tile grid lookup in GameMap with a linear scan
+ * over every wall rectangle.
+ * @author Nicholas Grant
+ *
+ */
+public class CollisionBenchmark {
+	/**
+	 * Map sizes (tiles per side) to measure
+	 */
+	private static final int[] SIZES = { 13, 50, 100, 250, 500, 1000 };
+	/**
+	 * Number of queries timed per map size
+	 */
+	private static final int QUERIES = 200000;
+	/**
+	 * Fraction of tiles that are walls
+	 */
+	private static final double WALL_DENSITY = 0.3;
+	/**
+	 * Keeps the JIT from discarding the query results
+	 */
+	private static int sink;
+
+	public static void main( String[] args ) {
+		System.out.println( "tiles/side  walls      grid ns/query  linear ns/query" );
+		for ( int size : SIZES ) {
+			Random rand = new Random( size );
+			int[][] t = new int[size][size];
+			ArrayList<Rectangle> obstacles = new ArrayList<Rectangle>();
+			for ( int i = 0; i < size; i++ ) {
+				for ( int j = 0; j < size; j++ ) {
+					if ( rand.nextDouble() < WALL_DENSITY ) {
+						t[i][j] = GameMap.WALL;
+						obstacles.add( new Rectangle( j*GameMap.TILE_SIZE, i*GameMap.TILE_SIZE,
+								GameMap.TILE_SIZE, GameMap.TILE_SIZE ) );
+					}
+				}
+			}
+			GameMap map = new GameMap( t );
+			Rectangle[] tanks = new Rectangle[1024];
+			Point[] missiles = new Point[1024];
+			int extent = size * GameMap.TILE_SIZE;
+			for ( int i = 0; i < tanks.length; i++ ) {
+				tanks[i] = new Rectangle( rand.nextInt( extent ), rand.nextInt( extent ), 13, 13 );
+				missiles[i] = new Point( rand.nextInt( extent ), rand.nextInt( extent ) );
+			}
+			// warm up both paths before timing
+			grid( map, tanks, missiles, QUERIES );
+			linear( obstacles, tanks, missiles, Math.max( 1000, QUERIES / size ) );
+			double gridNs = grid( map, tanks, missiles, QUERIES );
+			double linearNs = linear( obstacles, tanks, missiles, Math.max( 1000, QUERIES / size ) );
+			System.out.printf( "%10d  %9d  %13.1f  %15.1f%n", size, obstacles.size(), gridNs, linearNs );
+		}
+	}
+	/**
+	 * Times tank and missile queries through the tile grid
+	 * @return		nanoseconds per query
+	 */
+	private static double grid( GameMap map, Rectangle[] tanks, Point[] missiles, int n ) {
+		long start = System.nanoTime();
+		int hits = 0;
+		for ( int i = 0; i < n; i++ ) {
+			int k = i & ( tanks.length - 1 );
+			if ( map.hitsObstacle( tanks[k] ) ) {
+				hits++;
+			}
+			if ( map.hitsObstacle( missiles[k] ) ) {
+				hits++;
+			}
+		}
+		sink += hits;
+		return (double)( System.nanoTime() - start ) / ( 2 * n );
+	}
+	/**
+	 * Times tank and missile queries by scanning every obstacle rectangle
+	 * @return		nanoseconds per query
+	 */
+	private static double linear( ArrayList<Rectangle> obstacles, Rectangle[] tanks, Point[] missiles, int n ) {
+		long start = System.nanoTime();
+		int hits = 0;
+		for ( int i = 0; i < n; i++ ) {
+			int k = i & ( tanks.length - 1 );
+			for ( Rectangle o : obstacles ) {
+				if ( tanks[k].intersects( o ) ) {
+					hits++;
+					break;
+				}
+			}
+			for ( Rectangle o : obstacles ) {
+				if ( o.contains( missiles[k] ) ) {
+					hits++;
+					break;
+				}
+			}
+		}
+		sink += hits;
+		return (double)( System.nanoTime() - start ) / ( 2 * n );
+	}
+}
@@ -0,0 +1,99 @@
+package tanks.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tanks.FlowField;
+import tanks.GameMap;
+
+/**
+ * Measures searching the flow field when the player changes tile, and the
+ * per-enemy cost of looking up the next tile for 1000 enemies, by map size.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class FlowFieldBenchmark {
+	/**
+	 * Number of enemy positions looked up per call of nextTile()
+	 */
+	private static final int ENEMIES = 1000;
+	/**
+	 * Tiles per side of the generated map
+	 */
+	@Param( { "13", "100", "500" } )
+	public int mapSize;
+	/**
+	 * The field being searched
+	 */
+	private FlowField field;
+	/**
+	 * Center of the map, where the player stands
+	 */
+	private int middle;
+	/**
+	 * Number of searches run so far, alternating the goal between two tiles
+	 */
+	private int searches;
+	/**
+	 * Enemy x-components
+	 */
+	private int[] enemyX;
+	/**
+	 * Enemy y-components
+	 */
+	private int[] enemyY;
+
+	@Setup
+	public void setup() {
+		GameMap map = Worlds.map( mapSize, 1 );
+		field = new FlowField( map );
+		middle = Worlds.tileCenter( mapSize / 2 );
+		field.update( middle, middle );
+		Random rand = new Random( 5 );
+		enemyX = new int[ENEMIES];
+		enemyY = new int[ENEMIES];
+		for ( int i = 0; i < ENEMIES; i++ ) {
+			enemyX[i] = Worlds.tileCenter( 1 + rand.nextInt( mapSize - 2 ) );
+			enemyY[i] = Worlds.tileCenter( 1 + rand.nextInt( mapSize - 2 ) );
+		}
+	}
+	/**
+	 * Searches the whole map again, as when the player moves to another tile
+	 */
+	@Benchmark
+	public FlowField search() {
+		// step between the middle tile and the one above it, so every call searches
+		int offset = ( searches++ & 1 ) * GameMap.TILE_SIZE;
+		field.update( middle, middle - offset );
+		return field;
+	}
+	/**
+	 * Finds the next tile of every enemy
+	 */
+	@Benchmark
+	public int nextTile() {
+		int sum = 0;
+		for ( int i = 0; i < ENEMIES; i++ ) {
+			sum += field.nextTile( enemyX[i], enemyY[i] );
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,101 @@
+package tanks.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tanks.GameMap;
+import tanks.HitGrid;
+import tanks.TankStore;
+
+/**
+ * Measures testing one missile per tank against every tank, through the hit
+ * grid and pairwise, by number of tanks.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class HitGridBenchmark {
+	/**
+	 * Number of tanks, and of missiles
+	 */
+	@Param( { "100", "1000", "10000" } )
+	public int tankCount;
+	/**
+	 * The tanks being hit
+	 */
+	private TankStore tanks;
+	/**
+	 * Missile x-components
+	 */
+	private int[] missileX;
+	/**
+	 * Missile y-components
+	 */
+	private int[] missileY;
+	/**
+	 * The grid under test
+	 */
+	private HitGrid grid;
+
+	@Setup
+	public void setup() {
+		GameMap map = Worlds.map( 200, 1 );
+		tanks = Worlds.world( map, tankCount ).getEnemies();
+		Random rand = new Random( 3 );
+		missileX = new int[tankCount];
+		missileY = new int[tankCount];
+		int extent = 200 * GameMap.TILE_SIZE;
+		for ( int i = 0; i < tankCount; i++ ) {
+			missileX[i] = rand.nextInt( extent );
+			missileY[i] = rand.nextInt( extent );
+		}
+		grid = new HitGrid();
+	}
+	/**
+	 * Rebuilds the grid and looks up every missile in it
+	 */
+	@Benchmark
+	public int grid() {
+		grid.build( tanks );
+		int hits = 0;
+		for ( int i = 0; i < missileX.length; i++ ) {
+			if ( grid.findHit( tanks, missileX[i], missileY[i], i ) >= 0 ) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+	/**
+	 * Tests every missile against every tank
+	 */
+	@Benchmark
+	public int pairwise() {
+		int hits = 0;
+		for ( int i = 0; i < missileX.length; i++ ) {
+			for ( int t = 0; t < tanks.size(); t++ ) {
+				if ( t != i && tanks.testHit( t, missileX[i], missileY[i] ) ) {
+					hits++;
+					break;
+				}
+			}
+		}
+		return hits;
+	}
+}
@@ -0,0 +1,51 @@
+package tanks.benchmarks;
+
+import tanks.GameMap;
+import tanks.GameWorld;
+import tanks.PlayerInput;
+
+/**
+ * Reports how many ticks per second a horde world runs at for 100, 1 000 and
+ * 10 000 enemy tanks.
+ * Usage: java -cp benchmarks.jar tanks.benchmarks.HordeBenchmark [mapSize] [seconds]
+ * @author Nicholas Grant
+ *
+ */
+public class HordeBenchmark {
+	/**
+	 * Enemy counts measured
+	 */
+	private static final int[] COUNTS = { 100, 1000, 10000 };
+
+	public static void main( String[] args ) {
+		int mapSize = ( args.length > 0 ) ? Integer.parseInt( args[0] ) : 200;
+		double seconds = ( args.length > 1 ) ? Double.parseDouble( args[1] ) : 3;
+		GameMap map = Worlds.map( mapSize, 1 );
+		System.out.printf( "map %dx%d tiles%n", mapSize, mapSize );
+		System.out.println( "   tanks    ticks/s   us/tick" );
+		for ( int count : COUNTS ) {
+			GameWorld world = Worlds.world( map, count );
+			PlayerInput input = new PlayerInput();
+			run( world, input, (long)( seconds * 1e9 / 3 ) );
+			long ticks = world.getTick();
+			long elapsed = run( world, input, (long)( seconds * 1e9 ) );
+			ticks = world.getTick() - ticks;
+			System.out.printf( "%8d  %9.0f  %8.1f%n", count, ticks * 1e9 / elapsed, elapsed / 1e3 / ticks );
+		}
+	}
+	/**
+	 * Steps the world for the given time
+	 * @return		nanoseconds actually spent
+	 */
+	private static long run( GameWorld world, PlayerInput input, long nanos ) {
+		long start = System.nanoTime();
+		long now;
+		do {
+			for ( int i = 0; i < 64; i++ ) {
+				world.step( input );
+			}
+			now = System.nanoTime();
+		} while ( now - start < nanos );
+		return now - start;
+	}
+}
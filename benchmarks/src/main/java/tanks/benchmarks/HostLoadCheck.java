@@ -0,0 +1,116 @@
+package tanks.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import tanks.BotInput;
+import tanks.GameMap;
+import tanks.GameWorld;
+import tanks.MatchHost;
+import tanks.MatchRoom;
+import tanks.Panel;
+
+/**
+ * Finds how many matches a MatchHost keeps up with. Runs bot matches of four
+ * tanks (the player and three enemies) at 20 ticks per second, adding rooms
+ * step by step, and measures each step once it has warmed up. Matches that end
+ * are replaced, so rooms are opened and closed all the time. A step is kept up
+ * with if at least 99% of the ticks due ran and the 99th percentile delay of a
+ * tick is under one tick period; the test stops at the first step that isn't.
+ * Finally every room is closed and the host shut down, and the number of live
+ * threads must be back to what it was before the host started.
+ * Usage: java HostLoadCheck [threads] [firstRooms] [stepRooms] [stepSeconds] [maxRooms]
+ * Exits with status 1 if the host leaked a thread.
+ * @author Nicholas Grant
+ *
+ */
+public class HostLoadCheck {
+	/**
+	 * Ticks per second of every room
+	 */
+	private static final int TICKS_PER_SECOND = 20;
+	/**
+	 * Seconds each step runs before it is measured
+	 */
+	private static final int WARM_UP_SECONDS = 2;
+	/**
+	 * Tick limit of each match, so rooms keep being replaced
+	 */
+	private static final int MAX_TICKS = 2000;
+
+	public static void main( String[] args ) throws Exception {
+		int threads = ( args.length > 0 ) ? Integer.parseInt( args[0] )
+				: Runtime.getRuntime().availableProcessors();
+		int first = ( args.length > 1 ) ? Integer.parseInt( args[1] ) : 500;
+		int step = ( args.length > 2 ) ? Integer.parseInt( args[2] ) : 500;
+		int stepSeconds = ( args.length > 3 ) ? Integer.parseInt( args[3] ) : 5;
+		int maxRooms = ( args.length > 4 ) ? Integer.parseInt( args[4] ) : 100000;
+		GameMap map = GameMap.load( Panel.DEFAULT_MAP );
+		Random rand = new Random( 5 );
+		int threadsBefore = Thread.activeCount();
+		MatchHost host = new MatchHost( threads, TICKS_PER_SECOND );
+		List<MatchRoom> rooms = new ArrayList<>();
+		int sustained = 0;
+		System.out.printf( "%d worker threads, %d ticks/s per room%n", threads, TICKS_PER_SECOND );
+		for ( int target = first; target <= maxRooms; target += step ) {
+			long deadline = System.nanoTime() + WARM_UP_SECONDS * 1000000000L;
+			while ( System.nanoTime() < deadline ) {
+				topUp( host, rooms, target, map, rand );
+				Thread.sleep( 100 );
+			}
+			host.resetStats();
+			long start = System.nanoTime();
+			deadline = start + stepSeconds * 1000000000L;
+			while ( System.nanoTime() < deadline ) {
+				topUp( host, rooms, target, map, rand );
+				Thread.sleep( 100 );
+			}
+			double seconds = ( System.nanoTime() - start ) / 1e9;
+			long ticks = host.getTicks();
+			double due = target * TICKS_PER_SECOND * seconds;
+			long p50 = host.getDelayPercentile( 50 );
+			long p99 = host.getDelayPercentile( 99 );
+			boolean ok = ticks >= 0.99 * due && p99 < host.getPeriodNanos();
+			System.out.printf( "%6d rooms: %8.0f ticks/s (%5.1f%% of due), delay p50 %5.1f ms, "
+					+ "p99 %6.1f ms, %d skipped, %.1f rooms per batch, %d threads live %s%n",
+					target, ticks / seconds, 100 * ticks / due, p50 / 1e6, p99 / 1e6,
+					host.getSkippedTicks(), (double)ticks / Math.max( 1, host.getBatches() ),
+					Thread.activeCount(), ok ? "ok" : "BEHIND" );
+			if ( !ok ) {
+				break;
+			}
+			sustained = target;
+		}
+		for ( MatchRoom room : rooms ) {
+			host.closeRoom( room );
+		}
+		long opened = host.getFinishedRooms() + host.getRoomCount();
+		boolean stopped = host.shutdown( 5000 );
+		int threadsAfter = Thread.activeCount();
+		System.out.printf( "kept up with %d rooms; %d rooms opened in all%n", sustained, opened );
+		System.out.printf( "threads: %d before the host, %d after shutdown%n", threadsBefore, threadsAfter );
+		if ( !stopped || threadsAfter > threadsBefore ) {
+			System.out.println( "FAILED: the host leaked threads" );
+			System.exit( 1 );
+		}
+		System.out.println( "OK: no threads leaked" );
+	}
+	/**
+	 * Drops the rooms that have finished and opens new ones until there are
+	 * as many as wanted
+	 * @param host		the host
+	 * @param rooms		the open rooms
+	 * @param target	number of rooms wanted
+	 * @param map		the map played on
+	 * @param rand		random source for the seeds
+	 */
+	private static void topUp( MatchHost host, List<MatchRoom> rooms, int target,
+			GameMap map, Random rand ) {
+		rooms.removeIf( MatchRoom::isFinished );
+		while ( rooms.size() < target ) {
+			GameWorld world = new GameWorld( 3, map, rand.nextLong() );
+			rooms.add( host.createRoom( world, new BotInput( rand.nextLong() ), MAX_TICKS ) );
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package tanks.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tanks.GameMap;
+import tanks.MapFile;
+
+/**
+ * Measures GameMap.load() on generated maps of different sizes, saved both
+ * as text and in the chunked binary format.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MapLoadBenchmark {
+	/**
+	 * Tiles per side of the generated map
+	 */
+	@Param( { "13", "100", "500", "1000" } )
+	public int mapSize;
+	/**
+	 * The generated map text file
+	 */
+	private File file;
+	/**
+	 * The generated binary map file
+	 */
+	private File binaryFile;
+
+	@Setup
+	public void setup() throws IOException {
+		GameMap map = Worlds.map( mapSize, 1 );
+		file = File.createTempFile( "map", ".txt" );
+		PrintWriter out = new PrintWriter( file );
+		out.println( map.getWidth() + " " + map.getHeight() );
+		for ( int i = 0; i < map.getHeight(); i++ ) {
+			StringBuilder line = new StringBuilder();
+			for ( int j = 0; j < map.getWidth(); j++ ) {
+				line.append( map.getTile( i, j ) ).append( ' ' );
+			}
+			out.println( line );
+		}
+		out.close();
+		binaryFile = File.createTempFile( "map", MapFile.EXTENSION );
+		MapFile.write( map, binaryFile.getPath() );
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+		binaryFile.delete();
+	}
+	/**
+	 * Parses the whole map text file
+	 */
+	@Benchmark
+	public GameMap loadMap() {
+		return GameMap.load( file.getPath() );
+	}
+	/**
+	 * Reads the whole binary map file
+	 */
+	@Benchmark
+	public GameMap loadBinaryMap() {
+		return GameMap.load( binaryFile.getPath() );
+	}
+}
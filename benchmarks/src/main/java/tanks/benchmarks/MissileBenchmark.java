@@ -0,0 +1,110 @@
+package tanks.benchmarks;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tanks.DirectAim;
+import tanks.LeadAim;
+import tanks.Missile;
+import tanks.TankStore;
+
+/**
+ * Measures Missile.findMoveRate() and Missile.moveMissile(), and firing at a
+ * moving target with direct and lead aim. The firing tank can have one missile
+ * in flight, so the aim benchmarks recycle it before each shot.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MissileBenchmark {
+	/**
+	 * The missile being aimed and moved
+	 */
+	private Missile missile;
+	/**
+	 * Changing target offset so findMoveRate() can't be folded away
+	 */
+	private int offset;
+	/**
+	 * The firing tank, in slot 0, and its moving target, in slot 1
+	 */
+	private TankStore store;
+	/**
+	 * Fires at the target's current location
+	 */
+	private DirectAim direct;
+	/**
+	 * Fires where the target will be
+	 */
+	private LeadAim lead;
+
+	@Setup
+	public void setup() {
+		store = new TankStore( Worlds.map( 13, 1 ) );
+		store.add( 400, 400, 0, Color.GRAY );
+		missile = store.getMissiles().get( store.launch( 0, 400, 400, 800, 700 ) );
+		store.add( 600, 500, 3, Color.RED );
+		direct = new DirectAim();
+		lead = new LeadAim();
+	}
+	/**
+	 * Aims the missile at a new target
+	 */
+	@Benchmark
+	public Missile findMoveRate() {
+		offset = ( offset + 7 ) & 511;
+		missile.findMoveRate( 100 + offset, 900 - offset );
+		return missile;
+	}
+	/**
+	 * Moves the missile one step, launching it again once it leaves the area
+	 */
+	@Benchmark
+	public double moveMissile() {
+		missile.moveMissile();
+		if ( missile.getX() > 10000 || missile.getY() > 10000 ) {
+			// recycle the missile and fire again; the pool hands back the same handle
+			missile.reset();
+			missile = store.getMissiles().get( store.launch( 0, 400, 400, 800, 700 ) );
+		}
+		return missile.getX();
+	}
+	/**
+	 * Fires straight at the moving target
+	 */
+	@Benchmark
+	public TankStore directAim() {
+		offset = ( offset + 7 ) & 511;
+		store.setLocation( 1, 100 + offset, 900 - offset );
+		store.getMissiles().clear();
+		direct.fire( store, 0, store, 1 );
+		return store;
+	}
+	/**
+	 * Fires at the moving target with the intercept solver
+	 */
+	@Benchmark
+	public TankStore leadAim() {
+		offset = ( offset + 7 ) & 511;
+		store.setLocation( 1, 100 + offset, 900 - offset );
+		store.getMissiles().clear();
+		lead.fire( store, 0, store, 1 );
+		return store;
+	}
+}
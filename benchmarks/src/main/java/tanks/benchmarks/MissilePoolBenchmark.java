@@ -0,0 +1,89 @@
+package tanks.benchmarks;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tanks.GameMap;
+import tanks.TankStore;
+
+/**
+ * Measures one tick of a sustained barrage: every missile in the pool is
+ * moved, the ones that hit a wall are recycled, and the tanks fire again to
+ * refill the pool, by number of missiles in flight.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MissilePoolBenchmark {
+	/**
+	 * Tiles per side of the generated map
+	 */
+	private static final int MAP_SIZE = 100;
+	/**
+	 * Number of firing tanks
+	 */
+	private static final int TANKS = 100;
+	/**
+	 * Number of missiles each tank keeps in flight
+	 */
+	@Param( { "1", "10", "100" } )
+	public int missilesPerTank;
+	/**
+	 * The firing tanks and their missile pool
+	 */
+	private TankStore store;
+	/**
+	 * Picks where each shot is aimed
+	 */
+	private Random rand;
+
+	@Setup
+	public void setup() {
+		store = new TankStore( Worlds.map( MAP_SIZE, 1 ) );
+		rand = new Random( 3 );
+		int middle = Worlds.tileCenter( MAP_SIZE / 2 );
+		for ( int i = 0; i < TANKS; i++ ) {
+			store.add( middle, middle, 0, Color.GRAY );
+			store.setMissileLimit( i, missilesPerTank );
+		}
+		refill();
+	}
+	/**
+	 * Moves every missile and refills the pool
+	 */
+	@Benchmark
+	public int tick() {
+		store.updateMissiles();
+		refill();
+		return store.getMissiles().size();
+	}
+	/**
+	 * Fires every tank until it has all its missiles in flight
+	 */
+	private void refill() {
+		int size = MAP_SIZE * GameMap.TILE_SIZE;
+		for ( int i = 0; i < TANKS; i++ ) {
+			while ( store.canFire( i ) ) {
+				store.shootToward( i, rand.nextInt( size ), rand.nextInt( size ) );
+			}
+		}
+	}
+}
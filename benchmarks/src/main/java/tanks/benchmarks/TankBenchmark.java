@@ -0,0 +1,78 @@
+package tanks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import tanks.GameMap;
+import tanks.TankStore;
+
+/**
+ * Measures moveTank() and checkCollision() over a store of tanks.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class TankBenchmark {
+	/**
+	 * Tiles per side of the generated map
+	 */
+	@Param( { "13", "100", "500" } )
+	public int mapSize;
+	/**
+	 * Number of tanks moved per invocation
+	 */
+	@Param( { "3", "100", "1000" } )
+	public int tankCount;
+	/**
+	 * The tanks being moved
+	 */
+	private TankStore tanks;
+	/**
+	 * Direction the tanks move in this invocation
+	 */
+	private int direction;
+
+	@Setup
+	public void setup() {
+		GameMap map = Worlds.map( mapSize, 1 );
+		tanks = Worlds.world( map, tankCount ).getEnemies();
+	}
+	/**
+	 * Moves every tank one step, cycling through the eight directions
+	 */
+	@Benchmark
+	public void moveTank() {
+		direction = ( direction == 4 ) ? -4 : direction + 1;
+		for ( int i = 0; i < tanks.size(); i++ ) {
+			tanks.setDirection( i, direction );
+			tanks.moveTank( i );
+		}
+	}
+	/**
+	 * Tests every tank against the walls a step either way
+	 */
+	@Benchmark
+	public void checkCollision( Blackhole bh ) {
+		for ( int i = 0; i < tanks.size(); i++ ) {
+			bh.consume( tanks.checkCollision( i, 2, 2 ) );
+			bh.consume( tanks.checkCollision( i, -2, -2 ) );
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package tanks.benchmarks;
+
+import java.awt.Color;
+import java.util.Random;
+
+import tanks.GameMap;
+import tanks.HitGrid;
+import tanks.MissileStore;
+import tanks.TankStore;
+
+/**
+ * Checks that missiles can't tunnel through tanks or walls at high speeds.
+ * For each missile speed, fires missiles in random directions at a tank on an
+ * open map, all of which must hit, then fires them at a tank behind a wall, none
+ * of which may hit. Exits with status 1 if any shot goes wrong.
+ * @author Nicholas Grant
+ *
+ */
+public class TunnellingCheck {
+	/**
+	 * Missile speeds tested, in pixels per tick; a tank is 13 pixels and a tile 65
+	 */
+	private static final int[] SPEEDS = { 5, 13, 40, 100, 300 };
+	/**
+	 * Shots fired per speed and scenario
+	 */
+	private static final int SHOTS = 1000;
+	/**
+	 * Tiles per side of the test maps
+	 */
+	private static final int MAP_SIZE = 20;
+	/**
+	 * Column of the wall in the wall scenario
+	 */
+	private static final int WALL_COLUMN = 10;
+
+	public static void main( String[] args ) {
+		Random rand = new Random( 11 );
+		GameMap open = new GameMap( new int[MAP_SIZE][MAP_SIZE] );
+		int[][] t = new int[MAP_SIZE][MAP_SIZE];
+		for ( int i = 0; i < MAP_SIZE; i++ ) {
+			t[i][WALL_COLUMN] = GameMap.WALL;
+		}
+		GameMap walled = new GameMap( t );
+		int failures = 0;
+		for ( int speed : SPEEDS ) {
+			int hits = 0;
+			for ( int i = 0; i < SHOTS; i++ ) {
+				// any direction, from one to six tiles away
+				double angle = rand.nextDouble() * 2 * Math.PI;
+				double distance = GameMap.TILE_SIZE * ( 1 + rand.nextDouble() * 5 );
+				int cx = MAP_SIZE * GameMap.TILE_SIZE / 2;
+				int tx = cx + (int)( Math.cos( angle ) * distance );
+				int ty = cx + (int)( Math.sin( angle ) * distance );
+				if ( shoot( open, cx, cx, tx, ty, speed ) ) {
+					hits++;
+				}
+			}
+			int through = 0;
+			for ( int i = 0; i < SHOTS; i++ ) {
+				// across the wall, one to four tiles either side of it
+				int sx = WALL_COLUMN * GameMap.TILE_SIZE - GameMap.TILE_SIZE * ( 1 + rand.nextInt( 4 ) );
+				int tx = ( WALL_COLUMN + 1 ) * GameMap.TILE_SIZE + GameMap.TILE_SIZE * rand.nextInt( 4 ) + 20;
+				int sy = GameMap.TILE_SIZE * ( 2 + rand.nextInt( MAP_SIZE - 4 ) );
+				int ty = sy + rand.nextInt( 2 * GameMap.TILE_SIZE ) - GameMap.TILE_SIZE;
+				if ( shoot( walled, sx, sy, tx, ty, speed ) ) {
+					through++;
+				}
+			}
+			System.out.printf( "speed %3d: %4d/%d open shots hit, %4d/%d shots went through a wall%n",
+					speed, hits, SHOTS, through, SHOTS );
+			failures += ( SHOTS - hits ) + through;
+		}
+		if ( failures > 0 ) {
+			System.out.println( "FAILED: missiles tunnelled" );
+			System.exit( 1 );
+		}
+		System.out.println( "OK: no missile tunnelled" );
+	}
+	/**
+	 * Fires a missile from one tank at another standing still and runs it until
+	 * it hits the target, stops in a wall or flies past
+	 * @param map		the map to shoot on
+	 * @param sx		shooter center x-component
+	 * @param sy		shooter center y-component
+	 * @param tx		target center x-component
+	 * @param ty		target center y-component
+	 * @param speed		missile speed in pixels per tick
+	 * @return			true if the target was hit, false otherwise
+	 */
+	private static boolean shoot( GameMap map, int sx, int sy, int tx, int ty, int speed ) {
+		TankStore shooters = new TankStore( map );
+		TankStore targets = new TankStore( map );
+		HitGrid grid = new HitGrid();
+		shooters.add( sx, sy, 0, Color.GRAY );
+		targets.add( tx, ty, 0, Color.GRAY );
+		shooters.setMissileMove( 0, speed );
+		shooters.aimAt( 0, tx, ty );
+		shooters.shootToward( 0, tx, ty );
+		MissileStore missiles = shooters.getMissiles();
+		int range = 2 * MAP_SIZE * GameMap.TILE_SIZE / speed + 2;
+		for ( int tick = 0; tick < range && missiles.size() > 0; tick++ ) {
+			shooters.updateAll( tx, ty );
+			grid.build( targets );
+			if ( missiles.size() > 0 && grid.findMissileHit( targets, missiles, 0, -1 ) >= 0 ) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,120 @@
+package tanks.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tanks.GameMap;
+import tanks.Visibility;
+
+/**
+ * Measures 1000 line of sight queries answered by the precomputed visibility
+ * table against the same queries traced through the map, and building the
+ * table, by map size.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class VisibilityBenchmark {
+	/**
+	 * Number of queries per call
+	 */
+	private static final int QUERIES = 1000;
+	/**
+	 * Tiles per side of the generated map; both have fewer open tiles than
+	 * Visibility.MAX_TILES
+	 */
+	@Param( { "13", "40" } )
+	public int mapSize;
+	/**
+	 * The map queried
+	 */
+	private GameMap map;
+	/**
+	 * The map's visibility table
+	 */
+	private Visibility visibility;
+	/**
+	 * Query start x-components
+	 */
+	private int[] fromX;
+	/**
+	 * Query start y-components
+	 */
+	private int[] fromY;
+	/**
+	 * Query end x-components
+	 */
+	private int[] toX;
+	/**
+	 * Query end y-components
+	 */
+	private int[] toY;
+
+	@Setup
+	public void setup() {
+		map = Worlds.map( mapSize, 1 );
+		visibility = new Visibility( map ).build();
+		Random rand = new Random( 9 );
+		fromX = new int[QUERIES];
+		fromY = new int[QUERIES];
+		toX = new int[QUERIES];
+		toY = new int[QUERIES];
+		for ( int i = 0; i < QUERIES; i++ ) {
+			fromX[i] = Worlds.tileCenter( 1 + rand.nextInt( mapSize - 2 ) );
+			fromY[i] = Worlds.tileCenter( 1 + rand.nextInt( mapSize - 2 ) );
+			toX[i] = Worlds.tileCenter( 1 + rand.nextInt( mapSize - 2 ) );
+			toY[i] = Worlds.tileCenter( 1 + rand.nextInt( mapSize - 2 ) );
+		}
+	}
+	/**
+	 * Answers every query from the table
+	 */
+	@Benchmark
+	public int lookup() {
+		int seen = 0;
+		for ( int i = 0; i < QUERIES; i++ ) {
+			if ( visibility.canSee( fromX[i], fromY[i], toX[i], toY[i] ) ) {
+				seen++;
+			}
+		}
+		return seen;
+	}
+	/**
+	 * Answers every query by tracing the line through the map
+	 */
+	@Benchmark
+	public int raycast() {
+		int seen = 0;
+		for ( int i = 0; i < QUERIES; i++ ) {
+			if ( map.findWallHit( fromX[i], fromY[i], toX[i], toY[i] ) > 1 ) {
+				seen++;
+			}
+		}
+		return seen;
+	}
+	/**
+	 * Builds the table, as done once on a map's first line of sight query
+	 */
+	@Benchmark
+	@Measurement( iterations = 3, time = 1 )
+	public Visibility build() {
+		return new Visibility( map ).build();
+	}
+}
@@ -0,0 +1,89 @@
+package tanks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tanks.GameMap;
+
+/**
+ * Measures one missile hit on a brick wall, which only updates the hit tile,
+ * against rebuilding the whole map from its tiles as a hit used to require,
+ * by map size. Every inner tile of the map is a brick.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class WallDamageBenchmark {
+	/**
+	 * Tiles per side of the generated map; both are small enough for the map
+	 * to build a visibility table
+	 */
+	@Param( { "13", "40" } )
+	public int mapSize;
+	/**
+	 * The tiles of the generated map
+	 */
+	private int[][] tiles;
+	/**
+	 * The unbroken map, copied whenever the map being hit runs out of bricks
+	 */
+	private GameMap template;
+	/**
+	 * The map being hit
+	 */
+	private GameMap map;
+	/**
+	 * Inner tile hit next, counted row by row
+	 */
+	private int next;
+
+	@Setup
+	public void setup() {
+		tiles = new int[mapSize][mapSize];
+		for ( int i = 0; i < mapSize; i++ ) {
+			for ( int j = 0; j < mapSize; j++ ) {
+				boolean border = i == 0 || j == 0 || i == mapSize - 1 || j == mapSize - 1;
+				tiles[i][j] = border ? GameMap.WALL : GameMap.BRICK;
+			}
+		}
+		template = new GameMap( tiles );
+		map = new GameMap( template );
+	}
+	/**
+	 * Hits the next brick, starting again on a fresh copy of the map once every
+	 * brick is broken
+	 */
+	@Benchmark
+	public GameMap damage() {
+		if ( !map.hasBricks() ) {
+			map = new GameMap( template );
+		}
+		int inner = mapSize - 2;
+		next = ( next + 1 ) % ( inner * inner );
+		map.damage( 1 + next / inner, 1 + next % inner );
+		return map;
+	}
+	/**
+	 * Rebuilds the map from its tiles
+	 */
+	@Benchmark
+	public GameMap rebuild() {
+		return new GameMap( tiles );
+	}
+}
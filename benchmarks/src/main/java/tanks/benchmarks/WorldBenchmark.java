@@ -0,0 +1,83 @@
+package tanks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tanks.GameWorld;
+import tanks.PlayerInput;
+import tanks.Tank;
+import tanks.TankStore;
+
+/**
+ * Measures a full headless tick (GameWorld.step()) and the hit checks on
+ * their own, by number of enemy tanks and map size.
+ * @author Nicholas Grant
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class WorldBenchmark {
+	/**
+	 * Tiles per side of the generated map
+	 */
+	@Param( { "13", "100", "500" } )
+	public int mapSize;
+	/**
+	 * Number of enemy tanks
+	 */
+	@Param( { "3", "100", "1000" } )
+	public int tankCount;
+	/**
+	 * The world being stepped
+	 */
+	private GameWorld world;
+	/**
+	 * The player's input; the player stands still and never fires, so no
+	 * enemy is removed and the match never ends
+	 */
+	private PlayerInput input;
+
+	@Setup
+	public void setup() {
+		world = Worlds.world( Worlds.map( mapSize, 1 ), tankCount );
+		input = new PlayerInput();
+		Tank player = world.getPlayer();
+		// park every enemy missile away from the player so checkHits() scans without hitting
+		TankStore enemies = world.getEnemies();
+		for ( int i = 0; i < enemies.size(); i++ ) {
+			enemies.launch( i, 0, 0, 1, 1 );
+		}
+		input.setAim( player.getX(), player.getY() );
+	}
+	/**
+	 * Runs one full tick: enemy AI, movement, missiles and hit checks
+	 */
+	@Benchmark
+	public GameWorld step() {
+		world.step( input );
+		return world;
+	}
+	/**
+	 * Runs only the hit checks
+	 */
+	@Benchmark
+	public GameWorld checkHits() {
+		world.checkHits();
+		return world;
+	}
+}
@@ -0,0 +1,65 @@
+package tanks.benchmarks;
+
+import java.util.Random;
+
+import tanks.GameMap;
+import tanks.GameWorld;
+
+/**
+ * Builds generated maps and worlds of a given size for the benchmarks.
+ * @author Nicholas Grant
+ *
+ */
+public class Worlds {
+	/**
+	 * Fraction of the inner tiles that are walls
+	 */
+	private static final double WALL_DENSITY = 0.1;
+	/**
+	 * Seed of the generated worlds, so every run measures the same workload
+	 */
+	private static final long WORLD_SEED = 42;
+	/**
+	 * Builds a square map with a wall border and scattered inner walls
+	 * @param size		tiles per side
+	 * @param seed		seed for the wall layout
+	 * @return			the generated map
+	 */
+	public static GameMap map( int size, long seed ) {
+		Random rand = new Random( seed );
+		int[][] t = new int[size][size];
+		for ( int i = 0; i < size; i++ ) {
+			for ( int j = 0; j < size; j++ ) {
+				boolean border = i == 0 || j == 0 || i == size - 1 || j == size - 1;
+				if ( border || rand.nextDouble() < WALL_DENSITY ) {
+					t[i][j] = GameMap.WALL;
+				}
+			}
+		}
+		// keep the middle tile open for the player
+		t[size / 2][size / 2] = GameMap.FLOOR;
+		return new GameMap( t );
+	}
+	/**
+	 * Builds a horde world with the player in the middle of the map and enemies
+	 * on random open tiles. The player never runs out of lives, so the match
+	 * doesn't end while it is being measured. The world is seeded, so it plays
+	 * out the same way on every run.
+	 * @param map		the map to play on
+	 * @param enemies	number of enemy tanks
+	 * @return			the generated world
+	 */
+	public static GameWorld world( GameMap map, int enemies ) {
+		GameWorld world = GameWorld.createHorde( map, enemies, WORLD_SEED );
+		world.getPlayer().setLives( Integer.MAX_VALUE );
+		return world;
+	}
+	/**
+	 * Returns the pixel coordinate of a tile's center
+	 * @param tile	tile row or column
+	 * @return		center pixel coordinate
+	 */
+	public static int tileCenter( int tile ) {
+		return tile * GameMap.TILE_SIZE + GameMap.TILE_SIZE / 2;
+	}
+}
@@ -0,0 +1,19 @@
+package tanks;
+
+/**
+ * Decides where a tank fires at a target. Each tank has its own strategy, set
+ * with TankStore.setAimStrategy(), so different enemies can aim differently.
+ * Strategies are called in the game loop, so they must not allocate.
+ * @author Nicholas Grant
+ *
+ */
+public interface AimStrategy {
+	/**
+	 * Fires a tank's missile at a target tank
+	 * @param shooters	store holding the firing tank
+	 * @param i			slot of the firing tank
+	 * @param targets	store holding the target tank
+	 * @param t			slot of the target tank
+	 */
+	void fire( TankStore shooters, int i, TankStore targets, int t );
+}
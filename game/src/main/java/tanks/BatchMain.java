@@ -0,0 +1,106 @@
+package tanks;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs a batch of headless bot matches in parallel on every core and prints
+ * the win rate, average match length and simulation speed of each setup.
+ * Usage: java BatchMain [difficulties] [seeds] [maps] [maxTicks] [threads]
+ * Difficulties and seeds are a single value or an inclusive range such as 1-3
+ * or 0-9999, and maps is a comma-separated list of map files. Every seed is
+ * played on every map at every difficulty, and the same batch always plays
+ * out the same way, whatever the number of threads.
+ * @author Nicholas Grant
+ *
+ */
+public class BatchMain {
+	/**
+	 * Number of pieces each thread's share of the batch is split into, so
+	 * threads that finish early can steal work from the others
+	 */
+	private static final int SPLITS_PER_THREAD = 16;
+	/**
+	 * Runs the batch and prints the results.
+	 */
+	public static void main( String[] args ) {
+		long[] difficulty = parseRange( ( args.length > 0 ) ? args[0] : "1-3" );
+		long[] seeds = parseRange( ( args.length > 1 ) ? args[1] : "0-999" );
+		String[] mapNames = ( ( args.length > 2 ) ? args[2] : Panel.DEFAULT_MAP ).split( "," );
+		int maxTicks = ( args.length > 3 ) ? Integer.parseInt( args[3] ) : 20000;
+		int threads = ( args.length > 4 ) ? Integer.parseInt( args[4] )
+				: Runtime.getRuntime().availableProcessors();
+		if ( difficulty == null || seeds == null ) {
+			return;
+		}
+		if ( difficulty[0] < 1 || difficulty[1] >= GameWorld.HORDE ) {
+			System.out.println("Difficulties must be between 1 and " + ( GameWorld.HORDE - 1 ) + ".");
+			return;
+		}
+		GameMap[] maps = new GameMap[mapNames.length];
+		for ( int i = 0; i < maps.length; i++ ) {
+			maps[i] = GameMap.load( mapNames[i] );
+		}
+		int difficulties = (int)( difficulty[1] - difficulty[0] + 1 );
+		long seedCount = seeds[1] - seeds[0] + 1;
+		long total = seedCount * difficulties * maps.length;
+		long threshold = Math.max( 1, total / ( (long)threads * SPLITS_PER_THREAD ) );
+		ForkJoinPool pool = new ForkJoinPool( threads );
+		long start = System.nanoTime();
+		BatchResult result = pool.invoke( new BatchTask( maps, (int)difficulty[0], difficulties,
+				seeds[0], seedCount, maxTicks, 0, total, threshold ) );
+		double seconds = ( System.nanoTime() - start ) / 1e9;
+		pool.shutdown();
+		long matches = 0;
+		long wins = 0;
+		long losses = 0;
+		long ticks = 0;
+		for ( int s = 0; s < result.getSetups(); s++ ) {
+			System.out.printf( "%s, difficulty %d: %s%n", mapNames[s / difficulties],
+					difficulty[0] + s % difficulties, summary( result.getMatches( s ),
+					result.getWins( s ), result.getLosses( s ), result.getTicks( s ) ) );
+			matches += result.getMatches( s );
+			wins += result.getWins( s );
+			losses += result.getLosses( s );
+			ticks += result.getTicks( s );
+		}
+		System.out.printf( "total: %s%n", summary( matches, wins, losses, ticks ) );
+		System.out.printf( "%d ticks in %.2f s on %d threads (%.0f ticks/s)%n",
+				ticks, seconds, threads, ticks / seconds );
+	}
+	/**
+	 * Describes the totals of a group of matches
+	 * @param matches	matches played
+	 * @param wins		matches the player won
+	 * @param losses	matches the player lost
+	 * @param ticks		ticks simulated
+	 * @return			one line summary
+	 */
+	private static String summary( long matches, long wins, long losses, long ticks ) {
+		return String.format( "%d matches, won %.1f%%, lost %.1f%%, timed out %.1f%%, average %.0f ticks",
+				matches, 100.0 * wins / matches, 100.0 * losses / matches,
+				100.0 * ( matches - wins - losses ) / matches, (double)ticks / matches );
+	}
+	/**
+	 * Parses a single value or an inclusive range such as 0-999
+	 * @param s		the value or range
+	 * @return		the first and last values, or null if it isn't valid
+	 */
+	private static long[] parseRange( String s ) {
+		try {
+			int dash = s.indexOf( '-', 1 );
+			if ( dash < 0 ) {
+				long v = Long.parseLong( s );
+				return new long[] { v, v };
+			}
+			long first = Long.parseLong( s.substring( 0, dash ) );
+			long last = Long.parseLong( s.substring( dash + 1 ) );
+			if ( last >= first ) {
+				return new long[] { first, last };
+			}
+		} catch (NumberFormatException nfe) {
+			// reported below
+		}
+		System.out.println("Invalid range: " + s);
+		return null;
+	}
+}
@@ -0,0 +1,103 @@
+package tanks;
+
+/**
+ * Totals of a batch of headless matches, kept per setup (one map and one
+ * difficulty level). Each batch task fills in its own result, and results are
+ * added together as the tasks finish, so no totals are shared between threads.
+ * @author Nicholas Grant
+ *
+ */
+public class BatchResult {
+	/**
+	 * Matches played per setup
+	 */
+	private long[] matches;
+	/**
+	 * Matches the player won per setup
+	 */
+	private long[] wins;
+	/**
+	 * Matches the player lost per setup
+	 */
+	private long[] losses;
+	/**
+	 * Ticks simulated per setup
+	 */
+	private long[] ticks;
+	/**
+	 * Creates empty totals
+	 * @param setups	number of setups in the batch
+	 */
+	public BatchResult( int setups ) {
+		matches = new long[setups];
+		wins = new long[setups];
+		losses = new long[setups];
+		ticks = new long[setups];
+	}
+	/**
+	 * Counts a finished match
+	 * @param setup		the match's setup
+	 * @param world		the world the match was played in
+	 */
+	public void add( int setup, GameWorld world ) {
+		matches[setup]++;
+		if ( world.isWin() ) {
+			wins[setup]++;
+		}
+		else if ( world.isGameOver() ) {
+			losses[setup]++;
+		}
+		ticks[setup] += world.getTick();
+	}
+	/**
+	 * Adds another result's totals into this one
+	 * @param r		the other result
+	 */
+	public void add( BatchResult r ) {
+		for ( int i = 0; i < matches.length; i++ ) {
+			matches[i] += r.matches[i];
+			wins[i] += r.wins[i];
+			losses[i] += r.losses[i];
+			ticks[i] += r.ticks[i];
+		}
+	}
+	/**
+	 * Returns the number of setups in the batch
+	 * @return		setup count
+	 */
+	public int getSetups() {
+		return matches.length;
+	}
+	/**
+	 * Returns the number of matches played with a setup
+	 * @param setup		the setup
+	 * @return			match count
+	 */
+	public long getMatches( int setup ) {
+		return matches[setup];
+	}
+	/**
+	 * Returns the number of matches the player won with a setup
+	 * @param setup		the setup
+	 * @return			win count
+	 */
+	public long getWins( int setup ) {
+		return wins[setup];
+	}
+	/**
+	 * Returns the number of matches the player lost with a setup
+	 * @param setup		the setup
+	 * @return			loss count
+	 */
+	public long getLosses( int setup ) {
+		return losses[setup];
+	}
+	/**
+	 * Returns the number of ticks simulated with a setup
+	 * @param setup		the setup
+	 * @return			tick count
+	 */
+	public long getTicks( int setup ) {
+		return ticks[setup];
+	}
+}
@@ -0,0 +1,114 @@
+package tanks;
+
+import java.util.Random;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays a range of the matches of a batch on a ForkJoinPool. A batch is every
+ * combination of its maps, difficulty levels and seeds; match j plays seed
+ * j % seedCount with setup j / seedCount. Large ranges are split in half until
+ * they are small enough to play on one thread, so idle threads can steal work.
+ * Every match has its own world, and a world on a map with bricks wears down
+ * its own copy of the map (see the GameWorld constructor), so matches don't
+ * share any mutable state. Matches rely on that copy; the maps given are
+ * shared by every thread.
+ * @author Nicholas Grant
+ *
+ */
+public class BatchTask extends RecursiveTask<BatchResult> {
+	/**
+	 * Version of the serialized form, which RecursiveTask inherits from
+	 * ForkJoinTask
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The maps played on
+	 */
+	private final GameMap[] maps;
+	/**
+	 * Lowest difficulty level played
+	 */
+	private final int firstDifficulty;
+	/**
+	 * Number of difficulty levels played
+	 */
+	private final int difficulties;
+	/**
+	 * First seed played
+	 */
+	private final long firstSeed;
+	/**
+	 * Number of seeds played per setup
+	 */
+	private final long seedCount;
+	/**
+	 * Tick limit before a match is called off
+	 */
+	private final int maxTicks;
+	/**
+	 * First match of the range
+	 */
+	private final long from;
+	/**
+	 * End of the range (exclusive)
+	 */
+	private final long to;
+	/**
+	 * Largest range played without splitting
+	 */
+	private final long threshold;
+	/**
+	 * Creates a task for a range of a batch's matches
+	 * @param m			the maps played on
+	 * @param fd		lowest difficulty level played
+	 * @param dc		number of difficulty levels played
+	 * @param fs		first seed played
+	 * @param sc		number of seeds played per setup
+	 * @param max		tick limit before a match is called off
+	 * @param f			first match of the range
+	 * @param t			end of the range (exclusive)
+	 * @param th		largest range played without splitting
+	 */
+	public BatchTask( GameMap[] m, int fd, int dc, long fs, long sc, int max,
+			long f, long t, long th ) {
+		maps = m;
+		firstDifficulty = fd;
+		difficulties = dc;
+		firstSeed = fs;
+		seedCount = sc;
+		maxTicks = max;
+		from = f;
+		to = t;
+		threshold = th;
+	}
+	/**
+	 * Plays the range, splitting it first if it is too large
+	 * @return		totals of the range's matches
+	 */
+	@Override
+	protected BatchResult compute() {
+		if ( to - from > threshold ) {
+			long middle = ( from + to ) >>> 1;
+			BatchTask left = new BatchTask( maps, firstDifficulty, difficulties, firstSeed,
+					seedCount, maxTicks, from, middle, threshold );
+			BatchTask right = new BatchTask( maps, firstDifficulty, difficulties, firstSeed,
+					seedCount, maxTicks, middle, to, threshold );
+			left.fork();
+			BatchResult result = right.compute();
+			result.add( left.join() );
+			return result;
+		}
+		BatchResult result = new BatchResult( maps.length * difficulties );
+		for ( long j = from; j < to; j++ ) {
+			long seed = firstSeed + j % seedCount;
+			int setup = (int)( j / seedCount );
+			GameMap map = maps[setup / difficulties];
+			int difficulty = firstDifficulty + setup % difficulties;
+			GameWorld world = new GameWorld( difficulty, map, seed );
+			// the bot gets its own generator, so its moves don't shift the world's
+			HeadlessMain.playMatch( world, new Random( ~seed ), maxTicks );
+			result.add( setup, world );
+		}
+		return result;
+	}
+}
@@ -0,0 +1,167 @@
+package tanks;
+
+import java.util.Random;
+
+/**
+ * A scripted player driving a GameClient, for load testing a server. It plays
+ * the way a person at the keyboard would: it presses and releases W, A, S and
+ * D, holding each for a few hundred milliseconds, and turns the keys held into
+ * a direction with Panel.directionOf(), as the Panel does for the real keys.
+ * It sweeps the mouse around the map and clicks every second or so, firing
+ * at the spot clicked on the next tick, as Panel.mouseClicked() does.
+ *
+ * It also measures the time from sending each input to receiving the first
+ * snapshot that includes it, which is how late the player sees the server
+ * react without prediction.
+ * @author Nicholas Grant
+ *
+ */
+public class BotClient {
+	/**
+	 * The movement keys, in the order they are picked
+	 */
+	private static final char[] KEYS = { 'w', 'a', 's', 'd' };
+	/**
+	 * Shortest time a key is held or left up, in milliseconds
+	 */
+	private static final int MIN_KEY_MILLIS = 100;
+	/**
+	 * Longest extra time a key is held or left up, in milliseconds
+	 */
+	private static final int KEY_MILLIS = 600;
+	/**
+	 * Shortest time between clicks, in milliseconds
+	 */
+	private static final int MIN_CLICK_MILLIS = 300;
+	/**
+	 * Longest extra time between clicks, in milliseconds
+	 */
+	private static final int CLICK_MILLIS = 1500;
+	/**
+	 * Farthest the mouse moves per update, in pixels
+	 */
+	private static final int MOUSE_STEP = 8;
+	/**
+	 * The client
+	 */
+	private final GameClient client;
+	/**
+	 * Random source for the bot's keys and mouse
+	 */
+	private final Random rand;
+	/**
+	 * Width of the map in pixels, the range the mouse moves over
+	 */
+	private final int width;
+	/**
+	 * Height of the map in pixels
+	 */
+	private final int height;
+	/**
+	 * Time each input was sent, in milliseconds, indexed by sequence number
+	 * modulo Prediction.HISTORY
+	 */
+	private final long[] sentAt;
+	/**
+	 * Movement keys held, as bits from Panel.keyBit()
+	 */
+	private int pressed;
+	/**
+	 * Direction the held keys move the tank in
+	 */
+	private int direction;
+	/**
+	 * Mouse position
+	 */
+	private int mouseX;
+	/**
+	 * Mouse position
+	 */
+	private int mouseY;
+	/**
+	 * Time the next key is pressed or released, in milliseconds
+	 */
+	private long nextKey;
+	/**
+	 * Time of the next click, in milliseconds
+	 */
+	private long nextClick;
+	/**
+	 * Sequence number of the newest input whose snapshot has been timed
+	 */
+	private int timed;
+	/**
+	 * Creates a bot
+	 * @param c		the client it plays through
+	 * @param m		the map played on
+	 * @param seed	seed for the bot's keys and mouse
+	 */
+	public BotClient( GameClient c, GameMap m, long seed ) {
+		client = c;
+		rand = new Random( seed );
+		width = Math.max( 1, m.getWidth() * GameMap.TILE_SIZE );
+		height = Math.max( 1, m.getHeight() * GameMap.TILE_SIZE );
+		sentAt = new long[Prediction.HISTORY];
+		mouseX = rand.nextInt( width );
+		mouseY = rand.nextInt( height );
+		timed = -1;
+	}
+	/**
+	 * Plays for a moment and updates the client: presses or releases a key
+	 * and clicks when it's time, moves the mouse, then sends and receives
+	 * @param now		the current time in milliseconds
+	 * @param latency	histogram the input to snapshot times are recorded in,
+	 * 					in nanoseconds
+	 */
+	public void update( long now, LatencyHistogram latency ) {
+		PlayerInput input = client.getInput();
+		if ( now >= nextKey ) {
+			pressOrRelease();
+			nextKey = now + MIN_KEY_MILLIS + rand.nextInt( KEY_MILLIS );
+		}
+		mouseX = Math.max( 0, Math.min( width - 1, mouseX + rand.nextInt( 2 * MOUSE_STEP + 1 ) - MOUSE_STEP ) );
+		mouseY = Math.max( 0, Math.min( height - 1, mouseY + rand.nextInt( 2 * MOUSE_STEP + 1 ) - MOUSE_STEP ) );
+		input.setDirection( direction );
+		input.setAim( mouseX, mouseY );
+		if ( now >= nextClick && client.isJoined() ) {
+			input.fireAt( mouseX, mouseY );
+			nextClick = now + MIN_CLICK_MILLIS + rand.nextInt( CLICK_MILLIS );
+		}
+		int sent = client.getInputsSent();
+		client.update( now );
+		if ( client.getInputsSent() > sent ) {
+			sentAt[sent % sentAt.length] = now;
+		}
+		int applied = client.getLastInputApplied();
+		for ( int seq = Math.max( timed + 1, applied - sentAt.length + 1 ); seq <= applied; seq++ ) {
+			latency.record( ( now - sentAt[seq % sentAt.length] ) * 1000000L );
+		}
+		timed = Math.max( timed, applied );
+	}
+	/**
+	 * Presses a movement key, or releases one held, and works out the new
+	 * direction the way Panel.keyPressed() and keyReleased() do
+	 */
+	private void pressOrRelease() {
+		int held = Integer.bitCount( pressed );
+		if ( held > 0 && ( held >= 2 || rand.nextBoolean() ) ) {
+			int bit;
+			do {
+				bit = Panel.keyBit( KEYS[rand.nextInt( KEYS.length )] );
+			} while ( ( pressed & bit ) == 0 );
+			pressed &= ~bit;
+			direction = ( pressed == 0 ) ? 0 : Panel.directionOf( pressed, direction );
+		}
+		else {
+			pressed |= Panel.keyBit( KEYS[rand.nextInt( KEYS.length )] );
+			direction = Panel.directionOf( pressed, direction );
+		}
+	}
+	/**
+	 * Returns the client the bot plays through
+	 * @return		the client
+	 */
+	public GameClient getClient() {
+		return client;
+	}
+}
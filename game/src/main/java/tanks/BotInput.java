@@ -0,0 +1,43 @@
+package tanks;
+
+import java.util.Random;
+
+/**
+ * Plays every player of a room the way HeadlessMain's bot does: a random
+ * direction every 10 ticks, aiming and firing at the first remaining enemy.
+ * @author Nicholas Grant
+ *
+ */
+public class BotInput implements InputSource {
+	/**
+	 * Random source for the bots' moves
+	 */
+	private final Random rand;
+	/**
+	 * Creates a bot
+	 * @param seed	seed for the bots' moves
+	 */
+	public BotInput( long seed ) {
+		rand = new Random( seed );
+	}
+	/**
+	 * Picks each player's input for the next tick
+	 * @param world		the room's world
+	 * @param inputs	each player's input, indexed by player slot
+	 */
+	public void fill( GameWorld world, PlayerInput[] inputs ) {
+		for ( PlayerInput input : inputs ) {
+			if ( world.getTick() % 10 == 0 ) {
+				input.setDirection( rand.nextInt( 9 ) - 4 );
+			}
+			input.clearFire();
+			if ( !world.getEnemies().isEmpty() ) {
+				TankStore enemies = world.getEnemies();
+				int x = enemies.getX( 0 );
+				int y = enemies.getY( 0 );
+				input.setAim( x, y );
+				input.fireAt( x, y );
+			}
+		}
+	}
+}
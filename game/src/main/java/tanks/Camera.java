@@ -0,0 +1,108 @@
+package tanks;
+
+/**
+ * The part of the map shown in the window. The camera is centered on a point
+ * of the map, usually the player, but never scrolls past the map's edges, so
+ * a map smaller than the window is drawn from its top left corner. Drawing
+ * is offset by the camera's location, and only what the camera can see needs
+ * to be drawn.
+ * @author Nicholas Grant
+ *
+ */
+public class Camera {
+	/**
+	 * Map x-component of the view's left edge
+	 */
+	private int x;
+	/**
+	 * Map y-component of the view's top edge
+	 */
+	private int y;
+	/**
+	 * Width of the view in pixels
+	 */
+	private int width;
+	/**
+	 * Height of the view in pixels
+	 */
+	private int height;
+	/**
+	 * Creates a camera looking at the top left corner of the map
+	 * @param w		width of the view
+	 * @param h		height of the view
+	 */
+	public Camera( int w, int h ) {
+		width = w;
+		height = h;
+	}
+	/**
+	 * Centers the view on a point of the map, keeping it inside the map
+	 * @param cx		x-component of the point
+	 * @param cy		y-component of the point
+	 * @param w			width of the view
+	 * @param h			height of the view
+	 * @param mapWidth	width of the map in pixels
+	 * @param mapHeight	height of the map in pixels
+	 */
+	public void follow( int cx, int cy, int w, int h, int mapWidth, int mapHeight ) {
+		width = w;
+		height = h;
+		x = Math.max( 0, Math.min( cx - w / 2, mapWidth - w ) );
+		y = Math.max( 0, Math.min( cy - h / 2, mapHeight - h ) );
+	}
+	/**
+	 * Returns the map x-component of the view's left edge
+	 * @return		left edge x-component
+	 */
+	public int getX() {
+		return x;
+	}
+	/**
+	 * Returns the map y-component of the view's top edge
+	 * @return		top edge y-component
+	 */
+	public int getY() {
+		return y;
+	}
+	/**
+	 * Returns the width of the view
+	 * @return		view width in pixels
+	 */
+	public int getWidth() {
+		return width;
+	}
+	/**
+	 * Returns the height of the view
+	 * @return		view height in pixels
+	 */
+	public int getHeight() {
+		return height;
+	}
+	/**
+	 * Converts a window x-component, such as the mouse's, to a map x-component
+	 * @param sx	window x-component
+	 * @return		map x-component
+	 */
+	public int toMapX( int sx ) {
+		return sx + x;
+	}
+	/**
+	 * Converts a window y-component, such as the mouse's, to a map y-component
+	 * @param sy	window y-component
+	 * @return		map y-component
+	 */
+	public int toMapY( int sy ) {
+		return sy + y;
+	}
+	/**
+	 * Checks to see if anything within a distance of a point can be in view
+	 * @param px		x-component of the point
+	 * @param py		y-component of the point
+	 * @param margin	distance from the point that is drawn
+	 * @return			true if it may be in view, false if it can be skipped
+	 */
+	public boolean isVisible( double px, double py, int margin ) {
+		return px >= x - margin && px < x + width + margin
+				&& py >= y - margin && py < y + height + margin;
+	}
+}
@@ -0,0 +1,255 @@
+package tanks;
+
+import java.net.SocketAddress;
+
+/**
+ * A GameServer's record of one connected client: the player slot it controls,
+ * the newest snapshot it has acknowledged, and the inputs it has sent that
+ * haven't been applied yet.
+ *
+ * Clients send each input several times, in consecutive packets, so a lost
+ * packet rarely loses an input. Inputs wait in a small ring keyed by their
+ * sequence number and the server applies one per tick, in order. If the next
+ * input hasn't arrived, the oldest later one is used and the ones skipped
+ * count as dropped; if none has arrived, the last input is repeated (without
+ * firing again) and the tick counts as late. A client that has run ahead by
+ * more than MAX_BACKLOG inputs is caught up, dropping the oldest, so its
+ * inputs don't fall further and further behind.
+ * @author Nicholas Grant
+ *
+ */
+public class ClientConnection {
+	/**
+	 * Number of inputs that can wait to be applied
+	 */
+	public static final int INPUT_BUFFER = 32;
+	/**
+	 * Most inputs that can wait before the oldest are dropped
+	 */
+	public static final int MAX_BACKLOG = 4;
+	/**
+	 * Address the client sends from
+	 */
+	private final SocketAddress address;
+	/**
+	 * Slot of the client's tank in the world's players store
+	 */
+	private final int slot;
+	/**
+	 * Newest snapshot tick the client has acknowledged, or -1
+	 */
+	private long ackTick;
+	/**
+	 * Time in milliseconds the client was last heard from
+	 */
+	private long lastHeard;
+	/**
+	 * Sequence number of the last input applied, or -1
+	 */
+	private int lastApplied;
+	/**
+	 * Newest input sequence number received, or -1
+	 */
+	private int newestSeq;
+	/**
+	 * Inputs waiting to be applied, indexed by sequence number modulo INPUT_BUFFER
+	 */
+	private final PlayerInput[] inputs;
+	/**
+	 * Sequence number of each waiting input, or -1 for an empty ring slot
+	 */
+	private final int[] inputSeq;
+	/**
+	 * Bytes of snapshots sent to the client
+	 */
+	private long bytesSent;
+	/**
+	 * Snapshots sent to the client
+	 */
+	private long snapshotsSent;
+	/**
+	 * Snapshots sent without an acknowledged snapshot to write them against
+	 */
+	private long fullSnapshots;
+	/**
+	 * Inputs applied
+	 */
+	private long inputsApplied;
+	/**
+	 * Inputs skipped because they arrived too late or never arrived
+	 */
+	private long inputsDropped;
+	/**
+	 * Ticks with no new input from the client
+	 */
+	private long inputsLate;
+	/**
+	 * Creates the record of a client that has just joined
+	 * @param a		address the client sends from
+	 * @param s		slot of the client's tank
+	 * @param now	the current time in milliseconds
+	 */
+	public ClientConnection( SocketAddress a, int s, long now ) {
+		address = a;
+		slot = s;
+		ackTick = -1;
+		lastHeard = now;
+		lastApplied = -1;
+		newestSeq = -1;
+		inputs = new PlayerInput[INPUT_BUFFER];
+		inputSeq = new int[INPUT_BUFFER];
+		for ( int k = 0; k < INPUT_BUFFER; k++ ) {
+			inputs[k] = new PlayerInput();
+			inputSeq[k] = -1;
+		}
+	}
+	/**
+	 * Keeps an input received from the client until its tick, ignoring inputs
+	 * already applied or already received
+	 * @param seq		the input's sequence number
+	 * @param input		the input
+	 */
+	public void receiveInput( int seq, PlayerInput input ) {
+		if ( seq <= lastApplied || seq < newestSeq - INPUT_BUFFER + 1 ) {
+			return;
+		}
+		int k = seq % INPUT_BUFFER;
+		if ( inputSeq[k] == seq ) {
+			return;
+		}
+		inputs[k].copyFrom( input );
+		inputSeq[k] = seq;
+		newestSeq = Math.max( newestSeq, seq );
+	}
+	/**
+	 * Picks the input to apply this tick and copies it into the player's input
+	 * @param out	the player's input, holding the input applied last tick
+	 */
+	public void nextInput( PlayerInput out ) {
+		if ( newestSeq <= lastApplied ) {
+			inputsLate++;
+			out.clearFire();
+			return;
+		}
+		int from = Math.max( lastApplied + 1, newestSeq - MAX_BACKLOG + 1 );
+		for ( int seq = from; seq <= newestSeq; seq++ ) {
+			int k = seq % INPUT_BUFFER;
+			if ( inputSeq[k] == seq ) {
+				inputsDropped += seq - lastApplied - 1;
+				out.copyFrom( inputs[k] );
+				inputSeq[k] = -1;
+				lastApplied = seq;
+				inputsApplied++;
+				return;
+			}
+		}
+		// the newest input is always waiting, so this isn't reached
+		inputsLate++;
+		out.clearFire();
+	}
+	/**
+	 * Records that a snapshot was sent to the client
+	 * @param bytes		size of the snapshot packet
+	 * @param full		true if it wasn't written against an acknowledged snapshot
+	 */
+	public void snapshotSent( int bytes, boolean full ) {
+		bytesSent += bytes;
+		snapshotsSent++;
+		if ( full ) {
+			fullSnapshots++;
+		}
+	}
+	/**
+	 * Records that the client was heard from and the snapshot it acknowledged
+	 * @param tick		newest snapshot tick the client has, or -1
+	 * @param now		the current time in milliseconds
+	 */
+	public void heard( long tick, long now ) {
+		ackTick = Math.max( ackTick, tick );
+		lastHeard = now;
+	}
+	/**
+	 * Forgets the snapshot the client acknowledged, such as when a new match
+	 * starts and the snapshots kept are thrown away
+	 */
+	public void resetAck() {
+		ackTick = -1;
+	}
+	/**
+	 * Returns the address the client sends from
+	 * @return		client address
+	 */
+	public SocketAddress getAddress() {
+		return address;
+	}
+	/**
+	 * Returns the slot of the client's tank in the world's players store
+	 * @return		player slot
+	 */
+	public int getSlot() {
+		return slot;
+	}
+	/**
+	 * Returns the newest snapshot tick the client has acknowledged
+	 * @return		tick, or -1 if none
+	 */
+	public long getAckTick() {
+		return ackTick;
+	}
+	/**
+	 * Returns the time the client was last heard from
+	 * @return		time in milliseconds
+	 */
+	public long getLastHeard() {
+		return lastHeard;
+	}
+	/**
+	 * Returns the sequence number of the last input applied
+	 * @return		input sequence number, or -1 if none
+	 */
+	public int getLastApplied() {
+		return lastApplied;
+	}
+	/**
+	 * Returns the number of bytes of snapshots sent to the client
+	 * @return		bytes sent
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+	/**
+	 * Returns the number of snapshots sent to the client
+	 * @return		snapshots sent
+	 */
+	public long getSnapshotsSent() {
+		return snapshotsSent;
+	}
+	/**
+	 * Returns the number of snapshots sent in full
+	 * @return		full snapshots sent
+	 */
+	public long getFullSnapshots() {
+		return fullSnapshots;
+	}
+	/**
+	 * Returns the number of inputs applied
+	 * @return		inputs applied
+	 */
+	public long getInputsApplied() {
+		return inputsApplied;
+	}
+	/**
+	 * Returns the number of inputs skipped
+	 * @return		inputs dropped
+	 */
+	public long getInputsDropped() {
+		return inputsDropped;
+	}
+	/**
+	 * Returns the number of ticks with no new input from the client
+	 * @return		late ticks
+	 */
+	public long getInputsLate() {
+		return inputsLate;
+	}
+}
@@ -0,0 +1,21 @@
+package tanks;
+
+/**
+ * Fires straight at the target's current location. Misses a moving target
+ * unless it is close or moving straight toward the shooter.
+ * @author Nicholas Grant
+ *
+ */
+public class DirectAim implements AimStrategy {
+	/**
+	 * Fires a tank's missile at the target's current location
+	 * @param shooters	store holding the firing tank
+	 * @param i			slot of the firing tank
+	 * @param targets	store holding the target tank
+	 * @param t			slot of the target tank
+	 */
+	@Override
+	public void fire( TankStore shooters, int i, TankStore targets, int t ) {
+		shooters.shootToward( i, targets.getX( t ), targets.getY( t ) );
+	}
+}
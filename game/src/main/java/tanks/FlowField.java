@@ -0,0 +1,198 @@
+package tanks;
+
+import java.util.Arrays;
+
+/**
+ * Distance map over the tiles of a game map, leading every enemy toward one
+ * goal (the player). A breadth-first search from the goal's tile gives each
+ * open tile its number of moves to the goal, so a tank finds its way by
+ * stepping to the neighbouring tile with the smallest distance. The field is
+ * only searched again when the goal moves to another tile or a wall of the
+ * map breaks, and one field is shared by every enemy, so a horde costs one
+ * grid pass per player tile change instead of one path search per tank.
+ * Searching reuses the field's arrays, so it doesn't allocate.
+ * @author Nicholas Grant
+ *
+ */
+public class FlowField {
+	/**
+	 * Distance of a tile that can't reach the goal
+	 */
+	public static final int UNREACHED = Integer.MAX_VALUE;
+	/**
+	 * Column offsets of the eight neighbouring tiles
+	 */
+	private static final int[] NEIGHBOUR_COL = { 1, -1, 0, 0, 1, 1, -1, -1 };
+	/**
+	 * Row offsets of the eight neighbouring tiles
+	 */
+	private static final int[] NEIGHBOUR_ROW = { 0, 0, 1, -1, 1, -1, 1, -1 };
+	/**
+	 * The map searched
+	 */
+	private final GameMap map;
+	/**
+	 * Moves from each tile to the goal, indexed by row * width + column
+	 */
+	private final int[] distance;
+	/**
+	 * Tiles waiting to be searched
+	 */
+	private final int[] queue;
+	/**
+	 * Tile the field leads to, or -1 if the goal isn't on an open tile
+	 */
+	private int goal;
+	/**
+	 * Number of walls the map had broken when the field was last searched
+	 */
+	private int broken;
+	/**
+	 * Number of times the field has been searched
+	 */
+	private long searches;
+	/**
+	 * Creates a field for a map, with no goal yet
+	 * @param m		the map to search
+	 */
+	public FlowField( GameMap m ) {
+		map = m;
+		distance = new int[m.getWidth() * m.getHeight()];
+		queue = new int[distance.length];
+		Arrays.fill( distance, UNREACHED );
+		goal = -1;
+	}
+	/**
+	 * Points the field at the goal's current location, searching the map again
+	 * only if the goal has moved to another tile or a wall has broken since
+	 * @param x		the goal's x-component
+	 * @param y		the goal's y-component
+	 */
+	public void update( int x, int y ) {
+		int tile = tileAt( x, y );
+		if ( tile == goal && map.getBroken() == broken ) {
+			return;
+		}
+		goal = tile;
+		broken = map.getBroken();
+		search();
+	}
+	/**
+	 * Breadth-first search outward from the goal. A diagonal step is only taken
+	 * when both tiles beside it are open, so a tank following the field never
+	 * cuts the corner of a wall.
+	 */
+	private void search() {
+		Arrays.fill( distance, UNREACHED );
+		searches++;
+		if ( goal < 0 ) {
+			return;
+		}
+		int width = map.getWidth();
+		int head = 0;
+		int tail = 0;
+		distance[goal] = 0;
+		queue[tail++] = goal;
+		while ( head < tail ) {
+			int tile = queue[head++];
+			int row = tile / width;
+			int col = tile % width;
+			int next = distance[tile] + 1;
+			for ( int k = 0; k < NEIGHBOUR_COL.length; k++ ) {
+				int r = row + NEIGHBOUR_ROW[k];
+				int c = col + NEIGHBOUR_COL[k];
+				if ( !isOpen( r, c ) || distance[r * width + c] != UNREACHED ) {
+					continue;
+				}
+				if ( r != row && c != col && ( !isOpen( row, c ) || !isOpen( r, col ) ) ) {
+					continue;
+				}
+				distance[r * width + c] = next;
+				queue[tail++] = r * width + c;
+			}
+		}
+	}
+	/**
+	 * Finds the neighbouring tile a tank should move into to get closer to the goal
+	 * @param x		the tank's x-component
+	 * @param y		the tank's y-component
+	 * @return		the next tile as row * width + column, or -1 if the tank is
+	 * 				on the goal's tile or can't reach it
+	 */
+	public int nextTile( int x, int y ) {
+		int tile = tileAt( x, y );
+		if ( tile < 0 || distance[tile] == UNREACHED || distance[tile] == 0 ) {
+			return -1;
+		}
+		int width = map.getWidth();
+		int row = tile / width;
+		int col = tile % width;
+		for ( int k = 0; k < NEIGHBOUR_COL.length; k++ ) {
+			int r = row + NEIGHBOUR_ROW[k];
+			int c = col + NEIGHBOUR_COL[k];
+			if ( !isOpen( r, c ) || distance[r * width + c] != distance[tile] - 1 ) {
+				continue;
+			}
+			if ( r != row && c != col && ( !isOpen( row, c ) || !isOpen( r, col ) ) ) {
+				continue;
+			}
+			return r * width + c;
+		}
+		return -1;
+	}
+	/**
+	 * Returns the number of moves from the tile at a location to the goal
+	 * @param x		the location's x-component
+	 * @param y		the location's y-component
+	 * @return		moves to the goal, or UNREACHED if the goal can't be reached
+	 */
+	public int getDistance( int x, int y ) {
+		int tile = tileAt( x, y );
+		return ( tile < 0 ) ? UNREACHED : distance[tile];
+	}
+	/**
+	 * Returns the x-component of a tile's center
+	 * @param tile	the tile as row * width + column
+	 * @return		center x-component
+	 */
+	public int centerX( int tile ) {
+		return ( tile % map.getWidth() ) * GameMap.TILE_SIZE + GameMap.TILE_SIZE / 2;
+	}
+	/**
+	 * Returns the y-component of a tile's center
+	 * @param tile	the tile as row * width + column
+	 * @return		center y-component
+	 */
+	public int centerY( int tile ) {
+		return ( tile / map.getWidth() ) * GameMap.TILE_SIZE + GameMap.TILE_SIZE / 2;
+	}
+	/**
+	 * Returns the number of times the field has been searched
+	 * @return		search count
+	 */
+	public long getSearches() {
+		return searches;
+	}
+	/**
+	 * Finds the open tile at a location
+	 * @param x		the location's x-component
+	 * @param y		the location's y-component
+	 * @return		the tile as row * width + column, or -1 if the location is
+	 * 				off the map or in a wall
+	 */
+	private int tileAt( int x, int y ) {
+		int row = Math.floorDiv( y, GameMap.TILE_SIZE );
+		int col = Math.floorDiv( x, GameMap.TILE_SIZE );
+		return isOpen( row, col ) ? row * map.getWidth() + col : -1;
+	}
+	/**
+	 * Checks to see if a tile is on the map and not a wall
+	 * @param row	tile row
+	 * @param col	tile column
+	 * @return		true if open, false if not
+	 */
+	private boolean isOpen( int row, int col ) {
+		return row >= 0 && col >= 0 && row < map.getHeight() && col < map.getWidth()
+				&& !map.isWall( row, col );
+	}
+}
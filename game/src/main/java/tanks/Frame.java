@@ -0,0 +1,51 @@
+package tanks;
+
+import javax.swing.JFrame;
+
+/**
+ * Sets up the frame for the game to be displayed.
+ * @author Nicholas Grant
+ *
+ */
+public class Frame extends JFrame {
+	/**
+	 * Width and height of the window in pixels when it opens. The window can
+	 * be resized; maps larger than it scroll to follow the player.
+	 */
+	public static final int WINDOW_SIZE = 845;
+	/**
+	 * Frame constructor - Resolution: WINDOW_SIZE x WINDOW_SIZE
+	 * Uses a panel to render the game elements to the frame.
+	 * @param d			difficulty of the game
+	 */
+	public Frame( int d ) {
+		this( new Panel( d ) );
+	}
+	/**
+	 * Frame constructor for a world that has already been set up
+	 * @param world		the world to play
+	 */
+	public Frame( GameWorld world ) {
+		this( world, null );
+	}
+	/**
+	 * Frame constructor for a world that has already been set up, recording
+	 * the match to a replay
+	 * @param world		the world to play
+	 * @param recorder	records the player's input, or null to not record
+	 */
+	public Frame( GameWorld world, ReplayRecorder recorder ) {
+		this( new Panel( world, Panel.DEFAULT_TICKS_PER_SECOND, recorder ) );
+	}
+	/**
+	 * Frame constructor - Resolution: WINDOW_SIZE x WINDOW_SIZE
+	 * @param panel		the panel that runs and renders the game
+	 */
+	private Frame( Panel panel ) {
+		add( panel );
+		setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
+		setSize( WINDOW_SIZE, WINDOW_SIZE );
+		setVisible( true );
+		panel.requestFocus();
+	}
+}
@@ -0,0 +1,74 @@
+package tanks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer handing FrameStates from the game thread to the
+ * renderer. The game thread always owns one buffer to write into, the renderer
+ * always owns one buffer to read from, and the third sits in the middle holding
+ * the latest published frame. Publishing and reading each swap with the middle
+ * buffer in a single atomic step, so neither side ever waits for the other or
+ * sees a half-written frame.
+ * @author Nicholas Grant
+ *
+ */
+public class FrameBuffer {
+	/**
+	 * Bit set in the middle index when it holds a frame the reader hasn't taken yet
+	 */
+	private static final int FRESH = 4;
+	/**
+	 * Mask extracting the buffer index from the middle index
+	 */
+	private static final int INDEX = 3;
+	/**
+	 * The three frame buffers
+	 */
+	private final FrameState[] frames;
+	/**
+	 * Index of the middle buffer, plus the FRESH bit
+	 */
+	private final AtomicInteger middle;
+	/**
+	 * Index of the buffer the writer fills; only touched by the writer
+	 */
+	private int back;
+	/**
+	 * Index of the buffer the reader draws; only touched by the reader
+	 */
+	private int front;
+	/**
+	 * Creates a buffer with three empty frames
+	 */
+	public FrameBuffer() {
+		frames = new FrameState[] { new FrameState(), new FrameState(), new FrameState() };
+		back = 0;
+		middle = new AtomicInteger( 1 );
+		front = 2;
+	}
+	/**
+	 * Returns the frame the writer should fill next. Only call from the writer thread.
+	 * @return		the back frame
+	 */
+	public FrameState getBack() {
+		return frames[back];
+	}
+	/**
+	 * Publishes the back frame as the latest frame and takes over the old
+	 * middle frame as the new back frame. Only call from the writer thread.
+	 */
+	public void publish() {
+		back = middle.getAndSet( back | FRESH ) & INDEX;
+	}
+	/**
+	 * Returns the latest published frame, swapping it in if a newer one is
+	 * waiting. Only call from the reader thread.
+	 * @return		the latest frame
+	 */
+	public FrameState read() {
+		if ( ( middle.get() & FRESH ) != 0 ) {
+			front = middle.getAndSet( front ) & INDEX;
+		}
+		return frames[front];
+	}
+}
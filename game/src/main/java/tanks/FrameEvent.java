@@ -0,0 +1,38 @@
+package tanks;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for one rendered frame. The event's duration is the
+ * time spent drawing; the interval is the time since the previous frame
+ * started, which includes the ticks run in between and the sleep. Emitted by
+ * a TickProfiler, which reuses one event for every frame.
+ * @author Nicholas Grant
+ *
+ */
+@Name( "tanks.Frame" )
+@Label( "Frame" )
+@Category( "Tanks" )
+@Description( "One rendered frame" )
+@StackTrace( false )
+public class FrameEvent extends Event {
+	/**
+	 * Time since the previous frame started, or 0 for the first frame
+	 */
+	@Label( "Interval" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long interval;
+	/**
+	 * Sets the time since the previous frame started
+	 * @param i		interval in nanoseconds
+	 */
+	public void setInterval( long i ) {
+		interval = i;
+	}
+}
@@ -0,0 +1,377 @@
+package tanks;
+
+import java.awt.Color;
+
+/**
+ * A copy of everything the renderer needs to draw one tick of the game. The game
+ * thread fills a FrameState and hands it over through a FrameBuffer; once handed
+ * over it isn't written again until the renderer has moved on to a newer one.
+ * Index 0 of the tank arrays holds the player when the player is alive,
+ * followed by any other living players and then the enemies.
+ * @author Nicholas Grant
+ *
+ */
+public class FrameState {
+	/**
+	 * The tick this state was copied at
+	 */
+	private long tick;
+	/**
+	 * True = player has been defeated, false otherwise
+	 */
+	private boolean gameOver;
+	/**
+	 * True = player has won, false otherwise
+	 */
+	private boolean win;
+	/**
+	 * Number of lives the player has left
+	 */
+	private int playerLives;
+	/**
+	 * The map the world is played on
+	 */
+	private GameMap map;
+	/**
+	 * Number of brick hits the map had logged at this tick
+	 */
+	private int mapChanges;
+	/**
+	 * Number of tanks held in the arrays below
+	 */
+	private int tankCount;
+	/**
+	 * Tank center x-components before the last tick
+	 */
+	private int[] prevX;
+	/**
+	 * Tank center y-components before the last tick
+	 */
+	private int[] prevY;
+	/**
+	 * Tank center x-components
+	 */
+	private int[] x;
+	/**
+	 * Tank center y-components
+	 */
+	private int[] y;
+	/**
+	 * Barrel end point x-components
+	 */
+	private int[] barrelX;
+	/**
+	 * Barrel end point y-components
+	 */
+	private int[] barrelY;
+	/**
+	 * Tank widths
+	 */
+	private int[] width;
+	/**
+	 * Tank heights
+	 */
+	private int[] height;
+	/**
+	 * Tank colors
+	 */
+	private Color[] color;
+	/**
+	 * Number of missiles held in the missile arrays below
+	 */
+	private int missileCount;
+	/**
+	 * Missile x-components before the last tick
+	 */
+	private double[] missilePrevX;
+	/**
+	 * Missile y-components before the last tick
+	 */
+	private double[] missilePrevY;
+	/**
+	 * Missile x-components
+	 */
+	private double[] missileX;
+	/**
+	 * Missile y-components
+	 */
+	private double[] missileY;
+	/**
+	 * Missile colors
+	 */
+	private Color[] missileColor;
+	/**
+	 * Creates an empty frame state
+	 */
+	public FrameState() {
+		ensureCapacity( 4 );
+		ensureMissileCapacity( 4 );
+	}
+	/**
+	 * Copies the current state of the world into this frame state. Arrays are
+	 * only reallocated when the world holds more tanks or missiles than ever
+	 * before.
+	 * @param world		the world to copy
+	 */
+	public void copyFrom( GameWorld world ) {
+		TankStore enemies = world.getEnemies();
+		TankStore players = world.getPlayers();
+		Tank player = world.getPlayer();
+		ensureCapacity( enemies.size() + players.size() );
+		tick = world.getTick();
+		gameOver = world.isGameOver();
+		win = world.isWin();
+		playerLives = player.getLives();
+		map = world.getMap();
+		mapChanges = map.getChangeCount();
+		tankCount = 0;
+		for ( int p = 0; p < players.size(); p++ ) {
+			if ( players.getLives( p ) > 0 ) {
+				copyTank( players, p );
+			}
+		}
+		for ( int i = 0; i < enemies.size(); i++ ) {
+			copyTank( enemies, i );
+		}
+		MissileStore playerMissiles = players.getMissiles();
+		MissileStore enemyMissiles = enemies.getMissiles();
+		ensureMissileCapacity( playerMissiles.size() + enemyMissiles.size() );
+		missileCount = 0;
+		copyMissiles( playerMissiles );
+		copyMissiles( enemyMissiles );
+	}
+	/**
+	 * Copies one tank into the next free slot
+	 * @param s		the store holding the tank
+	 * @param t		the tank's slot in the store
+	 */
+	private void copyTank( TankStore s, int t ) {
+		int i = tankCount++;
+		prevX[i] = s.getPrevX( t );
+		prevY[i] = s.getPrevY( t );
+		x[i] = s.getX( t );
+		y[i] = s.getY( t );
+		barrelX[i] = s.getBarrelX( t );
+		barrelY[i] = s.getBarrelY( t );
+		width[i] = TankStore.TANK_SIZE;
+		height[i] = TankStore.TANK_SIZE;
+		color[i] = s.getColor( t );
+	}
+	/**
+	 * Copies every missile of a store into the next free missile slots
+	 * @param s		the store holding the missiles
+	 */
+	private void copyMissiles( MissileStore s ) {
+		for ( int m = 0; m < s.size(); m++ ) {
+			int i = missileCount++;
+			missilePrevX[i] = s.getPrevX( m );
+			missilePrevY[i] = s.getPrevY( m );
+			missileX[i] = s.getX( m );
+			missileY[i] = s.getY( m );
+			missileColor[i] = s.getColor( m );
+		}
+	}
+	/**
+	 * Grows the arrays to hold at least the given number of tanks
+	 * @param n		number of tanks
+	 */
+	private void ensureCapacity( int n ) {
+		if ( x != null && x.length >= n ) {
+			return;
+		}
+		int size = Math.max( n, ( x == null ) ? 0 : x.length * 2 );
+		prevX = new int[size];
+		prevY = new int[size];
+		x = new int[size];
+		y = new int[size];
+		barrelX = new int[size];
+		barrelY = new int[size];
+		width = new int[size];
+		height = new int[size];
+		color = new Color[size];
+	}
+	/**
+	 * Grows the missile arrays to hold at least the given number of missiles
+	 * @param n		number of missiles
+	 */
+	private void ensureMissileCapacity( int n ) {
+		if ( missileX != null && missileX.length >= n ) {
+			return;
+		}
+		int size = Math.max( n, ( missileX == null ) ? 0 : missileX.length * 2 );
+		missilePrevX = new double[size];
+		missilePrevY = new double[size];
+		missileX = new double[size];
+		missileY = new double[size];
+		missileColor = new Color[size];
+	}
+	/**
+	 * Returns the tick this state was copied at
+	 * @return		tick number
+	 */
+	public long getTick() {
+		return tick;
+	}
+	/**
+	 * Returns whether the player has been defeated
+	 * @return		true if the player lost
+	 */
+	public boolean isGameOver() {
+		return gameOver;
+	}
+	/**
+	 * Returns whether the player has won
+	 * @return		true if the player won
+	 */
+	public boolean isWin() {
+		return win;
+	}
+	/**
+	 * Returns the number of lives the player has left
+	 * @return		player lives
+	 */
+	public int getPlayerLives() {
+		return playerLives;
+	}
+	/**
+	 * Returns the map the world is played on
+	 * @return		the game map
+	 */
+	public GameMap getMap() {
+		return map;
+	}
+	/**
+	 * Returns the number of brick hits the map had logged at this tick. Log
+	 * entries up to this count can be read by the renderer.
+	 * @return		number of map changes
+	 */
+	public int getMapChanges() {
+		return mapChanges;
+	}
+	/**
+	 * Returns the number of tanks in this state
+	 * @return		tank count
+	 */
+	public int getTankCount() {
+		return tankCount;
+	}
+	/**
+	 * Returns a tank's center x-component before the last tick
+	 * @param i		tank index
+	 * @return		previous center x-component
+	 */
+	public int getPrevX( int i ) {
+		return prevX[i];
+	}
+	/**
+	 * Returns a tank's center y-component before the last tick
+	 * @param i		tank index
+	 * @return		previous center y-component
+	 */
+	public int getPrevY( int i ) {
+		return prevY[i];
+	}
+	/**
+	 * Returns a tank's center x-component
+	 * @param i		tank index
+	 * @return		center x-component
+	 */
+	public int getX( int i ) {
+		return x[i];
+	}
+	/**
+	 * Returns a tank's center y-component
+	 * @param i		tank index
+	 * @return		center y-component
+	 */
+	public int getY( int i ) {
+		return y[i];
+	}
+	/**
+	 * Returns a tank's barrel end point x-component
+	 * @param i		tank index
+	 * @return		barrel x-component
+	 */
+	public int getBarrelX( int i ) {
+		return barrelX[i];
+	}
+	/**
+	 * Returns a tank's barrel end point y-component
+	 * @param i		tank index
+	 * @return		barrel y-component
+	 */
+	public int getBarrelY( int i ) {
+		return barrelY[i];
+	}
+	/**
+	 * Returns a tank's width
+	 * @param i		tank index
+	 * @return		tank width
+	 */
+	public int getWidth( int i ) {
+		return width[i];
+	}
+	/**
+	 * Returns a tank's height
+	 * @param i		tank index
+	 * @return		tank height
+	 */
+	public int getHeight( int i ) {
+		return height[i];
+	}
+	/**
+	 * Returns a tank's color
+	 * @param i		tank index
+	 * @return		tank color
+	 */
+	public Color getColor( int i ) {
+		return color[i];
+	}
+	/**
+	 * Returns the number of missiles in this state
+	 * @return		missile count
+	 */
+	public int getMissileCount() {
+		return missileCount;
+	}
+	/**
+	 * Returns a missile's x-component before the last tick
+	 * @param i		missile index
+	 * @return		previous missile x-component
+	 */
+	public double getMissilePrevX( int i ) {
+		return missilePrevX[i];
+	}
+	/**
+	 * Returns a missile's y-component before the last tick
+	 * @param i		missile index
+	 * @return		previous missile y-component
+	 */
+	public double getMissilePrevY( int i ) {
+		return missilePrevY[i];
+	}
+	/**
+	 * Returns a missile's x-component
+	 * @param i		missile index
+	 * @return		missile x-component
+	 */
+	public double getMissileX( int i ) {
+		return missileX[i];
+	}
+	/**
+	 * Returns a missile's y-component
+	 * @param i		missile index
+	 * @return		missile y-component
+	 */
+	public double getMissileY( int i ) {
+		return missileY[i];
+	}
+	/**
+	 * Returns a missile's color
+	 * @param i		missile index
+	 * @return		missile color
+	 */
+	public Color getMissileColor( int i ) {
+		return missileColor[i];
+	}
+}
@@ -0,0 +1,84 @@
+package tanks;
+
+/**
+ * Keeps the durations of the most recent frames to report frame rate and frame times.
+ * @author Nicholas Grant
+ *
+ */
+public class FrameTimer {
+	/**
+	 * Number of frames remembered
+	 */
+	private static final int WINDOW = 120;
+	/**
+	 * Duration of each remembered frame in nanoseconds, used as a ring
+	 */
+	private final long[] durations;
+	/**
+	 * Time each remembered frame started at, used as a ring
+	 */
+	private final long[] starts;
+	/**
+	 * Index the next frame is written to
+	 */
+	private int next;
+	/**
+	 * Number of frames remembered so far (up to WINDOW)
+	 */
+	private int count;
+	/**
+	 * Creates an empty frame timer
+	 */
+	public FrameTimer() {
+		durations = new long[WINDOW];
+		starts = new long[WINDOW];
+	}
+	/**
+	 * Records one rendered frame
+	 * @param start		System.nanoTime() when the frame started
+	 * @param end		System.nanoTime() when the frame was shown
+	 */
+	public void record( long start, long end ) {
+		starts[next] = start;
+		durations[next] = end - start;
+		next = ( next + 1 ) % WINDOW;
+		if ( count < WINDOW ) {
+			count++;
+		}
+	}
+	/**
+	 * Returns the number of frames per second over the remembered frames
+	 * @return		frames per second
+	 */
+	public double getFps() {
+		if ( count < 2 ) {
+			return 0;
+		}
+		int newest = ( next + WINDOW - 1 ) % WINDOW;
+		int oldest = ( count < WINDOW ) ? 0 : next;
+		long span = starts[newest] - starts[oldest];
+		return ( span <= 0 ) ? 0 : ( count - 1 ) * 1e9 / span;
+	}
+	/**
+	 * Returns the average time spent rendering a frame
+	 * @return		average frame time in milliseconds
+	 */
+	public double getAverageMillis() {
+		long total = 0;
+		for ( int i = 0; i < count; i++ ) {
+			total += durations[i];
+		}
+		return ( count == 0 ) ? 0 : total / 1e6 / count;
+	}
+	/**
+	 * Returns the longest time spent rendering one of the remembered frames
+	 * @return		longest frame time in milliseconds
+	 */
+	public double getMaxMillis() {
+		long max = 0;
+		for ( int i = 0; i < count; i++ ) {
+			max = Math.max( max, durations[i] );
+		}
+		return max / 1e6;
+	}
+}
@@ -0,0 +1,381 @@
+package tanks;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * The client end of a networked match. It sends the player's input to a
+ * GameServer every tick and keeps the snapshots the server sends back; apart
+ * from predicting the player's own tank, it doesn't simulate anything itself.
+ *
+ * Each INPUT packet carries the newest INPUT_REDUNDANCY inputs, so an input
+ * is only lost if that many packets in a row are. Snapshots are kept in a
+ * ring of HISTORY, since the server writes each one against the newest
+ * snapshot this client has acknowledged, which may be a few ticks old.
+ * Snapshots written against one that is no longer kept, and snapshots older
+ * than the newest one, are ignored. When the server starts a new match, the
+ * snapshots kept are thrown away and the map is put back as it was.
+ *
+ * The player's own tank is predicted: each input is applied to it as soon as
+ * it is sent, and each new snapshot rolls it back to the server's state and
+ * replays the inputs the server hasn't applied yet. See Prediction.
+ * @author Nicholas Grant
+ *
+ */
+public class GameClient {
+	/**
+	 * Number of inputs sent in each INPUT packet
+	 */
+	public static final int INPUT_REDUNDANCY = 4;
+	/**
+	 * Number of received snapshots kept
+	 */
+	public static final int HISTORY = 64;
+	/**
+	 * Size of the buffer packets are written into; an INPUT packet of
+	 * INPUT_REDUNDANCY inputs is at most about 100 bytes
+	 */
+	private static final int OUT_BUFFER = 512;
+	/**
+	 * Milliseconds between JOIN packets until the server answers
+	 */
+	private static final int JOIN_INTERVAL = 250;
+	/**
+	 * The client's socket
+	 */
+	private final NetLink link;
+	/**
+	 * Address of the server
+	 */
+	private final SocketAddress server;
+	/**
+	 * The client's copy of the map, worn down by the hits the server reports
+	 */
+	private final GameMap map;
+	/**
+	 * The map as it was before any match wore it down
+	 */
+	private final GameMap source;
+	/**
+	 * Received snapshots, indexed by tick modulo HISTORY
+	 */
+	private final Snapshot[] history;
+	/**
+	 * Predicts the player's tank; also keeps the inputs sent
+	 */
+	private final Prediction prediction;
+	/**
+	 * The player's input for the next tick
+	 */
+	private final PlayerInput input;
+	/**
+	 * Buffer packets are received into
+	 */
+	private final ByteBuffer in;
+	/**
+	 * Buffer packets are written into
+	 */
+	private final ByteBuffer out;
+	/**
+	 * Newest snapshot received, or null
+	 */
+	private Snapshot latest;
+	/**
+	 * Number of the match the newest snapshot belongs to, or -1
+	 */
+	private int match;
+	/**
+	 * Slot of the player's tank, or -1 until the server answers
+	 */
+	private int slot;
+	/**
+	 * Milliseconds per tick, as told by the server
+	 */
+	private int tickMillis;
+	/**
+	 * Sequence number of the next input sent
+	 */
+	private int nextSeq;
+	/**
+	 * Sequence number of the last input the server applied, or -1
+	 */
+	private int lastInputApplied;
+	/**
+	 * Time in milliseconds the next packet is due
+	 */
+	private long nextSend;
+	/**
+	 * Snapshots received and decoded
+	 */
+	private long snapshotsReceived;
+	/**
+	 * Snapshots ignored because their base was no longer kept or they were
+	 * stale, and other packets ignored because they couldn't be read
+	 */
+	private long snapshotsIgnored;
+	/**
+	 * Creates a client and binds its socket to any free port
+	 * @param m			the match's map, which is copied
+	 * @param to		address of the server
+	 * @param seed		seed for the link's simulated loss and jitter
+	 * @throws IOException	if the socket can't be opened
+	 */
+	public GameClient( GameMap m, SocketAddress to, long seed ) throws IOException {
+		DatagramChannel channel = DatagramChannel.open();
+		channel.bind( new InetSocketAddress( 0 ) );
+		link = new NetLink( channel, seed );
+		server = to;
+		map = new GameMap( m );
+		source = new GameMap( m );
+		history = new Snapshot[HISTORY];
+		for ( int k = 0; k < HISTORY; k++ ) {
+			history[k] = new Snapshot();
+		}
+		prediction = new Prediction( map, Color.RED );
+		input = new PlayerInput();
+		in = ByteBuffer.allocate( NetLink.MAX_PACKET );
+		out = ByteBuffer.allocate( OUT_BUFFER );
+		match = -1;
+		slot = -1;
+		lastInputApplied = -1;
+		nextSend = Long.MIN_VALUE;
+	}
+	/**
+	 * Does the work due: handles every waiting packet, then sends JOIN until the
+	 * server answers, or this tick's input once it has
+	 * @param now	the current time in milliseconds
+	 */
+	public void update( long now ) {
+		while ( link.receive( in ) != null ) {
+			handlePacket();
+		}
+		if ( now >= nextSend ) {
+			if ( slot < 0 ) {
+				sendJoin( now );
+				nextSend = now + JOIN_INTERVAL;
+			}
+			else {
+				sendInput( now );
+				nextSend = ( nextSend + tickMillis > now ) ? nextSend + tickMillis : now + tickMillis;
+			}
+		}
+		link.flush( now );
+	}
+	/**
+	 * Handles one packet from the server. Packets that can't be read are
+	 * ignored, as is a WELCOME with a negative slot or a tick rate that isn't
+	 * from 1 to 1000 ticks per second.
+	 */
+	private void handlePacket() {
+		try {
+			byte type = in.get();
+			if ( type == GameServer.WELCOME && slot < 0 ) {
+				int s = in.getInt();
+				int tps = in.getInt();
+				// a tick rate the client can't send at marks a bad packet
+				if ( s < 0 || tps <= 0 || tps > 1000 ) {
+					snapshotsIgnored++;
+					return;
+				}
+				slot = s;
+				tickMillis = 1000 / tps;
+				nextSend = Long.MIN_VALUE;
+			}
+			else if ( type == GameServer.SNAPSHOT ) {
+				readSnapshot();
+			}
+		} catch (BufferUnderflowException bu) {
+			snapshotsIgnored++;
+		}
+	}
+	/**
+	 * Decodes a SNAPSHOT packet into the history. A snapshot of an older
+	 * match is ignored; the first of a newer one starts it.
+	 */
+	private void readSnapshot() {
+		int m = in.getInt();
+		if ( m < match ) {
+			snapshotsIgnored++;
+			return;
+		}
+		if ( m > match ) {
+			startMatch( m );
+		}
+		long tick = in.getLong();
+		long baseTick = in.getLong();
+		int applied = in.getInt();
+		Snapshot base = null;
+		if ( baseTick >= 0 ) {
+			base = history[(int)( baseTick % HISTORY )];
+			if ( base.getTick() != baseTick ) {
+				snapshotsIgnored++;
+				return;
+			}
+		}
+		if ( ( latest != null && tick <= latest.getTick() ) || tick == baseTick ) {
+			snapshotsIgnored++;
+			return;
+		}
+		Snapshot s = history[(int)( tick % HISTORY )];
+		s.read( in, tick, base, map );
+		latest = s;
+		lastInputApplied = Math.max( lastInputApplied, applied );
+		snapshotsReceived++;
+		prediction.reconcile( s, slot, applied );
+	}
+	/**
+	 * Starts following a new match: throws away the snapshots kept and puts
+	 * the map back as it was
+	 * @param m		number of the match
+	 */
+	private void startMatch( int m ) {
+		for ( Snapshot s : history ) {
+			s.clear();
+		}
+		latest = null;
+		map.copyFrom( source );
+		match = m;
+	}
+	/**
+	 * Sends a JOIN packet
+	 * @param now	the current time in milliseconds
+	 */
+	private void sendJoin( long now ) {
+		out.clear();
+		out.put( GameServer.JOIN );
+		out.flip();
+		link.send( out, server, now );
+	}
+	/**
+	 * Sends this tick's input along with the few before it, then clears the
+	 * fire order so a shot is only taken once
+	 * @param now	the current time in milliseconds
+	 */
+	private void sendInput( long now ) {
+		int seq = nextSeq++;
+		prediction.predict( seq, input );
+		int count = Math.min( INPUT_REDUNDANCY, seq + 1 );
+		out.clear();
+		out.put( GameServer.INPUT );
+		out.putLong( ( latest == null ) ? -1 : latest.getTick() );
+		out.putInt( match );
+		out.putInt( seq );
+		out.put( (byte)count );
+		for ( int k = 0; k < count; k++ ) {
+			GameServer.writeInput( out, prediction.getInput( seq - k ) );
+		}
+		out.flip();
+		link.send( out, server, now );
+		input.clearFire();
+	}
+	/**
+	 * Tells the server this client is leaving. The packet skips the simulated
+	 * network, so it goes out even if the client is closed straight away.
+	 */
+	public void leave() {
+		out.clear();
+		out.put( GameServer.LEAVE );
+		out.flip();
+		try {
+			link.getChannel().send( out, server );
+		} catch (IOException e) {
+			System.out.println("Could not send packet.");
+		}
+	}
+	/**
+	 * Closes the socket
+	 */
+	public void close() {
+		link.close();
+	}
+	/**
+	 * Returns the player's input for the next tick, to be filled in by the caller
+	 * @return		the input
+	 */
+	public PlayerInput getInput() {
+		return input;
+	}
+	/**
+	 * Returns the newest snapshot received
+	 * @return		the snapshot, or null if none has been received
+	 */
+	public Snapshot getSnapshot() {
+		return latest;
+	}
+	/**
+	 * Returns the prediction of the player's tank, to draw it where the
+	 * player expects it
+	 * @return		the prediction
+	 */
+	public Prediction getPrediction() {
+		return prediction;
+	}
+	/**
+	 * Returns the client's copy of the map
+	 * @return		the map
+	 */
+	public GameMap getMap() {
+		return map;
+	}
+	/**
+	 * Returns the number of the match the newest snapshot belongs to
+	 * @return		match number, or -1 if no snapshot has been received
+	 */
+	public int getMatch() {
+		return match;
+	}
+	/**
+	 * Returns the slot of the player's tank
+	 * @return		player slot, or -1 if the server hasn't answered yet
+	 */
+	public int getSlot() {
+		return slot;
+	}
+	/**
+	 * Checks to see if the server has answered the client's JOIN
+	 * @return		true if joined, false otherwise
+	 */
+	public boolean isJoined() {
+		return slot >= 0;
+	}
+	/**
+	 * Returns the sequence number of the last input the server applied
+	 * @return		input sequence number, or -1 if none
+	 */
+	public int getLastInputApplied() {
+		return lastInputApplied;
+	}
+	/**
+	 * Returns the number of inputs sent
+	 * @return		inputs sent
+	 */
+	public int getInputsSent() {
+		return nextSeq;
+	}
+	/**
+	 * Returns the number of snapshots received and decoded
+	 * @return		snapshots received
+	 */
+	public long getSnapshotsReceived() {
+		return snapshotsReceived;
+	}
+	/**
+	 * Returns the number of snapshots ignored
+	 * @return		snapshots ignored
+	 */
+	public long getSnapshotsIgnored() {
+		return snapshotsIgnored;
+	}
+	/**
+	 * Returns the client's socket
+	 * @return		the link
+	 */
+	public NetLink getLink() {
+		return link;
+	}
+}
@@ -0,0 +1,496 @@
+package tanks;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * Represents a loaded game map. Walls are kept in a bitset indexed by tile, so
+ * a collision query only looks at the few tiles under the tested rectangle or
+ * point, whatever the size of the map. Small maps also get a table of which
+ * tiles can see each other.
+ * Brick tiles are walls that missiles wear down. A hit only touches the hit
+ * tile: its strength goes down, it is cleared from the bitset once it breaks,
+ * and the change is appended to a log so a cached image of the map can redraw
+ * just that tile. A map without bricks never changes, so one instance can be
+ * shared by the panel and every tank; a map with bricks is copied by each
+ * world that plays on it.
+ * @author Nicholas Grant
+ *
+ */
+public class GameMap {
+	/**
+	 * Size of a map tile in pixels
+	 */
+	public static final int TILE_SIZE = 65;
+	/**
+	 * Tile value of an open floor tile
+	 */
+	public static final int FLOOR = 0;
+	/**
+	 * Tile value of a wall tile
+	 */
+	public static final int WALL = 1;
+	/**
+	 * Tile value of a brick wall tile, which missiles wear down
+	 */
+	public static final int BRICK = 2;
+	/**
+	 * Number of missile hits a brick tile takes before it breaks
+	 */
+	public static final int BRICK_STRENGTH = 3;
+	/**
+	 * Number of tile columns
+	 */
+	private final int width;
+	/**
+	 * Number of tile rows
+	 */
+	private final int height;
+	/**
+	 * The tiles in row-major 2D array form
+	 */
+	private final int[][] tiles;
+	/**
+	 * One bit per tile, set for walls, indexed by row * width + column
+	 */
+	private final BitSet walls;
+	/**
+	 * Line of sight between every pair of open tiles, built on the first
+	 * canSee(), or null if the map has too many open tiles for the table
+	 */
+	private final Visibility visibility;
+	/**
+	 * Hits each brick tile can still take, indexed by row * width + column
+	 */
+	private final int[] strength;
+	/**
+	 * Number of brick tiles still standing
+	 */
+	private int bricks;
+	/**
+	 * Number of walls broken so far
+	 */
+	private int broken;
+	/**
+	 * Tile of every brick hit in order, as row * width + column. Sized for
+	 * every hit the bricks can take, so logging a hit never allocates. Kept
+	 * apart from the strengths so any tile index of any map size fits.
+	 */
+	private final int[] changeTiles;
+	/**
+	 * Strength each tile in changeTiles was left with by its hit
+	 */
+	private final byte[] changeStrengths;
+	/**
+	 * Number of entries in the change log
+	 */
+	private int changeCount;
+	/**
+	 * Creates a map from a tile array, copying it so later changes to the
+	 * array don't leak into the map
+	 * @param t		tiles indexed [row][column]
+	 */
+	public GameMap( int[][] t ) {
+		height = t.length;
+		width = ( height == 0 ) ? 0 : t[0].length;
+		tiles = new int[height][];
+		walls = new BitSet( width * height );
+		strength = new int[width * height];
+		for ( int i = 0; i < height; i++ ) {
+			tiles[i] = t[i].clone();
+			for ( int j = 0; j < width; j++ ) {
+				if ( tiles[i][j] == WALL ) {
+					walls.set( i * width + j );
+				}
+				else if ( tiles[i][j] == BRICK ) {
+					strength[i * width + j] = BRICK_STRENGTH;
+					bricks++;
+				}
+			}
+		}
+		// the table only holds the walls that never change, and canSee() traces
+		// through the bricks itself, so on a map with bricks it is built from
+		// a copy of the map without them
+		if ( width * height - walls.cardinality() > Visibility.MAX_TILES ) {
+			visibility = null;
+		}
+		else if ( bricks == 0 ) {
+			visibility = new Visibility( this );
+		}
+		else {
+			visibility = new Visibility( new GameMap( withoutBricks( t ) ) );
+		}
+		for ( int i = 0; i < strength.length; i++ ) {
+			if ( strength[i] > 0 ) {
+				walls.set( i );
+			}
+		}
+		changeTiles = new int[bricks * BRICK_STRENGTH];
+		changeStrengths = new byte[bricks * BRICK_STRENGTH];
+	}
+	/**
+	 * Creates a copy of a map in its current state, so a world can wear down
+	 * its own bricks. The copy shares the visibility table, which never
+	 * changes, and starts with an empty change log.
+	 * @param m		the map to copy
+	 */
+	public GameMap( GameMap m ) {
+		height = m.height;
+		width = m.width;
+		tiles = new int[height][];
+		for ( int i = 0; i < height; i++ ) {
+			tiles[i] = m.tiles[i].clone();
+		}
+		walls = (BitSet)m.walls.clone();
+		visibility = m.visibility;
+		strength = m.strength.clone();
+		bricks = m.bricks;
+		changeTiles = new int[bricks * BRICK_STRENGTH];
+		changeStrengths = new byte[bricks * BRICK_STRENGTH];
+	}
+	/**
+	 * Loads a map file. Files ending in MapFile.EXTENSION are read as binary
+	 * maps by MapFile. Any other file is read as text: the first line holds
+	 * the width and height of the map in tiles, followed by one line of tile
+	 * values per row.
+	 * @param fileName	name of the map file
+	 * @return			the loaded map, or an empty map if the file wasn't found
+	 * 					or isn't a map
+	 */
+	public static GameMap load( String fileName ) {
+		if ( fileName.endsWith( MapFile.EXTENSION ) ) {
+			return MapFile.read( fileName );
+		}
+		try ( Scanner scan = new Scanner( new File( fileName ) ) ) {
+			int w = scan.nextInt();
+			int h = scan.nextInt();
+			int[][] t = new int[h][w];
+			for ( int i = 0; i < h; i++ ) {
+				for ( int j = 0; j < w; j++ ) {
+					t[i][j] = scan.nextInt();
+				}
+			}
+			return new GameMap( t );
+		} catch (FileNotFoundException fnf) {
+			System.out.println("File not found.");
+		} catch (NoSuchElementException | NegativeArraySizeException e) {
+			// NoSuchElementException also covers InputMismatchException
+			System.out.println("Not a map file.");
+		}
+		return new GameMap( new int[0][0] );
+	}
+	/**
+	 * Returns a copy of a tile array with every brick tile made floor
+	 * @param t		tiles indexed [row][column]
+	 * @return		the copy
+	 */
+	private static int[][] withoutBricks( int[][] t ) {
+		int[][] copy = new int[t.length][];
+		for ( int i = 0; i < t.length; i++ ) {
+			copy[i] = t[i].clone();
+			for ( int j = 0; j < copy[i].length; j++ ) {
+				if ( copy[i][j] == BRICK ) {
+					copy[i][j] = FLOOR;
+				}
+			}
+		}
+		return copy;
+	}
+	/**
+	 * Returns the number of tile columns
+	 * @return		map width in tiles
+	 */
+	public int getWidth() {
+		return width;
+	}
+	/**
+	 * Returns the number of tile rows
+	 * @return		map height in tiles
+	 */
+	public int getHeight() {
+		return height;
+	}
+	/**
+	 * Returns the value of a tile
+	 * @param row	tile row
+	 * @param col	tile column
+	 * @return		tile value
+	 */
+	public int getTile( int row, int col ) {
+		return tiles[row][col];
+	}
+	/**
+	 * Returns the number of hits a brick tile can still take
+	 * @param row	tile row
+	 * @param col	tile column
+	 * @return		hits left, or 0 if the tile isn't a standing brick
+	 */
+	public int getStrength( int row, int col ) {
+		return strength[row * width + col];
+	}
+	/**
+	 * Returns whether the map has bricks left to break, so it changes as it is
+	 * played on
+	 * @return		true if any brick is standing, false otherwise
+	 */
+	public boolean hasBricks() {
+		return bricks > 0;
+	}
+	/**
+	 * Puts this map back into the state of another copy of the same map, such
+	 * as the untouched map when a new match starts. Nothing is allocated.
+	 * @param m		the map to copy, of the same size and with no more brick
+	 * 				hits logged than this map can hold
+	 */
+	public void copyFrom( GameMap m ) {
+		if ( m.width != width || m.height != height || m.changeCount > changeTiles.length ) {
+			throw new IllegalArgumentException( "Not a copy of the same map" );
+		}
+		for ( int i = 0; i < height; i++ ) {
+			System.arraycopy( m.tiles[i], 0, tiles[i], 0, width );
+		}
+		walls.clear();
+		walls.or( m.walls );
+		System.arraycopy( m.strength, 0, strength, 0, strength.length );
+		bricks = m.bricks;
+		broken = m.broken;
+		System.arraycopy( m.changeTiles, 0, changeTiles, 0, m.changeCount );
+		System.arraycopy( m.changeStrengths, 0, changeStrengths, 0, m.changeCount );
+		changeCount = m.changeCount;
+	}
+	/**
+	 * Wears down the brick tile at a location, such as where a missile hit a wall
+	 * @param x		the location's x-component
+	 * @param y		the location's y-component
+	 * @return		true if the brick broke, false otherwise
+	 */
+	public boolean damage( double x, double y ) {
+		return damage( (int)Math.floor( y / TILE_SIZE ), (int)Math.floor( x / TILE_SIZE ) );
+	}
+	/**
+	 * Wears down a brick tile by one hit, logging the change. Once it has no
+	 * strength left the brick breaks: the tile becomes floor and only its bit
+	 * of the wall bitset is cleared. Other tiles are ignored.
+	 * @param row	tile row
+	 * @param col	tile column
+	 * @return		true if the brick broke, false otherwise
+	 */
+	public boolean damage( int row, int col ) {
+		if ( row < 0 || col < 0 || row >= height || col >= width || tiles[row][col] != BRICK ) {
+			return false;
+		}
+		int tile = row * width + col;
+		int left = --strength[tile];
+		changeTiles[changeCount] = tile;
+		changeStrengths[changeCount] = (byte)left;
+		changeCount++;
+		if ( left > 0 ) {
+			return false;
+		}
+		tiles[row][col] = FLOOR;
+		walls.clear( tile );
+		bricks--;
+		broken++;
+		return true;
+	}
+	/**
+	 * Returns the number of walls broken so far. Anything worked out from the
+	 * walls, such as a path search, is out of date once this changes.
+	 * @return		number of broken walls
+	 */
+	public int getBroken() {
+		return broken;
+	}
+	/**
+	 * Returns the number of entries in the change log
+	 * @return		number of brick hits so far
+	 */
+	public int getChangeCount() {
+		return changeCount;
+	}
+	/**
+	 * Returns the tile changed by an entry of the change log
+	 * @param k		log entry, from 0 to getChangeCount() - 1
+	 * @return		the tile as row * width + column
+	 */
+	public int getChangeTile( int k ) {
+		return changeTiles[k];
+	}
+	/**
+	 * Returns the strength the tile was left with by an entry of the change log
+	 * @param k		log entry, from 0 to getChangeCount() - 1
+	 * @return		hits left, 0 if the brick broke
+	 */
+	public int getChangeStrength( int k ) {
+		return changeStrengths[k];
+	}
+	/**
+	 * Checks to see if a tile is a wall. Tiles outside the map are not walls.
+	 * @param row	tile row
+	 * @param col	tile column
+	 * @return		true if the tile is a wall, false if not
+	 */
+	public boolean isWall( int row, int col ) {
+		if ( row < 0 || col < 0 || row >= height || col >= width ) {
+			return false;
+		}
+		return walls.get( row * width + col );
+	}
+	/**
+	 * Checks to see if a location is on the map
+	 * @param x		the location's x-component
+	 * @param y		the location's y-component
+	 * @return		true if it lies within the map's tiles, false if not
+	 */
+	public boolean contains( double x, double y ) {
+		return x >= 0 && y >= 0 && x < width * TILE_SIZE && y < height * TILE_SIZE;
+	}
+	/**
+	 * Checks to see if a rectangle overlaps a wall. Only the tiles covered by
+	 * the rectangle are tested.
+	 * @param r		the rectangle to test
+	 * @return		true if it overlaps a wall, false if not
+	 */
+	public boolean hitsObstacle( Rectangle r ) {
+		return hitsObstacle( r.x, r.y, r.width, r.height );
+	}
+	/**
+	 * Checks to see if a rectangle overlaps a wall. Only the tiles covered by
+	 * the rectangle are tested.
+	 * @param x		the rectangle's left edge
+	 * @param y		the rectangle's top edge
+	 * @param w		the rectangle's width
+	 * @param h		the rectangle's height
+	 * @return		true if it overlaps a wall, false if not
+	 */
+	public boolean hitsObstacle( int x, int y, int w, int h ) {
+		if ( w <= 0 || h <= 0 ) {
+			return false;
+		}
+		int firstCol = Math.floorDiv( x, TILE_SIZE );
+		int lastCol = Math.floorDiv( x + w - 1, TILE_SIZE );
+		int firstRow = Math.floorDiv( y, TILE_SIZE );
+		int lastRow = Math.floorDiv( y + h - 1, TILE_SIZE );
+		for ( int i = firstRow; i <= lastRow; i++ ) {
+			for ( int j = firstCol; j <= lastCol; j++ ) {
+				if ( isWall( i, j ) ) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	/**
+	 * Checks to see if a point lies inside a wall
+	 * @param p		the point to test
+	 * @return		true if inside a wall, false if not
+	 */
+	public boolean hitsObstacle( Point p ) {
+		return hitsObstacle( p.x, p.y );
+	}
+	/**
+	 * Checks to see if a point lies inside a wall
+	 * @param x		the point's x-component
+	 * @param y		the point's y-component
+	 * @return		true if inside a wall, false if not
+	 */
+	public boolean hitsObstacle( int x, int y ) {
+		return isWall( Math.floorDiv( y, TILE_SIZE ), Math.floorDiv( x, TILE_SIZE ) );
+	}
+	/**
+	 * Checks to see if a point with fractional components lies inside a wall
+	 * @param x		the point's x-component
+	 * @param y		the point's y-component
+	 * @return		true if inside a wall, false if not
+	 */
+	public boolean hitsObstacle( double x, double y ) {
+		return isWall( (int)Math.floor( y / TILE_SIZE ), (int)Math.floor( x / TILE_SIZE ) );
+	}
+	/**
+	 * Checks to see if there is a clear line of sight between two locations.
+	 * On maps small enough to have a visibility table this is a single lookup,
+	 * which treats each location as the center of its tile; the line is only
+	 * traced if the table finds it clear and bricks are standing that could
+	 * still block it. On larger maps the line between the two locations is
+	 * always traced through the map.
+	 * @param x0	first location's x-component
+	 * @param y0	first location's y-component
+	 * @param x1	second location's x-component
+	 * @param y1	second location's y-component
+	 * @return		true if no wall is in the way, false otherwise
+	 */
+	public boolean canSee( int x0, int y0, int x1, int y1 ) {
+		if ( visibility != null ) {
+			if ( !visibility.canSee( x0, y0, x1, y1 ) ) {
+				return false;
+			}
+			if ( bricks == 0 ) {
+				return true;
+			}
+		}
+		return findWallHit( x0, y0, x1, y1 ) > 1;
+	}
+	/**
+	 * Returns whether the map has a visibility table, so canSee() is a lookup
+	 * once the first call has built it
+	 * @return		true if the map has a table, false otherwise
+	 */
+	public boolean hasVisibilityTable() {
+		return visibility != null;
+	}
+	/**
+	 * Traces a line segment through the tiles it crosses, in order, and finds
+	 * where it first enters a wall. Only the tiles on the segment are visited,
+	 * so the cost depends on the segment's length, not the size of the map.
+	 * @param x0	the segment's start x-component
+	 * @param y0	the segment's start y-component
+	 * @param x1	the segment's end x-component
+	 * @param y1	the segment's end y-component
+	 * @return		fraction of the segment (0 to 1) at which it enters a wall,
+	 * 				or positive infinity if it doesn't enter one
+	 */
+	public double findWallHit( double x0, double y0, double x1, double y1 ) {
+		int col = (int)Math.floor( x0 / TILE_SIZE );
+		int row = (int)Math.floor( y0 / TILE_SIZE );
+		if ( isWall( row, col ) ) {
+			return 0;
+		}
+		double dx = x1 - x0;
+		double dy = y1 - y0;
+		int stepCol = ( dx > 0 ) ? 1 : ( dx < 0 ) ? -1 : 0;
+		int stepRow = ( dy > 0 ) ? 1 : ( dy < 0 ) ? -1 : 0;
+		// fraction of the segment at which it crosses the next column and row edge
+		double nextCol = ( dx == 0 ) ? Double.POSITIVE_INFINITY
+				: ( ( col + ( stepCol > 0 ? 1 : 0 ) ) * TILE_SIZE - x0 ) / dx;
+		double nextRow = ( dy == 0 ) ? Double.POSITIVE_INFINITY
+				: ( ( row + ( stepRow > 0 ? 1 : 0 ) ) * TILE_SIZE - y0 ) / dy;
+		// fraction of the segment it takes to cross a whole tile
+		double colDelta = ( dx == 0 ) ? Double.POSITIVE_INFINITY : TILE_SIZE / Math.abs( dx );
+		double rowDelta = ( dy == 0 ) ? Double.POSITIVE_INFINITY : TILE_SIZE / Math.abs( dy );
+		while ( true ) {
+			double t;
+			if ( nextCol < nextRow ) {
+				t = nextCol;
+				col += stepCol;
+				nextCol += colDelta;
+			}
+			else {
+				t = nextRow;
+				row += stepRow;
+				nextRow += rowDelta;
+			}
+			if ( !( t <= 1 ) ) {
+				// past the end of the segment, or a segment with no direction
+				return Double.POSITIVE_INFINITY;
+			}
+			if ( isWall( row, col ) ) {
+				return t;
+			}
+		}
+	}
+}
@@ -0,0 +1,599 @@
+package tanks;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Hosts a networked match. The server owns the only GameWorld and runs its
+ * tick loop; clients only send their inputs and draw what the server tells
+ * them. Everything goes over one non-blocking UDP socket.
+ *
+ * A client joins by sending JOIN until it gets a WELCOME naming its player
+ * slot. From then on it sends an INPUT packet every tick, holding its latest
+ * few inputs and the newest snapshot it has received, and the server sends it
+ * a SNAPSHOT every tick: the world's state, delta encoded against the newest
+ * snapshot the client acknowledged, along with the sequence number of the
+ * client's last input applied. The server keeps the last HISTORY snapshots to
+ * write deltas against; a client that hasn't acknowledged one of them gets the
+ * whole state. A client that isn't heard from for TIMEOUT_MILLIS is dropped
+ * and its tank is taken out of the match.
+ *
+ * The world only ticks while a client is connected, so nobody joins a match
+ * the enemies have already won against an empty tank. Once a match is won or
+ * lost, or the last client leaves, a new match starts on the same map and
+ * difficulty, with a fresh world; each client keeps its slot. Snapshots and
+ * inputs carry the match number, so a client knows to reset its map, and
+ * acknowledgements of the last match's snapshots are ignored.
+ *
+ * update() does one pass of the work due and returns, so the server can be
+ * driven by a test harness; run() calls it in a loop, waiting on a Selector
+ * between ticks.
+ * @author Nicholas Grant
+ *
+ */
+public class GameServer implements Runnable {
+	/**
+	 * Packet type sent by a client to join
+	 */
+	public static final byte JOIN = 1;
+	/**
+	 * Packet type sent to a client that has joined
+	 */
+	public static final byte WELCOME = 2;
+	/**
+	 * Packet type of a client's inputs
+	 */
+	public static final byte INPUT = 3;
+	/**
+	 * Packet type of a world snapshot
+	 */
+	public static final byte SNAPSHOT = 4;
+	/**
+	 * Packet type sent by a client that is leaving
+	 */
+	public static final byte LEAVE = 5;
+	/**
+	 * Number of past snapshots kept to write deltas against
+	 */
+	public static final int HISTORY = 32;
+	/**
+	 * Milliseconds without a packet after which a client is dropped
+	 */
+	public static final long TIMEOUT_MILLIS = 5000;
+	/**
+	 * Most ticks the server catches up on at once after falling behind
+	 */
+	private static final int MAX_CATCH_UP = 5;
+	/**
+	 * Colors given to the players' tanks, in the order they join
+	 */
+	private static final Color[] PLAYER_COLORS = { Color.RED, Color.BLUE, Color.GREEN,
+			Color.ORANGE, Color.MAGENTA, Color.CYAN, Color.PINK, Color.WHITE };
+	/**
+	 * The match being played
+	 */
+	private GameWorld world;
+	/**
+	 * The map as it was before any match wore it down, copied into each new
+	 * match's world
+	 */
+	private final GameMap map;
+	/**
+	 * Picks the seed of each new match's world
+	 */
+	private final Random matchSeeds;
+	/**
+	 * Number of the match being played, counted from 0
+	 */
+	private int match;
+	/**
+	 * The server's socket
+	 */
+	private final NetLink link;
+	/**
+	 * Milliseconds per tick
+	 */
+	private final int tickMillis;
+	/**
+	 * Number of ticks per second
+	 */
+	private final int ticksPerSecond;
+	/**
+	 * Connected clients, in the order they joined
+	 */
+	private final List<ClientConnection> clients;
+	/**
+	 * Connected clients by address
+	 */
+	private final Map<SocketAddress, ClientConnection> byAddress;
+	/**
+	 * Each player's input for the next tick, indexed by player slot
+	 */
+	private PlayerInput[] inputs;
+	/**
+	 * The last HISTORY snapshots, indexed by tick modulo HISTORY
+	 */
+	private final Snapshot[] history;
+	/**
+	 * Scratch input decoded from INPUT packets
+	 */
+	private final PlayerInput decoded;
+	/**
+	 * Buffer packets are received into
+	 */
+	private final ByteBuffer in;
+	/**
+	 * Buffer packets are written into
+	 */
+	private final ByteBuffer out;
+	/**
+	 * Player slots without a client, reused before any new tank is added
+	 */
+	private final List<Integer> freeSlots;
+	/**
+	 * Time in milliseconds the next tick is due, or -1 before the first update
+	 */
+	private long nextTick;
+	/**
+	 * Duration of the last tick in nanoseconds, including sending the snapshots
+	 */
+	private long lastTickNanos;
+	/**
+	 * Durations of the ticks, including sending the snapshots, in nanoseconds
+	 */
+	private final LatencyHistogram tickTimes;
+	/**
+	 * True = an oversized snapshot has been reported, false otherwise
+	 */
+	private boolean reportedOversize;
+	/**
+	 * True while run() should keep going
+	 */
+	private volatile boolean running;
+	/**
+	 * Wakes run() up when the server is closed, or null if run() isn't used
+	 */
+	private volatile Selector selector;
+	/**
+	 * Creates a server for a world and binds its socket
+	 * @param w		the world of the first match, not stepped yet; later matches
+	 * 				are played at its difficulty, on a copy of its map
+	 * @param port	UDP port to listen on, or 0 for any free port
+	 * @param tps	number of ticks per second
+	 * @throws IOException	if the socket can't be opened
+	 */
+	public GameServer( GameWorld w, int port, int tps ) throws IOException {
+		world = w;
+		map = w.getMap().hasBricks() ? new GameMap( w.getMap() ) : w.getMap();
+		matchSeeds = new Random( w.getSeed() );
+		ticksPerSecond = tps;
+		tickMillis = 1000 / tps;
+		DatagramChannel channel = DatagramChannel.open();
+		channel.bind( new InetSocketAddress( port ) );
+		link = new NetLink( channel, w.getSeed() );
+		clients = new ArrayList<>();
+		byAddress = new HashMap<>();
+		freeSlots = new ArrayList<>();
+		freeSlots.add( w.getPlayer().getIndex() );
+		inputs = new PlayerInput[0];
+		ensureInputs();
+		history = new Snapshot[HISTORY];
+		for ( int k = 0; k < HISTORY; k++ ) {
+			history[k] = new Snapshot();
+		}
+		decoded = new PlayerInput();
+		tickTimes = new LatencyHistogram();
+		in = ByteBuffer.allocate( NetLink.MAX_PACKET );
+		out = ByteBuffer.allocate( NetLink.MAX_PACKET );
+		nextTick = -1;
+		running = true;
+	}
+	/**
+	 * Runs the server until close() is called: handles packets as they arrive
+	 * and steps the world on time, sleeping in a Selector in between
+	 */
+	public void run() {
+		try ( Selector s = Selector.open() ) {
+			selector = s;
+			link.getChannel().register( s, SelectionKey.OP_READ );
+			while ( running ) {
+				update( millis() );
+				long wait = Math.max( 1, nextTick - millis() );
+				s.select( wait );
+				s.selectedKeys().clear();
+			}
+		} catch (IOException e) {
+			System.out.println("Server stopped: " + e.getMessage());
+		}
+	}
+	/**
+	 * Does the work due: handles every waiting packet, runs the ticks that are
+	 * due, drops silent clients and sends the packets whose simulated latency
+	 * has passed. While no client is connected, no ticks are run.
+	 * @param now	the current time in milliseconds
+	 */
+	public void update( long now ) {
+		SocketAddress from;
+		while ( ( from = link.receive( in ) ) != null ) {
+			handlePacket( from, now );
+		}
+		if ( clients.isEmpty() ) {
+			// nobody to play for; the first tick is due as soon as someone joins
+			nextTick = now;
+		}
+		else {
+			if ( now - nextTick > MAX_CATCH_UP * tickMillis ) {
+				// too far behind to catch up; carry on from now
+				nextTick = now - MAX_CATCH_UP * tickMillis;
+			}
+			while ( now >= nextTick && !clients.isEmpty() ) {
+				tick( now );
+				nextTick += tickMillis;
+			}
+		}
+		for ( int c = clients.size() - 1; c >= 0; c-- ) {
+			if ( now - clients.get( c ).getLastHeard() > TIMEOUT_MILLIS ) {
+				disconnect( clients.get( c ) );
+			}
+		}
+		link.flush( now );
+	}
+	/**
+	 * Steps the world with each client's next input and sends every client a
+	 * snapshot of the result. A new match starts once this one is won or lost.
+	 * @param now	the current time in milliseconds
+	 */
+	private void tick( long now ) {
+		long start = System.nanoTime();
+		for ( ClientConnection c : clients ) {
+			c.nextInput( inputs[c.getSlot()] );
+		}
+		world.step( inputs );
+		Snapshot current = history[(int)( world.getTick() % HISTORY )];
+		current.copyFrom( world );
+		for ( ClientConnection c : clients ) {
+			sendSnapshot( c, current, now );
+		}
+		if ( world.isGameOver() || world.isWin() ) {
+			newMatch();
+		}
+		lastTickNanos = System.nanoTime() - start;
+		tickTimes.record( lastTickNanos );
+	}
+	/**
+	 * Starts a new match with a fresh world, played at the last world's
+	 * difficulty and settings on an untouched copy of the map; horde and
+	 * custom worlds start again as a hard world. Every client
+	 * keeps its slot, with a new tank at full lives; the slots without a client
+	 * are freed. The snapshots kept are thrown away, so each client is next
+	 * sent the whole state.
+	 */
+	private void newMatch() {
+		GameWorld next = new GameWorld( world.getDifficulty(), map, matchSeeds.nextLong() );
+		next.setEnemyAim( world.getEnemyAim() );
+		next.setEnemyFireRate( world.getEnemyMissileLimit(), world.getEnemyReload() );
+		next.setPathfinding( world.isPathfinding() );
+		next.setFriendlyFire( world.isFriendlyFire() );
+		next.setProfiler( world.getProfiler() );
+		int slots = 1;
+		for ( ClientConnection c : clients ) {
+			slots = Math.max( slots, c.getSlot() + 1 );
+		}
+		for ( int p = next.getPlayers().size(); p < slots; p++ ) {
+			next.spawnPlayer( PLAYER_COLORS[p % PLAYER_COLORS.length] );
+		}
+		world = next;
+		freeSlots.clear();
+		// listed from the back, so the lowest free slot is taken first
+		for ( int p = slots - 1; p >= 0; p-- ) {
+			if ( findClient( p ) == null ) {
+				world.getPlayers().setLives( p, 0 );
+				freeSlots.add( p );
+			}
+		}
+		ensureInputs();
+		for ( PlayerInput input : inputs ) {
+			input.reset();
+		}
+		for ( Snapshot s : history ) {
+			s.clear();
+		}
+		for ( ClientConnection c : clients ) {
+			c.resetAck();
+		}
+		match++;
+	}
+	/**
+	 * Finds the client playing a slot
+	 * @param slot		player slot
+	 * @return			the client, or null if the slot is free
+	 */
+	private ClientConnection findClient( int slot ) {
+		for ( ClientConnection c : clients ) {
+			if ( c.getSlot() == slot ) {
+				return c;
+			}
+		}
+		return null;
+	}
+	/**
+	 * Sends a client a snapshot, written against the newest snapshot it has
+	 * acknowledged if that is still kept
+	 * @param c			the client
+	 * @param current	the snapshot to send
+	 * @param now		the current time in milliseconds
+	 */
+	private void sendSnapshot( ClientConnection c, Snapshot current, long now ) {
+		long ack = c.getAckTick();
+		Snapshot base = null;
+		if ( ack >= 0 && current.getTick() - ack < HISTORY ) {
+			Snapshot s = history[(int)( ack % HISTORY )];
+			if ( s.getTick() == ack ) {
+				base = s;
+			}
+		}
+		out.clear();
+		try {
+			out.put( SNAPSHOT );
+			out.putInt( match );
+			out.putLong( current.getTick() );
+			out.putLong( ( base == null ) ? -1 : base.getTick() );
+			out.putInt( c.getLastApplied() );
+			current.write( out, base, world.getMap() );
+		} catch (BufferOverflowException bo) {
+			if ( !reportedOversize ) {
+				System.out.println("Snapshot too large to send.");
+				reportedOversize = true;
+			}
+			return;
+		}
+		out.flip();
+		c.snapshotSent( out.remaining(), base == null );
+		link.send( out, c.getAddress(), now );
+	}
+	/**
+	 * Handles one packet from a client. Packets that can't be read are ignored.
+	 * @param from	address of the sender
+	 * @param now	the current time in milliseconds
+	 */
+	private void handlePacket( SocketAddress from, long now ) {
+		try {
+			byte type = in.get();
+			ClientConnection c = byAddress.get( from );
+			if ( type == JOIN ) {
+				if ( c == null ) {
+					c = connect( from, now );
+				}
+				sendWelcome( c, now );
+			}
+			else if ( c == null ) {
+				return;
+			}
+			else if ( type == INPUT ) {
+				long ack = in.getLong();
+				// an acknowledgement from the last match names a snapshot thrown away
+				c.heard( ( in.getInt() == match ) ? ack : -1, now );
+				readInputs( c );
+			}
+			else if ( type == LEAVE ) {
+				disconnect( c );
+			}
+		} catch (BufferUnderflowException bu) {
+			// a truncated packet; drop it
+		}
+	}
+	/**
+	 * Reads the inputs of an INPUT packet, newest first
+	 * @param c		the client that sent them
+	 */
+	private void readInputs( ClientConnection c ) {
+		int newest = in.getInt();
+		int count = in.get();
+		for ( int k = 0; k < count; k++ ) {
+			readInput( in, decoded );
+			c.receiveInput( newest - k, decoded );
+		}
+	}
+	/**
+	 * Adds a player for a client that has just joined. A slot left by an
+	 * earlier client is reused first, its tank brought back into the match;
+	 * the first client is given the world's own player. Only when every slot
+	 * is taken is a new tank added.
+	 * @param from	the client's address
+	 * @param now	the current time in milliseconds
+	 * @return		the client's record
+	 */
+	private ClientConnection connect( SocketAddress from, long now ) {
+		int slot;
+		if ( !freeSlots.isEmpty() ) {
+			slot = freeSlots.remove( freeSlots.size() - 1 );
+			if ( world.getPlayers().getLives( slot ) <= 0 ) {
+				world.respawnPlayer( slot );
+			}
+		}
+		else {
+			Color color = PLAYER_COLORS[world.getPlayers().size() % PLAYER_COLORS.length];
+			slot = world.spawnPlayer( color ).getIndex();
+		}
+		ensureInputs();
+		ClientConnection c = new ClientConnection( from, slot, now );
+		clients.add( c );
+		byAddress.put( from, c );
+		return c;
+	}
+	/**
+	 * Drops a client and takes its tank out of the match, freeing its slot for
+	 * the next client to join. When the last client leaves, a new match is
+	 * started for whoever joins next.
+	 * @param c		the client
+	 */
+	private void disconnect( ClientConnection c ) {
+		clients.remove( c );
+		byAddress.remove( c.getAddress() );
+		world.getPlayers().setLives( c.getSlot(), 0 );
+		inputs[c.getSlot()].reset();
+		freeSlots.add( c.getSlot() );
+		if ( clients.isEmpty() ) {
+			newMatch();
+		}
+	}
+	/**
+	 * Tells a client its player slot and the tick rate
+	 * @param c		the client
+	 * @param now	the current time in milliseconds
+	 */
+	private void sendWelcome( ClientConnection c, long now ) {
+		out.clear();
+		out.put( WELCOME );
+		out.putInt( c.getSlot() );
+		out.putInt( ticksPerSecond );
+		out.flip();
+		link.send( out, c.getAddress(), now );
+	}
+	/**
+	 * Grows the input array to one input per player
+	 */
+	private void ensureInputs() {
+		int n = world.getPlayers().size();
+		if ( inputs.length >= n ) {
+			return;
+		}
+		PlayerInput[] grown = new PlayerInput[n];
+		System.arraycopy( inputs, 0, grown, 0, inputs.length );
+		for ( int p = inputs.length; p < n; p++ ) {
+			grown[p] = new PlayerInput();
+		}
+		inputs = grown;
+	}
+	/**
+	 * Writes one input of an INPUT packet
+	 * @param b		buffer written to
+	 * @param input	the input
+	 */
+	public static void writeInput( ByteBuffer b, PlayerInput input ) {
+		b.put( (byte)input.getDirection() );
+		Snapshot.writeVarint( b, input.getAimX() );
+		Snapshot.writeVarint( b, input.getAimY() );
+		b.put( (byte)( input.isFire() ? 1 : 0 ) );
+		if ( input.isFire() ) {
+			Snapshot.writeVarint( b, input.getFireX() );
+			Snapshot.writeVarint( b, input.getFireY() );
+		}
+	}
+	/**
+	 * Reads one input written by writeInput()
+	 * @param b		buffer read from
+	 * @param input	the input read into
+	 */
+	public static void readInput( ByteBuffer b, PlayerInput input ) {
+		input.setDirection( b.get() );
+		int x = Snapshot.readVarint( b );
+		int y = Snapshot.readVarint( b );
+		input.setAim( x, y );
+		input.clearFire();
+		if ( b.get() != 0 ) {
+			x = Snapshot.readVarint( b );
+			y = Snapshot.readVarint( b );
+			input.fireAt( x, y );
+		}
+	}
+	/**
+	 * Returns the current time in milliseconds, for update()
+	 * @return		milliseconds from an arbitrary origin
+	 */
+	public static long millis() {
+		return System.nanoTime() / 1000000L;
+	}
+	/**
+	 * Stops run() and closes the socket
+	 */
+	public void close() {
+		running = false;
+		Selector s = selector;
+		if ( s != null ) {
+			s.wakeup();
+		}
+		link.close();
+	}
+	/**
+	 * Returns the world of the match being played, which is replaced when a
+	 * new match starts
+	 * @return		the world
+	 */
+	public GameWorld getWorld() {
+		return world;
+	}
+	/**
+	 * Returns the number of the match being played
+	 * @return		match number, counted from 0
+	 */
+	public int getMatch() {
+		return match;
+	}
+	/**
+	 * Returns the server's socket
+	 * @return		the link
+	 */
+	public NetLink getLink() {
+		return link;
+	}
+	/**
+	 * Returns the address the server listens on
+	 * @return		local address
+	 */
+	public SocketAddress getAddress() {
+		return link.getLocalAddress();
+	}
+	/**
+	 * Returns the connected clients, in the order they joined
+	 * @return		client records
+	 */
+	public List<ClientConnection> getClients() {
+		return clients;
+	}
+	/**
+	 * Returns a kept snapshot
+	 * @param tick		the snapshot's tick
+	 * @return			the snapshot, or null if it is no longer kept
+	 */
+	public Snapshot getSnapshot( long tick ) {
+		Snapshot s = history[(int)( tick % HISTORY )];
+		return ( s.getTick() == tick ) ? s : null;
+	}
+	/**
+	 * Returns the duration of the last tick, including sending the snapshots
+	 * @return		tick duration in nanoseconds
+	 */
+	public long getLastTickNanos() {
+		return lastTickNanos;
+	}
+	/**
+	 * Returns the durations of the ticks so far, including sending the
+	 * snapshots. Only read it from the thread running the server, or once
+	 * the server has stopped.
+	 * @return		tick durations in nanoseconds
+	 */
+	public LatencyHistogram getTickTimes() {
+		return tickTimes;
+	}
+	/**
+	 * Returns the number of ticks per second
+	 * @return		tick rate
+	 */
+	public int getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+}
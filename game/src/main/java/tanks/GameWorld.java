@@ -0,0 +1,740 @@
+package tanks;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Holds the game state and rules. The world has no drawing or windowing code,
+ * so it can run headless; it only advances when step() is called. Once the
+ * tanks are created, stepping the world doesn't allocate. Tanks live in
+ * TankStores, and each tick runs over the stores' arrays.
+ * A world starts with one player, the user's; more players can be added for
+ * a networked match, each stepped with its own input. Enemies chase the first
+ * player still alive and fire at any living player they can see.
+ * @author Nicholas Grant
+ *
+ */
+public class GameWorld {
+	/**
+	 * Difficulty level of a horde world, with any number of enemies.
+	 */
+	public static final int HORDE = 4;
+	/**
+	 * Slot of the user's tank in the players store.
+	 */
+	private static final int PLAYER = 0;
+	/**
+	 * Number of tiles from the player within which enemies stop pathfinding
+	 */
+	private static final int ENGAGE_RANGE = 2;
+	/**
+	 * Number of missiles the player can have in flight at once
+	 */
+	public static final int PLAYER_MISSILES = 3;
+	/**
+	 * Ticks the player waits between shots
+	 */
+	public static final int PLAYER_RELOAD = 5;
+	/**
+	 * Aim strategy given to enemies unless setEnemyAim() is called
+	 */
+	private static final AimStrategy LEAD_AIM = new LeadAim();
+	/**
+	 * The game map shared by every tank. A map with bricks is the world's own
+	 * copy, so breaking them doesn't change other worlds playing on the map.
+	 */
+	private GameMap map;
+	/**
+	 * Holds the tank enemies.
+	 */
+	private TankStore enemies;
+	/**
+	 * Holds the user's tank.
+	 */
+	private TankStore players;
+	/**
+	 * Represents the user's tank.
+	 */
+	private Tank player;
+	/**
+	 * Indicates the difficulty level of the game. (easy = 1 tank, medium = 2 tanks,
+	 * hard = 3 tanks, horde = any number of tanks)
+	 */
+	private int difficulty;
+	/**
+	 * True = player has been defeated, false otherwise
+	 */
+	private boolean gameOver;
+	/**
+	 * True = player has won, false otherwise
+	 */
+	private boolean win;
+	/**
+	 * Number of ticks simulated so far.
+	 */
+	private long tick;
+	/**
+	 * Seed of the world's random number generator
+	 */
+	private long seed;
+	/**
+	 * Random number generator shared by every tank in the world. It is the only
+	 * source of randomness in the simulation, so a world created with the same
+	 * seed and stepped with the same inputs always plays out the same way.
+	 */
+	private Random rand;
+	/**
+	 * Broad phase for the hit checks, rebuilt every tick.
+	 */
+	private HitGrid hitGrid;
+	/**
+	 * True = enemy missiles can hit other enemies, false otherwise
+	 */
+	private boolean friendlyFire;
+	/**
+	 * Leads the enemies toward the player
+	 */
+	private FlowField flowField;
+	/**
+	 * True = enemies find their way toward the player, false = enemies wander randomly
+	 */
+	private boolean pathfinding;
+	/**
+	 * Aim strategy given to enemies as they are added
+	 */
+	private AimStrategy enemyAim;
+	/**
+	 * Inputs the world is stepped with when given a single input: the user's
+	 * in slot 0, and an idle input for every other player
+	 */
+	private PlayerInput[] singleInput;
+	/**
+	 * Number of missiles each enemy can have in flight at once
+	 */
+	private int enemyMissiles;
+	/**
+	 * Ticks each enemy waits between shots
+	 */
+	private int enemyReload;
+	/**
+	 * Times each phase of step(), or null when the world isn't profiled
+	 */
+	private TickProfiler profiler;
+	/**
+	 * GameWorld constructor, places the player and enemy tanks on the map.
+	 * @param d		difficulty level
+	 * @param m		game map shared by every tank
+	 */
+	public GameWorld( int d, GameMap m ) {
+		this( d, m, newSeed() );
+	}
+	/**
+	 * GameWorld constructor, places the player and enemy tanks on the map.
+	 * Levels above hard play as hard; horde worlds are made with createHorde().
+	 * @param d		difficulty level
+	 * @param m		game map shared by every tank
+	 * @param s		seed of the world's random number generator
+	 */
+	public GameWorld( int d, GameMap m, long s ) {
+		this( m, 360, 360, s );
+		difficulty = Math.min( d, HORDE - 1 );
+		initializeTanks();
+	}
+	/**
+	 * GameWorld constructor for a custom setup, starting with the player at the
+	 * given location and no enemies. Enemies are added with addEnemy().
+	 * @param m		game map shared by every tank
+	 * @param x		x-component of the player's tank center
+	 * @param y		y-component of the player's tank center
+	 */
+	public GameWorld( GameMap m, int x, int y ) {
+		this( m, x, y, newSeed() );
+	}
+	/**
+	 * GameWorld constructor for a custom setup, starting with the player at the
+	 * given location and no enemies. Enemies are added with addEnemy().
+	 * @param m		game map shared by every tank
+	 * @param x		x-component of the player's tank center
+	 * @param y		y-component of the player's tank center
+	 * @param s		seed of the world's random number generator
+	 */
+	public GameWorld( GameMap m, int x, int y, long s ) {
+		map = m.hasBricks() ? new GameMap( m ) : m;
+		seed = s;
+		rand = new Random( s );
+		players = new TankStore( map );
+		enemies = new TankStore( map );
+		hitGrid = new HitGrid();
+		flowField = new FlowField( map );
+		pathfinding = true;
+		enemyAim = LEAD_AIM;
+		enemyMissiles = 1;
+		enemyReload = 0;
+		singleInput = new PlayerInput[0];
+		player = addPlayer( x, y, Color.RED );
+		gameOver = false;
+		win = false;
+	}
+	/**
+	 * Creates a horde world: the player on the open tile nearest the middle
+	 * of the map and the given number of enemies on random open tiles.
+	 * @param m			game map shared by every tank
+	 * @param count		number of enemy tanks
+	 * @return			the new world
+	 */
+	public static GameWorld createHorde( GameMap m, int count ) {
+		return createHorde( m, count, newSeed() );
+	}
+	/**
+	 * Creates a horde world: the player on the open tile nearest the middle
+	 * of the map and the given number of enemies on random open tiles.
+	 * @param m			game map shared by every tank
+	 * @param count		number of enemy tanks
+	 * @param s			seed of the world's random number generator
+	 * @return			the new world
+	 */
+	public static GameWorld createHorde( GameMap m, int count, long s ) {
+		int[] open = openTiles( m );
+		if ( open.length == 0 ) {
+			return new GameWorld( m, 0, 0, s );
+		}
+		int middle = ( m.getHeight() / 2 ) * m.getWidth() + m.getWidth() / 2;
+		int start = open[0];
+		for ( int tile : open ) {
+			if ( Math.abs( tile - middle ) < Math.abs( start - middle ) ) {
+				start = tile;
+			}
+		}
+		GameWorld world = new GameWorld( m, tileCenter( start % m.getWidth() ),
+				tileCenter( start / m.getWidth() ), s );
+		world.difficulty = HORDE;
+		for ( int i = 0; i < count; i++ ) {
+			int tile = open[world.rand.nextInt( open.length )];
+			world.addEnemy( tileCenter( tile % m.getWidth() ), tileCenter( tile / m.getWidth() ),
+					0, Color.GRAY );
+		}
+		return world;
+	}
+	/**
+	 * Picks a seed for a world that wasn't given one. The seed can be read back
+	 * with getSeed(), so the match can still be recorded and replayed.
+	 * @return		a new seed
+	 */
+	private static long newSeed() {
+		return new Random().nextLong();
+	}
+	/**
+	 * Lists the open tiles of a map, each as row * width + column
+	 * @param m		the map
+	 * @return		open tile indexes
+	 */
+	private static int[] openTiles( GameMap m ) {
+		int n = 0;
+		int[] open = new int[m.getWidth() * m.getHeight()];
+		for ( int i = 0; i < m.getHeight(); i++ ) {
+			for ( int j = 0; j < m.getWidth(); j++ ) {
+				if ( !m.isWall( i, j ) ) {
+					open[n++] = i * m.getWidth() + j;
+				}
+			}
+		}
+		return Arrays.copyOf( open, n );
+	}
+	/**
+	 * Returns the pixel coordinate of a tile's center
+	 * @param tile	tile row or column
+	 * @return		center pixel coordinate
+	 */
+	private static int tileCenter( int tile ) {
+		return tile * GameMap.TILE_SIZE + GameMap.TILE_SIZE / 2;
+	}
+	/**
+	 * Initialize the enemy tanks.
+	 */
+	public void initializeTanks() {
+		if ( difficulty == 1 ) {
+			addEnemy( 360, 490, 2, Color.GRAY );
+		}
+		else if ( difficulty == 2 ) {
+			addEnemy( 360, 490, 2, Color.GRAY );
+			addEnemy( 490, 490, -2, Color.GRAY );
+		}
+		else {
+			addEnemy( 360, 490, 2, Color.GRAY );
+			addEnemy( 490, 490, -2, Color.GRAY );
+			addEnemy( 490, 360, -2, Color.GRAY );
+		}
+	}
+	/**
+	 * Adds a player tank to the world. Players keep their slot in the players
+	 * store for the whole match, even once they are out of lives.
+	 * @param x		x-component of tank center
+	 * @param y		y-component of tank center
+	 * @param c		color of tank
+	 * @return		the player tank
+	 */
+	public Tank addPlayer( int x, int y, Color c ) {
+		Tank p = players.add( x, y, 0, c );
+		p.setMissileLimit( PLAYER_MISSILES );
+		p.setReload( PLAYER_RELOAD );
+		if ( singleInput.length < players.size() ) {
+			PlayerInput[] grown = Arrays.copyOf( singleInput, players.size() );
+			for ( int k = singleInput.length; k < grown.length; k++ ) {
+				grown[k] = new PlayerInput();
+			}
+			singleInput = grown;
+		}
+		return p;
+	}
+	/**
+	 * Adds a player tank on a random open tile, such as for a player joining a
+	 * networked match
+	 * @param c		color of tank
+	 * @return		the player tank
+	 */
+	public Tank spawnPlayer( Color c ) {
+		int[] open = openTiles( map );
+		if ( open.length == 0 ) {
+			return addPlayer( 0, 0, c );
+		}
+		int tile = open[rand.nextInt( open.length )];
+		return addPlayer( tileCenter( tile % map.getWidth() ), tileCenter( tile / map.getWidth() ), c );
+	}
+	/**
+	 * Brings a player back into the match in its own slot, on a random open
+	 * tile with its full lives, such as for a player taking over the slot of
+	 * one who left
+	 * @param p		player slot
+	 */
+	public void respawnPlayer( int p ) {
+		int[] open = openTiles( map );
+		if ( open.length == 0 ) {
+			players.setLocation( p, 0, 0 );
+		}
+		else {
+			int tile = open[rand.nextInt( open.length )];
+			players.setLocation( p, tileCenter( tile % map.getWidth() ), tileCenter( tile / map.getWidth() ) );
+		}
+		players.setDirection( p, 0 );
+		players.setCooldown( p, 0 );
+		players.setLives( p, TankStore.START_LIVES );
+	}
+	/**
+	 * Adds an enemy tank to the world
+	 * @param x		x-component of tank center
+	 * @param y		y-component of tank center
+	 * @param d		direction of tank
+	 * @param c		color of tank
+	 * @return		the enemy tank
+	 */
+	public Tank addEnemy( int x, int y, int d, Color c ) {
+		Tank e = enemies.add( x, y, d, c );
+		e.setAimStrategy( enemyAim );
+		e.setMissileLimit( enemyMissiles );
+		e.setReload( enemyReload );
+		hitGrid.ensureCapacity( enemies.size() );
+		return e;
+	}
+	/**
+	 * Advances the game by one tick: applies the player's input, moves the enemies,
+	 * moves every tank and missile, then checks for hits. Any players added
+	 * besides the user's stand still and hold their fire.
+	 * @param input		the player's input for this tick
+	 */
+	public void step( PlayerInput input ) {
+		singleInput[0] = input;
+		step( singleInput );
+	}
+	/**
+	 * Advances the game by one tick with an input for each player: applies the
+	 * inputs of the players still alive, moves the enemies, moves every tank
+	 * and missile, then checks for hits. The game is over once every player is
+	 * out of lives. With a profiler set, the end of each phase is marked.
+	 * @param inputs	each player's input for this tick, indexed by player slot
+	 */
+	public void step( PlayerInput[] inputs ) {
+		if ( profiler != null ) {
+			profiler.beginTick();
+		}
+		for ( int p = 0; p < players.size(); p++ ) {
+			if ( players.getLives( p ) > 0 ) {
+				players.setDirection( p, inputs[p].getDirection() );
+				if ( inputs[p].isFire() ) {
+					players.shootToward( p, inputs[p].getFireX(), inputs[p].getFireY() );
+				}
+			}
+		}
+		mark( TickProfiler.INPUT );
+		enemyActions();
+		mark( TickProfiler.AI );
+		for ( int p = 0; p < players.size(); p++ ) {
+			if ( players.getLives( p ) > 0 ) {
+				players.update( p, inputs[p].getAimX(), inputs[p].getAimY() );
+			}
+		}
+		players.updateMissiles();
+		int target = findTarget();
+		enemies.updateAll( players.getX( target ), players.getY( target ) );
+		mark( TickProfiler.MOVEMENT );
+		checkHits();
+		mark( TickProfiler.HITS );
+		if ( players.getLives( findTarget() ) <= 0 ) {
+			gameOver = true;
+		}
+		if ( enemies.size() == 0 ) {
+			win = true;
+		}
+		tick++;
+		if ( profiler != null ) {
+			profiler.endTick( tick, players.size() + enemies.size(),
+					players.getMissiles().size() + enemies.getMissiles().size() );
+		}
+	}
+	/**
+	 * Marks the end of a phase of the tick, if the world is profiled
+	 * @param phase		the phase that ended, from TickProfiler
+	 */
+	private void mark( int phase ) {
+		if ( profiler != null ) {
+			profiler.mark( phase );
+		}
+	}
+	/**
+	 * Fires a player missile with the given position set up as the target,
+	 * calculates the dx and dy necessary to reach that point, and sets the start
+	 * location to be the current position of the barrel. The shot is refused
+	 * while the player is reloading or already has PLAYER_MISSILES missiles
+	 * in flight.
+	 * @param x		target x-component
+	 * @param y		target y-component
+	 */
+	public void firePlayerMissile( int x, int y ) {
+		players.shootToward( PLAYER, x, y );
+	}
+	/**
+	 * Finds the player the enemies chase: the first player still alive
+	 * @return		player slot, or the user's slot if every player is out of lives
+	 */
+	private int findTarget() {
+		for ( int p = 0; p < players.size(); p++ ) {
+			if ( players.getLives( p ) > 0 ) {
+				return p;
+			}
+		}
+		return PLAYER;
+	}
+	/**
+	 * Handles the enemy movements and missile firing. Enemies chase the first
+	 * living player and only fire at a living player they can see.
+	 */
+	public void enemyActions() {
+		boolean playing = !gameOver && !win;
+		int target = findTarget();
+		int px = players.getX( target );
+		int py = players.getY( target );
+		if ( playing && pathfinding ) {
+			flowField.update( px, py );
+		}
+		if ( !playing ) {
+			enemies.getMissiles().clear();
+		}
+		for ( int i = 0; i < enemies.size(); i++ ) {
+			if ( playing ) {
+				moveEnemy( i );
+				if ( enemies.canFire( i ) ) {
+					fireEnemyMissile( i );
+				}
+			}
+			else {
+				enemies.setDirection( i, 0 );
+			}
+		}
+	}
+	/**
+	 * Fires an enemy's missile at the first living player it can see. Enemies
+	 * only fire with a clear shot, so missiles aren't wasted on walls.
+	 * @param i		enemy slot
+	 */
+	private void fireEnemyMissile( int i ) {
+		for ( int p = 0; p < players.size(); p++ ) {
+			if ( players.getLives( p ) > 0 && map.canSee( enemies.getX( i ), enemies.getY( i ),
+					players.getX( p ), players.getY( p ) ) ) {
+				enemies.fireAt( i, players, p );
+				return;
+			}
+		}
+	}
+	/**
+	 * Moves an enemy. With pathfinding on, an enemy heads for the player along
+	 * the flow field until it is within ENGAGE_RANGE tiles, then wanders randomly
+	 * so it doesn't sit still in front of the player. Enemies that can't reach
+	 * the player wander too.
+	 * @param i		enemy slot
+	 */
+	private void moveEnemy( int i ) {
+		int ex = enemies.getX( i );
+		int ey = enemies.getY( i );
+		if ( pathfinding && flowField.getDistance( ex, ey ) > ENGAGE_RANGE ) {
+			int next = flowField.nextTile( ex, ey );
+			if ( next >= 0 ) {
+				enemies.moveToward( i, flowField.centerX( next ), flowField.centerY( next ) );
+				return;
+			}
+		}
+		enemies.moveRandom( i, rand );
+	}
+	/**
+	 * Checks to see if a tank has been hit by a missile. Each missile is tested
+	 * along the whole path it moved over this tick, not just where it ended up,
+	 * so fast missiles can't pass through a tank between ticks. The enemies are
+	 * bucketed into the hit grid first, so each missile is only tested against
+	 * the enemies near its path. Hit enemies are removed once every missile has
+	 * been tested. Missiles that hit are recycled straight away; the pools are
+	 * swept from the back, so the missile moved into a recycled slot has
+	 * already been tested.
+	 */
+	public void checkHits() {
+		hitGrid.build( enemies );
+		mark( TickProfiler.COLLISION );
+		MissileStore enemyMissiles = enemies.getMissiles();
+		for ( int m = enemyMissiles.size() - 1; m >= 0; m-- ) {
+			int hitPlayer = findPlayerHit( enemyMissiles, m );
+			if ( hitPlayer >= 0 ) {
+				players.setLives( hitPlayer, players.getLives( hitPlayer ) - 1 );
+				enemyMissiles.remove( m );
+			}
+			else if ( friendlyFire ) {
+				int hit = hitGrid.findMissileHit( enemies, enemyMissiles, m, enemyMissiles.getOwner( m ) );
+				if ( hit >= 0 ) {
+					enemies.setLives( hit, 0 );
+					enemyMissiles.remove( m );
+				}
+			}
+		}
+		MissileStore playerMissiles = players.getMissiles();
+		for ( int m = playerMissiles.size() - 1; m >= 0; m-- ) {
+			int hit = hitGrid.findMissileHit( enemies, playerMissiles, m, -1 );
+			if ( hit >= 0 ) {
+				enemies.setLives( hit, 0 );
+				playerMissiles.remove( m );
+			}
+		}
+		// removing moves the last enemy into the slot, so sweep from the back
+		for ( int i = enemies.size() - 1; i >= 0; i-- ) {
+			if ( enemies.getLives( i ) <= 0 ) {
+				enemies.remove( i );
+			}
+		}
+	}
+	/**
+	 * Finds the living player an enemy missile hit this tick
+	 * @param s		the enemy missiles
+	 * @param m		missile slot
+	 * @return		player slot, or -1 if it hit no player
+	 */
+	private int findPlayerHit( MissileStore s, int m ) {
+		for ( int p = 0; p < players.size(); p++ ) {
+			if ( players.getLives( p ) > 0 && players.testMissileHit( p, s, m ) ) {
+				return p;
+			}
+		}
+		return -1;
+	}
+	/**
+	 * Sets whether enemy missiles can hit other enemies
+	 * @param b		true to turn friendly fire on, false to turn it off
+	 */
+	public void setFriendlyFire( boolean b ) {
+		friendlyFire = b;
+	}
+	/**
+	 * Returns whether enemy missiles can hit other enemies
+	 * @return		true if friendly fire is on, false otherwise
+	 */
+	public boolean isFriendlyFire() {
+		return friendlyFire;
+	}
+	/**
+	 * Hashes the state of every tank and missile and every brick hit. Two worlds that have played
+	 * out the same way have the same hash, so a replay can check that it
+	 * reproduced the recorded match.
+	 * @return		hash of the world's state
+	 */
+	public long stateHash() {
+		long h = tick;
+		h = hashTanks( h, players );
+		h = hashTanks( h, enemies );
+		h = h * 31 + map.getChangeCount();
+		for ( int k = 0; k < map.getChangeCount(); k++ ) {
+			h = h * 31 + map.getChangeTile( k );
+		}
+		return h;
+	}
+	/**
+	 * Mixes the state of every tank of a store and its missiles into a hash
+	 * @param h			hash so far
+	 * @param tanks		the tanks to hash
+	 * @return			updated hash
+	 */
+	private static long hashTanks( long h, TankStore tanks ) {
+		h = h * 31 + tanks.size();
+		for ( int i = 0; i < tanks.size(); i++ ) {
+			h = h * 31 + tanks.getX( i );
+			h = h * 31 + tanks.getY( i );
+			h = h * 31 + tanks.getLives( i );
+			h = h * 31 + tanks.getDirection( i );
+			h = h * 31 + tanks.getCooldown( i );
+		}
+		MissileStore missiles = tanks.getMissiles();
+		h = h * 31 + missiles.size();
+		for ( int m = 0; m < missiles.size(); m++ ) {
+			h = h * 31 + missiles.getOwner( m );
+			h = h * 31 + Double.doubleToLongBits( missiles.getX( m ) );
+			h = h * 31 + Double.doubleToLongBits( missiles.getY( m ) );
+		}
+		return h;
+	}
+	/**
+	 * Sets the profiler that times each phase of step()
+	 * @param p		the profiler, or null to stop profiling
+	 */
+	public void setProfiler( TickProfiler p ) {
+		profiler = p;
+	}
+	/**
+	 * Returns the profiler that times each phase of step()
+	 * @return		the profiler, or null if the world isn't profiled
+	 */
+	public TickProfiler getProfiler() {
+		return profiler;
+	}
+	/**
+	 * Returns the seed of the world's random number generator
+	 * @return		the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	/**
+	 * Returns the difficulty level of the world
+	 * @return		difficulty level
+	 */
+	public int getDifficulty() {
+		return difficulty;
+	}
+	/**
+	 * Sets how every enemy, and every enemy added later, aims its shots
+	 * @param a		the enemies' aim strategy
+	 */
+	public void setEnemyAim( AimStrategy a ) {
+		enemyAim = a;
+		for ( int i = 0; i < enemies.size(); i++ ) {
+			enemies.setAimStrategy( i, a );
+		}
+	}
+	/**
+	 * Sets how fast every enemy, and every enemy added later, can fire
+	 * @param limit		number of missiles each enemy can have in flight at once
+	 * @param reload	ticks each enemy waits between shots
+	 */
+	public void setEnemyFireRate( int limit, int reload ) {
+		enemyMissiles = limit;
+		enemyReload = reload;
+		for ( int i = 0; i < enemies.size(); i++ ) {
+			enemies.setMissileLimit( i, limit );
+			enemies.setReload( i, reload );
+		}
+	}
+	/**
+	 * Returns the number of missiles each enemy can have in flight at once
+	 * @return		missile limit of the enemies
+	 */
+	public int getEnemyMissileLimit() {
+		return enemyMissiles;
+	}
+	/**
+	 * Returns the ticks each enemy waits between shots
+	 * @return		reload of the enemies
+	 */
+	public int getEnemyReload() {
+		return enemyReload;
+	}
+	/**
+	 * Returns the aim strategy given to enemies as they are added
+	 * @return		the enemies' aim strategy
+	 */
+	public AimStrategy getEnemyAim() {
+		return enemyAim;
+	}
+	/**
+	 * Sets whether enemies find their way toward the player or wander randomly
+	 * @param b		true to turn pathfinding on, false to turn it off
+	 */
+	public void setPathfinding( boolean b ) {
+		pathfinding = b;
+	}
+	/**
+	 * Returns whether enemies find their way toward the player
+	 * @return		true if pathfinding is on, false otherwise
+	 */
+	public boolean isPathfinding() {
+		return pathfinding;
+	}
+	/**
+	 * Returns the flow field leading the enemies toward the player
+	 * @return		the flow field
+	 */
+	public FlowField getFlowField() {
+		return flowField;
+	}
+	/**
+	 * Access the game map
+	 * @return		the shared game map
+	 */
+	public GameMap getMap() {
+		return map;
+	}
+	/**
+	 * Returns the user's tank, the first player
+	 * @return		player's tank
+	 */
+	public Tank getPlayer() {
+		return player;
+	}
+	/**
+	 * Returns the store holding every player's tank, the user's in slot 0
+	 * @return		player store
+	 */
+	public TankStore getPlayers() {
+		return players;
+	}
+	/**
+	 * Returns the enemy tanks still in play
+	 * @return		enemy tanks
+	 */
+	public TankStore getEnemies() {
+		return enemies;
+	}
+	/**
+	 * Returns whether the player has been defeated
+	 * @return		true if the player lost, false otherwise
+	 */
+	public boolean isGameOver() {
+		return gameOver;
+	}
+	/**
+	 * Returns whether the player has won
+	 * @return		true if the player won, false otherwise
+	 */
+	public boolean isWin() {
+		return win;
+	}
+	/**
+	 * Returns the number of ticks simulated so far
+	 * @return		tick count
+	 */
+	public long getTick() {
+		return tick;
+	}
+}
@@ -0,0 +1,98 @@
+package tanks;
+
+import java.util.Random;
+
+/**
+ * Runs bot-vs-bot matches without a window, as fast as the CPU allows.
+ * Usage: java HeadlessMain [difficulty] [matches] [maxTicks] [seed] [replayFile] [profileFile]
+ * With the same seed, every run plays exactly the same matches. Given a replay
+ * file name, the first match is recorded to it; an empty name records nothing.
+ * Given a profile file name, or "-" for standard output, every match is timed
+ * by a TickProfiler, registered as an MBean while the matches run, and its
+ * report is written there at the end.
+ * @author Nicholas Grant
+ *
+ */
+public class HeadlessMain {
+	/**
+	 * Runs the requested number of matches and prints the results.
+	 */
+	public static void main( String[] args ) {
+		int difficulty = ( args.length > 0 ) ? Integer.parseInt( args[0] ) : 3;
+		int matches = ( args.length > 1 ) ? Integer.parseInt( args[1] ) : 100;
+		int maxTicks = ( args.length > 2 ) ? Integer.parseInt( args[2] ) : 20000;
+		long seed = ( args.length > 3 ) ? Long.parseLong( args[3] ) : new Random().nextLong();
+		TickProfiler profiler = null;
+		if ( args.length > 5 ) {
+			profiler = new TickProfiler( "headless" );
+			profiler.register();
+		}
+		GameMap map = GameMap.load( Panel.DEFAULT_MAP );
+		Random rand = new Random( seed );
+		int wins = 0;
+		long ticks = 0;
+		long start = System.nanoTime();
+		for ( int i = 0; i < matches; i++ ) {
+			GameWorld world = new GameWorld( difficulty, map, rand.nextLong() );
+			ReplayRecorder recorder = ( i == 0 && args.length > 4 && !args[4].isEmpty() )
+					? new ReplayRecorder( args[4], world ) : null;
+			world.setProfiler( profiler );
+			playMatch( world, rand, maxTicks, recorder );
+			if ( world.isWin() ) {
+				wins++;
+			}
+			ticks += world.getTick();
+		}
+		double seconds = ( System.nanoTime() - start ) / 1e9;
+		System.out.printf( "seed %d: %d matches, player won %d, %d ticks in %.2f s (%.0f ticks/s)%n",
+				seed, matches, wins, ticks, seconds, ticks / seconds );
+		if ( profiler != null ) {
+			profiler.save( args[5] );
+		}
+	}
+	/**
+	 * Plays one match with a bot player that wanders randomly and fires
+	 * at the first remaining enemy.
+	 * @param world		the world to play in
+	 * @param rand		random source for the bot's moves
+	 * @param maxTicks	tick limit before the match is called off
+	 * @return			the world once the match has ended
+	 */
+	public static GameWorld playMatch( GameWorld world, Random rand, int maxTicks ) {
+		return playMatch( world, rand, maxTicks, null );
+	}
+	/**
+	 * Plays one match with a bot player that wanders randomly and fires
+	 * at the first remaining enemy, recording it to a replay.
+	 * @param world		the world to play in
+	 * @param rand		random source for the bot's moves
+	 * @param maxTicks	tick limit before the match is called off
+	 * @param recorder	records the bot's input, or null to not record
+	 * @return			the world once the match has ended
+	 */
+	public static GameWorld playMatch( GameWorld world, Random rand, int maxTicks,
+			ReplayRecorder recorder ) {
+		PlayerInput input = new PlayerInput();
+		while ( !world.isGameOver() && !world.isWin() && world.getTick() < maxTicks ) {
+			if ( world.getTick() % 10 == 0 ) {
+				input.setDirection( rand.nextInt( 9 ) - 4 );
+			}
+			input.clearFire();
+			if ( !world.getEnemies().isEmpty() ) {
+				Tank target = world.getEnemies().get( 0 );
+				int x = target.getX();
+				int y = target.getY();
+				input.setAim( x, y );
+				input.fireAt( x, y );
+			}
+			if ( recorder != null ) {
+				recorder.record( input );
+			}
+			world.step( input );
+		}
+		if ( recorder != null ) {
+			recorder.finish( world );
+		}
+		return world;
+	}
+}
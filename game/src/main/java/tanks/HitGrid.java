@@ -0,0 +1,170 @@
+package tanks;
+
+import java.util.Arrays;
+
+/**
+ * Broad phase for missile hits. Each tick the grid buckets every tank of a
+ * store by the map cell its center is in, so a missile only needs to be tested
+ * against the tanks in the cells around it instead of against every tank.
+ * Cells are hashed into a bucket table sized to the number of tanks, so the
+ * cost of a rebuild depends on the number of tanks, not the size of the map.
+ * Rebuilding reuses the grid's arrays and only grows them when the store grows.
+ * @author Nicholas Grant
+ *
+ */
+public class HitGrid {
+	/**
+	 * Width and height of a grid cell in pixels; at least a tank's size, so a
+	 * point can only be inside tanks whose centers are in the 2x2 cells around it
+	 */
+	public static final int CELL_SIZE = GameMap.TILE_SIZE;
+	/**
+	 * Half a tank's size, the furthest a point inside a tank can be from its center
+	 */
+	private static final int HALF = TankStore.TANK_SIZE / 2;
+	/**
+	 * Bucket count minus one; the bucket count is a power of two
+	 */
+	private int mask;
+	/**
+	 * First entry of each bucket; bucket b holds entries bucketStart[b] to
+	 * bucketStart[b + 1] - 1
+	 */
+	private int[] bucketStart;
+	/**
+	 * Tank slots sorted by bucket
+	 */
+	private int[] entries;
+	/**
+	 * Bucket of each tank slot
+	 */
+	private int[] bucketOf;
+	/**
+	 * Creates an empty grid
+	 */
+	public HitGrid() {
+		mask = 0;
+		bucketStart = new int[2];
+		entries = new int[0];
+		bucketOf = new int[0];
+	}
+	/**
+	 * Buckets every tank of the store by the cell its center is in
+	 * @param tanks		the tanks to bucket
+	 */
+	public void build( TankStore tanks ) {
+		int n = tanks.size();
+		ensureCapacity( n );
+		int buckets = bucketCount( n );
+		mask = buckets - 1;
+		Arrays.fill( bucketStart, 0, buckets + 1, 0 );
+		// count the tanks per bucket, then turn the counts into bucket end offsets
+		for ( int i = 0; i < n; i++ ) {
+			int b = bucket( Math.floorDiv( tanks.getX( i ), CELL_SIZE ),
+					Math.floorDiv( tanks.getY( i ), CELL_SIZE ) );
+			bucketOf[i] = b;
+			bucketStart[b]++;
+		}
+		for ( int b = 1; b < buckets; b++ ) {
+			bucketStart[b] += bucketStart[b - 1];
+		}
+		bucketStart[buckets] = n;
+		// fill each bucket back to front, leaving bucketStart pointing at its first entry
+		for ( int i = n - 1; i >= 0; i-- ) {
+			entries[--bucketStart[bucketOf[i]]] = i;
+		}
+	}
+	/**
+	 * Grows the grid's arrays to hold at least the given number of tanks, so
+	 * build() doesn't have to allocate
+	 * @param n		number of tanks
+	 */
+	public void ensureCapacity( int n ) {
+		if ( n > entries.length ) {
+			int size = Math.max( n, entries.length * 2 );
+			entries = new int[size];
+			bucketOf = new int[size];
+		}
+		if ( bucketCount( n ) + 1 > bucketStart.length ) {
+			bucketStart = new int[bucketCount( Math.max( n, entries.length ) ) + 1];
+		}
+	}
+	/**
+	 * Returns the number of buckets used for a number of tanks: a power of two
+	 * between two and four times the number of tanks
+	 * @param n		number of tanks
+	 * @return		bucket count
+	 */
+	private static int bucketCount( int n ) {
+		return Integer.highestOneBit( Math.max( 1, n ) * 2 - 1 ) << 1;
+	}
+	/**
+	 * Finds a tank of the store, as bucketed by the last build(), whose bounding
+	 * rectangle contains the point
+	 * @param tanks		the tanks bucketed by the last build()
+	 * @param px		the point's x-component
+	 * @param py		the point's y-component
+	 * @param ignore	slot of a tank that can't be hit (the shooter), or -1
+	 * @return			slot of a hit tank, or -1 if none was hit
+	 */
+	public int findHit( TankStore tanks, int px, int py, int ignore ) {
+		int firstCol = Math.floorDiv( px - HALF, CELL_SIZE );
+		int lastCol = Math.floorDiv( px + HALF, CELL_SIZE );
+		int firstRow = Math.floorDiv( py - HALF, CELL_SIZE );
+		int lastRow = Math.floorDiv( py + HALF, CELL_SIZE );
+		for ( int row = firstRow; row <= lastRow; row++ ) {
+			for ( int col = firstCol; col <= lastCol; col++ ) {
+				int b = bucket( col, row );
+				for ( int k = bucketStart[b]; k < bucketStart[b + 1]; k++ ) {
+					int t = entries[k];
+					if ( t != ignore && tanks.testHit( t, px, py ) ) {
+						return t;
+					}
+				}
+			}
+		}
+		return -1;
+	}
+	/**
+	 * Finds a tank of the store, as bucketed by the last build(), that a
+	 * missile passed through during its last move. Every cell under the
+	 * missile's path is searched, so fast missiles can't skip a tank.
+	 * @param tanks		the tanks bucketed by the last build()
+	 * @param missiles	store holding the missile
+	 * @param m			slot of the missile in its store
+	 * @param ignore	slot of a tank that can't be hit (the shooter), or -1
+	 * @return			slot of a hit tank, or -1 if none was hit
+	 */
+	public int findMissileHit( TankStore tanks, MissileStore missiles, int m, int ignore ) {
+		double x0 = missiles.getPrevX( m );
+		double y0 = missiles.getPrevY( m );
+		double x1 = missiles.getX( m );
+		double y1 = missiles.getY( m );
+		// the swept test includes a rectangle's far edges, so reach one pixel further
+		int firstCol = Math.floorDiv( (int)Math.floor( Math.min( x0, x1 ) ) - HALF - 1, CELL_SIZE );
+		int lastCol = Math.floorDiv( (int)Math.ceil( Math.max( x0, x1 ) ) + HALF + 1, CELL_SIZE );
+		int firstRow = Math.floorDiv( (int)Math.floor( Math.min( y0, y1 ) ) - HALF - 1, CELL_SIZE );
+		int lastRow = Math.floorDiv( (int)Math.ceil( Math.max( y0, y1 ) ) + HALF + 1, CELL_SIZE );
+		for ( int row = firstRow; row <= lastRow; row++ ) {
+			for ( int col = firstCol; col <= lastCol; col++ ) {
+				int b = bucket( col, row );
+				for ( int k = bucketStart[b]; k < bucketStart[b + 1]; k++ ) {
+					int t = entries[k];
+					if ( t != ignore && tanks.testHit( t, x0, y0, x1, y1 ) ) {
+						return t;
+					}
+				}
+			}
+		}
+		return -1;
+	}
+	/**
+	 * Hashes a cell to a bucket
+	 * @param col	cell column
+	 * @param row	cell row
+	 * @return		bucket index
+	 */
+	private int bucket( int col, int row ) {
+		return ( col * 73856093 ^ row * 19349663 ) & mask;
+	}
+}
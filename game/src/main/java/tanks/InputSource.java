@@ -0,0 +1,18 @@
+package tanks;
+
+/**
+ * Supplies the players' inputs of a MatchRoom, such as a bot or a network
+ * connection. A room calls its source right before each tick, on whichever
+ * worker thread runs the tick, and never from two threads at once.
+ * @author Nicholas Grant
+ *
+ */
+public interface InputSource {
+	/**
+	 * Fills in the players' inputs for the next tick
+	 * @param world		the room's world, about to be stepped
+	 * @param inputs	each player's input, indexed by player slot, holding the
+	 * 					inputs of the last tick
+	 */
+	void fill( GameWorld world, PlayerInput[] inputs );
+}
@@ -0,0 +1,147 @@
+package tanks;
+
+/**
+ * Counts durations in buckets whose width grows with the value, the way
+ * HdrHistogram does, so percentiles such as the 99.9th can be read without
+ * keeping every sample. Values below 2 * SUB_BUCKETS are counted exactly;
+ * above that, each power of two is split into SUB_BUCKETS buckets, so a
+ * percentile is within about 1.6% of the true value. Recording never
+ * allocates. A histogram isn't thread-safe; give each thread its own and
+ * add() them together afterwards.
+ * @author Nicholas Grant
+ *
+ */
+public class LatencyHistogram {
+	/**
+	 * log2 of SUB_BUCKETS
+	 */
+	private static final int SUB_BITS = 6;
+	/**
+	 * Number of buckets each power of two is split into
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	/**
+	 * Number of buckets, enough for any non-negative long
+	 */
+	private static final int BUCKETS = ( 64 - SUB_BITS ) * SUB_BUCKETS;
+	/**
+	 * Number of values counted in each bucket
+	 */
+	private final long[] counts;
+	/**
+	 * Number of values counted
+	 */
+	private long total;
+	/**
+	 * Largest value counted
+	 */
+	private long max;
+	/**
+	 * Sum of the values counted
+	 */
+	private long sum;
+	/**
+	 * Creates an empty histogram
+	 */
+	public LatencyHistogram() {
+		counts = new long[BUCKETS];
+	}
+	/**
+	 * Counts a value; negative values are counted as 0
+	 * @param v		the value, such as a duration in nanoseconds
+	 */
+	public void record( long v ) {
+		if ( v < 0 ) {
+			v = 0;
+		}
+		counts[bucket( v )]++;
+		total++;
+		sum += v;
+		if ( v > max ) {
+			max = v;
+		}
+	}
+	/**
+	 * Adds the counts of another histogram to this one
+	 * @param h		the other histogram
+	 */
+	public void add( LatencyHistogram h ) {
+		for ( int b = 0; b < BUCKETS; b++ ) {
+			counts[b] += h.counts[b];
+		}
+		total += h.total;
+		sum += h.sum;
+		max = Math.max( max, h.max );
+	}
+	/**
+	 * Forgets every value counted
+	 */
+	public void reset() {
+		for ( int b = 0; b < BUCKETS; b++ ) {
+			counts[b] = 0;
+		}
+		total = 0;
+		sum = 0;
+		max = 0;
+	}
+	/**
+	 * Returns a percentile of the values counted
+	 * @param p		the percentile (0 to 100)
+	 * @return		the largest value of the bucket holding the percentile, at
+	 * 				most the largest value counted, or 0 if nothing was counted
+	 */
+	public long getPercentile( double p ) {
+		long rank = Math.max( 1, (long)Math.ceil( total * p / 100 ) );
+		long seen = 0;
+		for ( int b = 0; b < BUCKETS; b++ ) {
+			seen += counts[b];
+			if ( seen >= rank ) {
+				return Math.min( max, highest( b ) );
+			}
+		}
+		return 0;
+	}
+	/**
+	 * Returns the bucket a value is counted in
+	 * @param v		the value, not negative
+	 * @return		bucket index
+	 */
+	private static int bucket( long v ) {
+		int shift = Math.max( 0, 63 - Long.numberOfLeadingZeros( v ) - SUB_BITS );
+		return shift * SUB_BUCKETS + (int)( v >>> shift );
+	}
+	/**
+	 * Returns the largest value counted in a bucket
+	 * @param b		bucket index
+	 * @return		largest value of the bucket
+	 */
+	private static long highest( int b ) {
+		if ( b < 2 * SUB_BUCKETS ) {
+			return b;
+		}
+		int shift = b / SUB_BUCKETS - 1;
+		long sub = b - shift * SUB_BUCKETS;
+		return ( ( sub + 1 ) << shift ) - 1;
+	}
+	/**
+	 * Returns the number of values counted
+	 * @return		count
+	 */
+	public long getCount() {
+		return total;
+	}
+	/**
+	 * Returns the largest value counted
+	 * @return		maximum, or 0 if nothing was counted
+	 */
+	public long getMax() {
+		return max;
+	}
+	/**
+	 * Returns the mean of the values counted
+	 * @return		mean, or 0 if nothing was counted
+	 */
+	public double getMean() {
+		return ( total == 0 ) ? 0 : (double)sum / total;
+	}
+}
@@ -0,0 +1,68 @@
+package tanks;
+
+/**
+ * Fires where the target will be when the missile gets there, assuming the
+ * target keeps moving in its current direction. The meeting time is the
+ * smallest positive root of a quadratic, solved in closed form, so aiming
+ * takes a square root and a few multiplications and doesn't allocate.
+ * @author Nicholas Grant
+ *
+ */
+public class LeadAim implements AimStrategy {
+	/**
+	 * Fires a tank's missile at the point where it will meet the target
+	 * @param shooters	store holding the firing tank
+	 * @param i			slot of the firing tank
+	 * @param targets	store holding the target tank
+	 * @param t			slot of the target tank
+	 */
+	@Override
+	public void fire( TankStore shooters, int i, TankStore targets, int t ) {
+		int fromX = shooters.getBarrelX( i );
+		int fromY = shooters.getBarrelY( i );
+		int tx = targets.getX( t );
+		int ty = targets.getY( t );
+		int vx = targets.getVelocityX( t );
+		int vy = targets.getVelocityY( t );
+		double time = interceptTime( tx - fromX, ty - fromY, vx, vy, shooters.getMissileMove( i ) );
+		if ( time > 0 ) {
+			tx += (int)Math.round( vx * time );
+			ty += (int)Math.round( vy * time );
+		}
+		shooters.launch( i, fromX, fromY, tx, ty );
+	}
+	/**
+	 * Finds how long a missile fired now takes to meet a target moving at a
+	 * constant velocity. The missile meets the target after time t when
+	 * |d + v t| = s t, which squared is the quadratic
+	 * (v.v - s^2) t^2 + 2 (d.v) t + d.d = 0.
+	 * @param dx		target x-component relative to the missile's start
+	 * @param dy		target y-component relative to the missile's start
+	 * @param vx		target's change in x per tick
+	 * @param vy		target's change in y per tick
+	 * @param speed		missile's distance per tick
+	 * @return			ticks until the missile meets the target, or -1 if it can't
+	 */
+	public static double interceptTime( double dx, double dy, double vx, double vy, double speed ) {
+		double a = vx * vx + vy * vy - speed * speed;
+		double b = 2 * ( dx * vx + dy * vy );
+		double c = dx * dx + dy * dy;
+		if ( a > -1e-9 && a < 1e-9 ) {
+			// target as fast as the missile: only catches it if it comes closer
+			return ( b < 0 ) ? -c / b : -1;
+		}
+		double discriminant = b * b - 4 * a * c;
+		if ( discriminant < 0 ) {
+			return -1;
+		}
+		double root = Math.sqrt( discriminant );
+		double t1 = ( -b - root ) / ( 2 * a );
+		double t2 = ( -b + root ) / ( 2 * a );
+		// the earlier meeting if it's still ahead, otherwise the later one
+		double t = ( t1 < t2 ) ? t1 : t2;
+		if ( t <= 0 ) {
+			t = ( t1 < t2 ) ? t2 : t1;
+		}
+		return ( t > 0 ) ? t : -1;
+	}
+}
@@ -0,0 +1,45 @@
+package tanks;
+
+/**
+ * Converts a map text file, such as map1.txt, to the binary map format read
+ * by MapFile.
+ * Usage: java MapConvertMain textFile [binaryFile]
+ * The binary file defaults to the text file's name with MapFile.EXTENSION
+ * in place of its extension.
+ * @author Nicholas Grant
+ *
+ */
+public class MapConvertMain {
+	/**
+	 * Loads the text map and writes it as a binary map.
+	 */
+	public static void main( String[] args ) {
+		if ( args.length == 0 ) {
+			System.out.println("Usage: java MapConvertMain textFile [binaryFile]");
+			return;
+		}
+		String out = ( args.length > 1 ) ? args[1] : binaryName( args[0] );
+		GameMap map = GameMap.load( args[0] );
+		// load gives an empty map when the file is missing or unreadable
+		if ( map.getWidth() == 0 || map.getHeight() == 0 ) {
+			System.out.println( "No map read from " + args[0] + "; nothing written." );
+			System.exit( 1 );
+		}
+		if ( !MapFile.write( map, out ) ) {
+			System.exit( 1 );
+		}
+		System.out.printf( "%s: %dx%d tiles written to %s%n",
+				args[0], map.getWidth(), map.getHeight(), out );
+	}
+	/**
+	 * Returns the name of the binary map made from a text map
+	 * @param textFile	name of the text map file
+	 * @return			name of the binary map file
+	 */
+	public static String binaryName( String textFile ) {
+		int dot = textFile.lastIndexOf( '.' );
+		int slash = Math.max( textFile.lastIndexOf( '/' ), textFile.lastIndexOf( '\\' ) );
+		String base = ( dot > slash ) ? textFile.substring( 0, dot ) : textFile;
+		return base + MapFile.EXTENSION;
+	}
+}
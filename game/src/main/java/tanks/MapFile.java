@@ -0,0 +1,197 @@
+package tanks;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes maps in a compact binary format, for maps too large to
+ * parse from text quickly. The map is cut into square chunks of CHUNK_SIZE
+ * tiles a side. The file starts with a header holding the map's size and a
+ * directory with the offset of each chunk, followed by the chunks, each one
+ * byte per tile, row by row. A chunk with nothing but floor isn't stored at
+ * all; its directory entry is 0.
+ *
+ * A file is read by memory mapping it, so the operating system pages in each
+ * chunk only as its tiles are read, and chunks of open floor are never read.
+ * @author Nicholas Grant
+ *
+ */
+public class MapFile {
+	/**
+	 * File name extension of binary map files; GameMap.load() reads any other
+	 * file as text
+	 */
+	public static final String EXTENSION = ".tmap";
+	/**
+	 * First four bytes of every binary map file ("TNKM")
+	 */
+	public static final int MAGIC = 0x544E4B4D;
+	/**
+	 * Version of the binary map format
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * Tiles per side of a chunk
+	 */
+	public static final int CHUNK_SIZE = 32;
+	/**
+	 * Bytes before the chunk directory: magic, version, width, height and
+	 * chunk size
+	 */
+	private static final int HEADER_BYTES = 17;
+	/**
+	 * Reads a binary map file
+	 * @param fileName	name of the binary map file
+	 * @return			the map, or an empty map if the file wasn't found or
+	 * 					isn't a binary map
+	 */
+	public static GameMap read( String fileName ) {
+		try ( FileChannel channel = FileChannel.open( Paths.get( fileName ), StandardOpenOption.READ ) ) {
+			MappedByteBuffer data = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+			int[][] t = parse( data );
+			if ( t == null ) {
+				System.out.println("Not a map file.");
+				return new GameMap( new int[0][0] );
+			}
+			return new GameMap( t );
+		} catch (NoSuchFileException nsf) {
+			System.out.println("File not found.");
+		} catch (IOException e) {
+			System.out.println("Could not read map.");
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			System.out.println("Not a map file.");
+		}
+		return new GameMap( new int[0][0] );
+	}
+	/**
+	 * Decodes the tiles of a binary map, reading only the chunks that are stored
+	 * @param data		the file's contents
+	 * @return			tiles indexed [row][column], or null if the data isn't a map
+	 */
+	private static int[][] parse( ByteBuffer data ) {
+		if ( data.getInt() != MAGIC || data.get() != VERSION ) {
+			return null;
+		}
+		int w = data.getInt();
+		int h = data.getInt();
+		int size = data.getInt();
+		// a map has to fit GameMap's arrays, which hold one entry per tile
+		if ( w < 0 || h < 0 || size <= 0 || size > CHUNK_SIZE || (long)w * h > Integer.MAX_VALUE ) {
+			return null;
+		}
+		int across = chunks( w, size );
+		int down = chunks( h, size );
+		// check the directory fits in the file before allocating the tiles;
+		// every chunk has a 4 byte entry, so with chunks no bigger than
+		// CHUNK_SIZE this also holds the tiles to what the file's size allows
+		if ( HEADER_BYTES + (long)across * down * 4 > data.capacity() ) {
+			return null;
+		}
+		int[][] t = new int[h][w];
+		for ( int cy = 0; cy < down; cy++ ) {
+			for ( int cx = 0; cx < across; cx++ ) {
+				int offset = data.getInt( HEADER_BYTES + ( cy * across + cx ) * 4 );
+				if ( offset == 0 ) {
+					continue;
+				}
+				int rows = Math.min( size, h - cy * size );
+				int cols = Math.min( size, w - cx * size );
+				for ( int i = 0; i < rows; i++ ) {
+					int[] row = t[cy * size + i];
+					int at = offset + i * cols;
+					for ( int j = 0; j < cols; j++ ) {
+						row[cx * size + j] = data.get( at + j );
+					}
+				}
+			}
+		}
+		return t;
+	}
+	/**
+	 * Writes a map as a binary map file
+	 * @param m			the map
+	 * @param fileName	name of the binary map file
+	 * @return			true if the file was written, false otherwise
+	 */
+	public static boolean write( GameMap m, String fileName ) {
+		int w = m.getWidth();
+		int h = m.getHeight();
+		int across = chunks( w, CHUNK_SIZE );
+		int down = chunks( h, CHUNK_SIZE );
+		try ( DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream( new FileOutputStream( fileName ) ) ) ) {
+			out.writeInt( MAGIC );
+			out.writeByte( VERSION );
+			out.writeInt( w );
+			out.writeInt( h );
+			out.writeInt( CHUNK_SIZE );
+			int offset = HEADER_BYTES + across * down * 4;
+			for ( int cy = 0; cy < down; cy++ ) {
+				for ( int cx = 0; cx < across; cx++ ) {
+					if ( isFloor( m, cy, cx ) ) {
+						out.writeInt( 0 );
+						continue;
+					}
+					out.writeInt( offset );
+					offset += Math.min( CHUNK_SIZE, h - cy * CHUNK_SIZE )
+							* Math.min( CHUNK_SIZE, w - cx * CHUNK_SIZE );
+				}
+			}
+			for ( int cy = 0; cy < down; cy++ ) {
+				for ( int cx = 0; cx < across; cx++ ) {
+					if ( isFloor( m, cy, cx ) ) {
+						continue;
+					}
+					int lastRow = Math.min( h, ( cy + 1 ) * CHUNK_SIZE );
+					int lastCol = Math.min( w, ( cx + 1 ) * CHUNK_SIZE );
+					for ( int i = cy * CHUNK_SIZE; i < lastRow; i++ ) {
+						for ( int j = cx * CHUNK_SIZE; j < lastCol; j++ ) {
+							out.writeByte( m.getTile( i, j ) );
+						}
+					}
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			System.out.println("Could not write map.");
+			return false;
+		}
+	}
+	/**
+	 * Checks to see if every tile of a chunk is floor
+	 * @param m		the map
+	 * @param cy	chunk row
+	 * @param cx	chunk column
+	 * @return		true if the chunk is all floor, false otherwise
+	 */
+	private static boolean isFloor( GameMap m, int cy, int cx ) {
+		int lastRow = Math.min( m.getHeight(), ( cy + 1 ) * CHUNK_SIZE );
+		int lastCol = Math.min( m.getWidth(), ( cx + 1 ) * CHUNK_SIZE );
+		for ( int i = cy * CHUNK_SIZE; i < lastRow; i++ ) {
+			for ( int j = cx * CHUNK_SIZE; j < lastCol; j++ ) {
+				if ( m.getTile( i, j ) != GameMap.FLOOR ) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	/**
+	 * Returns the number of chunks needed to cover a side of the map
+	 * @param tiles		tiles along the side
+	 * @param size		tiles per side of a chunk
+	 * @return			number of chunks
+	 */
+	private static int chunks( int tiles, int size ) {
+		return tiles / size + ( ( tiles % size == 0 ) ? 0 : 1 );
+	}
+}
@@ -0,0 +1,423 @@
+package tanks;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs many MatchRooms in one process on a fixed number of threads, however
+ * many rooms there are. Rooms wait in a queue ordered by the time their next
+ * tick is due. One scheduler thread sleeps until the first room is due, then
+ * hands the rooms that are due to a pool of worker threads in batches of up
+ * to BATCH_SIZE, so a busy host dispatches one task per batch rather than one
+ * per room. A worker ticks each room of its batch and puts it back in the
+ * queue for its next tick. A room is never in the queue while it is being
+ * ticked, so no room is ever ticked by two threads at once.
+ *
+ * A room that falls more than MAX_CATCH_UP ticks behind skips the ticks it
+ * missed rather than running them back to back. The delay between the time
+ * each tick was due and the time it started is kept in a histogram, along with
+ * counts of ticks run and skipped, to tell whether the host keeps up.
+ *
+ * Creating and closing rooms never starts or stops a thread. shutdown() stops
+ * the scheduler and the workers and waits for them to end.
+ * @author Nicholas Grant
+ *
+ */
+public class MatchHost {
+	/**
+	 * Most rooms handed to a worker at once
+	 */
+	public static final int BATCH_SIZE = 32;
+	/**
+	 * Most ticks a room can fall behind before it skips the ticks it missed
+	 */
+	public static final int MAX_CATCH_UP = 5;
+	/**
+	 * Width of each bucket of the tick delay histogram, in nanoseconds
+	 */
+	private static final long DELAY_BUCKET_NANOS = 100000;
+	/**
+	 * Number of buckets of the tick delay histogram; the last one holds every
+	 * delay of a second or more
+	 */
+	private static final int DELAY_BUCKETS = 10000;
+	/**
+	 * Nanoseconds between ticks of a room
+	 */
+	private final long periodNanos;
+	/**
+	 * Runs the ticks
+	 */
+	private final ExecutorService workers;
+	/**
+	 * Hands due rooms to the workers
+	 */
+	private final Thread scheduler;
+	/**
+	 * Guards the queue, the set of rooms and the statistics
+	 */
+	private final ReentrantLock lock;
+	/**
+	 * Signalled when a room joins the front of the queue or the host shuts down
+	 */
+	private final Condition changed;
+	/**
+	 * Rooms waiting for their next tick, the first one due at the head
+	 */
+	private final PriorityQueue<MatchRoom> queue;
+	/**
+	 * Every open room, queued or being ticked
+	 */
+	private final Set<MatchRoom> rooms;
+	/**
+	 * Number of ticks by how long after they were due they started, in
+	 * buckets of DELAY_BUCKET_NANOS
+	 */
+	private final long[] delays;
+	/**
+	 * Number given to the next room created
+	 */
+	private int nextId;
+	/**
+	 * Ticks run since the statistics were reset
+	 */
+	private long ticks;
+	/**
+	 * Ticks skipped since the statistics were reset
+	 */
+	private long skipped;
+	/**
+	 * Batches handed to the workers since the statistics were reset
+	 */
+	private long batches;
+	/**
+	 * Rooms finished since the host started
+	 */
+	private long finished;
+	/**
+	 * True until shutdown() is called
+	 */
+	private volatile boolean running;
+	/**
+	 * Creates a host and starts its threads
+	 * @param threads	number of worker threads
+	 * @param tps		number of ticks per second of every room
+	 */
+	public MatchHost( int threads, int tps ) {
+		periodNanos = 1000000000L / tps;
+		lock = new ReentrantLock();
+		changed = lock.newCondition();
+		queue = new PriorityQueue<>( Comparator.comparingLong( MatchRoom::getNextTick ) );
+		rooms = new HashSet<>();
+		delays = new long[DELAY_BUCKETS];
+		running = true;
+		AtomicInteger workerCount = new AtomicInteger();
+		workers = Executors.newFixedThreadPool( threads, r -> {
+			Thread t = new Thread( r, "match-worker-" + workerCount.incrementAndGet() );
+			t.setDaemon( true );
+			return t;
+		} );
+		scheduler = new Thread( this::schedule, "match-scheduler" );
+		scheduler.setDaemon( true );
+		scheduler.start();
+	}
+	/**
+	 * Opens a room with its first tick due straight away
+	 * @param world		the match
+	 * @param source	supplies the players' inputs
+	 * @param maxTicks	tick limit before the match is called off, or 0 for none
+	 * @return			the room, or null if the host has shut down
+	 */
+	public MatchRoom createRoom( GameWorld world, InputSource source, long maxTicks ) {
+		lock.lock();
+		try {
+			if ( !running ) {
+				return null;
+			}
+			MatchRoom room = new MatchRoom( nextId++, world, source, maxTicks );
+			room.setNextTick( System.nanoTime() );
+			rooms.add( room );
+			enqueue( room );
+			return room;
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Closes a room. A tick already running finishes, but no other starts.
+	 * @param room	the room
+	 */
+	public void closeRoom( MatchRoom room ) {
+		room.close();
+		lock.lock();
+		try {
+			// a room being ticked isn't queued; the worker drops it when done
+			if ( queue.remove( room ) ) {
+				retire( room );
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Waits for the first room in the queue to be due, then hands every due room
+	 * to the workers in batches, until the host shuts down
+	 */
+	private void schedule() {
+		lock.lock();
+		try {
+			while ( running ) {
+				MatchRoom head = queue.peek();
+				if ( head == null ) {
+					changed.await();
+					continue;
+				}
+				long wait = head.getNextTick() - System.nanoTime();
+				if ( wait > 0 ) {
+					changed.awaitNanos( wait );
+					continue;
+				}
+				MatchRoom[] batch = new MatchRoom[Math.min( BATCH_SIZE, queue.size() )];
+				int n = 0;
+				long now = System.nanoTime();
+				while ( n < batch.length && queue.peek().getNextTick() <= now ) {
+					batch[n++] = queue.poll();
+				}
+				int count = n;
+				batches++;
+				workers.execute( () -> runBatch( batch, count ) );
+			}
+		} catch (InterruptedException ie) {
+			// shutting down
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Ticks a batch of rooms, then puts each one back in the queue, or drops it
+	 * if it has finished. Runs on a worker thread.
+	 * @param batch		the rooms
+	 * @param count		number of rooms in the batch
+	 */
+	private void runBatch( MatchRoom[] batch, int count ) {
+		long[] starts = new long[count];
+		for ( int k = 0; k < count; k++ ) {
+			MatchRoom room = batch[k];
+			starts[k] = System.nanoTime();
+			if ( !room.isOver() ) {
+				try {
+					room.tick();
+				} catch (RuntimeException e) {
+					System.out.println("Room " + room.getId() + " failed: " + e);
+					room.close();
+				}
+			}
+		}
+		// one trip through the lock for the whole batch
+		lock.lock();
+		try {
+			long now = System.nanoTime();
+			for ( int k = 0; k < count; k++ ) {
+				reschedule( batch[k], starts[k], now );
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Records a room's tick and queues its next one, or drops the room if it
+	 * has finished. Only call while holding the lock.
+	 * @param room		the room, just ticked
+	 * @param start		time in nanoseconds the tick started
+	 * @param now		the current time in nanoseconds
+	 */
+	private void reschedule( MatchRoom room, long start, long now ) {
+		long delay = start - room.getNextTick();
+		delays[(int)Math.min( DELAY_BUCKETS - 1, Math.max( 0, delay ) / DELAY_BUCKET_NANOS )]++;
+		ticks++;
+		if ( room.isOver() || !running ) {
+			retire( room );
+			return;
+		}
+		long next = room.getNextTick() + periodNanos;
+		if ( now - next > MAX_CATCH_UP * periodNanos ) {
+			long missed = ( now - next ) / periodNanos;
+			skipped += missed;
+			next += missed * periodNanos;
+		}
+		room.setNextTick( next );
+		enqueue( room );
+	}
+	/**
+	 * Adds a room to the queue, waking the scheduler if it is now first.
+	 * Only call while holding the lock.
+	 * @param room		the room
+	 */
+	private void enqueue( MatchRoom room ) {
+		queue.add( room );
+		if ( queue.peek() == room ) {
+			changed.signal();
+		}
+	}
+	/**
+	 * Drops a finished room. Only call while holding the lock.
+	 * @param room		the room
+	 */
+	private void retire( MatchRoom room ) {
+		if ( rooms.remove( room ) ) {
+			finished++;
+		}
+		room.finish();
+	}
+	/**
+	 * Stops the scheduler and the workers, letting the ticks already running
+	 * finish, and waits for every thread to end
+	 * @param timeoutMillis		most milliseconds to wait for the workers
+	 * @return					true if every thread ended, false otherwise
+	 */
+	public boolean shutdown( long timeoutMillis ) {
+		lock.lock();
+		try {
+			running = false;
+			changed.signal();
+		} finally {
+			lock.unlock();
+		}
+		workers.shutdown();
+		try {
+			scheduler.join( timeoutMillis );
+			boolean done = workers.awaitTermination( timeoutMillis, TimeUnit.MILLISECONDS );
+			lock.lock();
+			try {
+				for ( MatchRoom room : rooms ) {
+					room.close();
+					room.finish();
+				}
+				finished += rooms.size();
+				rooms.clear();
+				queue.clear();
+			} finally {
+				lock.unlock();
+			}
+			return done && !scheduler.isAlive();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	/**
+	 * Clears the tick statistics, such as after a warm up
+	 */
+	public void resetStats() {
+		lock.lock();
+		try {
+			ticks = 0;
+			skipped = 0;
+			batches = 0;
+			for ( int b = 0; b < DELAY_BUCKETS; b++ ) {
+				delays[b] = 0;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns a percentile of the delay between the time ticks were due and
+	 * the time they started, since the statistics were reset
+	 * @param p		the percentile (0 to 100)
+	 * @return		delay in nanoseconds, rounded up to the histogram's resolution
+	 */
+	public long getDelayPercentile( double p ) {
+		lock.lock();
+		try {
+			long rank = (long)Math.ceil( ticks * p / 100 );
+			long seen = 0;
+			for ( int b = 0; b < DELAY_BUCKETS; b++ ) {
+				seen += delays[b];
+				if ( seen >= rank && seen > 0 ) {
+					return ( b + 1 ) * DELAY_BUCKET_NANOS;
+				}
+			}
+			return 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns the number of ticks run since the statistics were reset
+	 * @return		ticks run
+	 */
+	public long getTicks() {
+		lock.lock();
+		try {
+			return ticks;
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns the number of ticks skipped since the statistics were reset,
+	 * because their room had fallen too far behind
+	 * @return		ticks skipped
+	 */
+	public long getSkippedTicks() {
+		lock.lock();
+		try {
+			return skipped;
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns the number of batches handed to the workers since the statistics
+	 * were reset
+	 * @return		batches
+	 */
+	public long getBatches() {
+		lock.lock();
+		try {
+			return batches;
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns the number of rooms that have finished since the host started
+	 * @return		rooms finished
+	 */
+	public long getFinishedRooms() {
+		lock.lock();
+		try {
+			return finished;
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns the number of open rooms
+	 * @return		open rooms
+	 */
+	public int getRoomCount() {
+		lock.lock();
+		try {
+			return rooms.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns the number of nanoseconds between ticks of a room
+	 * @return		tick period in nanoseconds
+	 */
+	public long getPeriodNanos() {
+		return periodNanos;
+	}
+}
@@ -0,0 +1,148 @@
+package tanks;
+
+/**
+ * One match hosted by a MatchHost: a world, the source of its players' inputs
+ * and the time its next tick is due. A room has no thread of its own; the
+ * host's workers tick it, one tick at a time, and it ends once its match is
+ * over, it reaches its tick limit or it is closed.
+ * @author Nicholas Grant
+ *
+ */
+public class MatchRoom {
+	/**
+	 * Number the host gave the room
+	 */
+	private final int id;
+	/**
+	 * The match
+	 */
+	private final GameWorld world;
+	/**
+	 * Supplies the players' inputs
+	 */
+	private final InputSource source;
+	/**
+	 * Tick limit before the match is called off, or 0 for none
+	 */
+	private final long maxTicks;
+	/**
+	 * Each player's input, indexed by player slot
+	 */
+	private PlayerInput[] inputs;
+	/**
+	 * Time in nanoseconds the next tick is due; only touched by the host
+	 * while it holds its lock
+	 */
+	private long nextTick;
+	/**
+	 * True = the room has been closed and won't be ticked again
+	 */
+	private volatile boolean closed;
+	/**
+	 * True = the host has dropped the room
+	 */
+	private volatile boolean finished;
+	/**
+	 * Creates a room
+	 * @param i		number the host gave the room
+	 * @param w		the match
+	 * @param s		supplies the players' inputs
+	 * @param max	tick limit before the match is called off, or 0 for none
+	 */
+	public MatchRoom( int i, GameWorld w, InputSource s, long max ) {
+		id = i;
+		world = w;
+		source = s;
+		maxTicks = max;
+		inputs = new PlayerInput[0];
+		ensureInputs();
+	}
+	/**
+	 * Runs one tick: asks the source for the inputs, then steps the world
+	 */
+	public void tick() {
+		ensureInputs();
+		source.fill( world, inputs );
+		world.step( inputs );
+	}
+	/**
+	 * Grows the input array to one input per player
+	 */
+	private void ensureInputs() {
+		int n = world.getPlayers().size();
+		if ( inputs.length >= n ) {
+			return;
+		}
+		PlayerInput[] grown = new PlayerInput[n];
+		System.arraycopy( inputs, 0, grown, 0, inputs.length );
+		for ( int p = inputs.length; p < n; p++ ) {
+			grown[p] = new PlayerInput();
+		}
+		inputs = grown;
+	}
+	/**
+	 * Checks to see if the room is done: closed, its match over or its tick
+	 * limit reached. Only call from the thread ticking the room.
+	 * @return		true if the room shouldn't be ticked again, false otherwise
+	 */
+	boolean isOver() {
+		return closed || world.isGameOver() || world.isWin()
+				|| ( maxTicks > 0 && world.getTick() >= maxTicks );
+	}
+	/**
+	 * Checks to see if the host has dropped the room, once it was over or closed.
+	 * Safe to call from any thread.
+	 * @return		true if the room has finished, false otherwise
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+	/**
+	 * Records that the host has dropped the room
+	 */
+	void finish() {
+		finished = true;
+	}
+	/**
+	 * Closes the room; a tick already running finishes, but no other starts
+	 */
+	public void close() {
+		closed = true;
+	}
+	/**
+	 * Checks to see if the room has been closed
+	 * @return		true if closed, false otherwise
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+	/**
+	 * Returns the number the host gave the room
+	 * @return		room number
+	 */
+	public int getId() {
+		return id;
+	}
+	/**
+	 * Returns the room's world. Only read it from the source, or once
+	 * isFinished() is true, since a worker may be stepping it.
+	 * @return		the world
+	 */
+	public GameWorld getWorld() {
+		return world;
+	}
+	/**
+	 * Returns the time the next tick is due
+	 * @return		time in nanoseconds
+	 */
+	long getNextTick() {
+		return nextTick;
+	}
+	/**
+	 * Sets the time the next tick is due
+	 * @param t		time in nanoseconds
+	 */
+	void setNextTick( long t ) {
+		nextTick = t;
+	}
+}
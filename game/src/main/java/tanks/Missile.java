@@ -0,0 +1,169 @@
+package tanks;
+
+import java.awt.Color;
+
+/**
+ * Represents a generic missile object. A Missile is a handle onto one slot of
+ * a MissileStore, which holds the actual state. Handles are pooled with the
+ * store: once a missile hits something its handle is detached and is handed
+ * out again for a later shot, so firing doesn't allocate.
+ * @author Nicholas Grant
+ *
+ */
+public class Missile {
+	/**
+	 * Width and height of the missile's drawn representation
+	 */
+	public static final int SIZE = 2;
+	/**
+	 * The store holding the missile's state
+	 */
+	private final MissileStore store;
+	/**
+	 * The missile's slot in the store, or -1 while it isn't in flight
+	 */
+	private int index;
+	/**
+	 * Creates a pooled handle onto a store. Missiles are created by MissileStore.
+	 * @param s		the store holding the missile's state
+	 */
+	Missile( MissileStore s ) {
+		store = s;
+		index = -1;
+	}
+	/**
+	 * Moves the handle to a new slot when the store packs its slots
+	 * @param i		the missile's new slot, or -1 once recycled
+	 */
+	void setIndex( int i ) {
+		index = i;
+	}
+	/**
+	 * Returns the missile's slot in its store
+	 * @return		missile slot, or -1 while it isn't in flight
+	 */
+	public int getIndex() {
+		return index;
+	}
+	/**
+	 * Returns the store holding the missile's state
+	 * @return		the missile's store
+	 */
+	public MissileStore getStore() {
+		return store;
+	}
+	/**
+	 * Returns the missile's starting location's x-component
+	 * @return		missile starting x-component
+	 */
+	public int getStartX() {
+		return store.getStartX( index );
+	}
+	/**
+	 * Returns the missile's starting location's y-component
+	 * @return		missile starting y-component
+	 */
+	public int getStartY() {
+		return store.getStartY( index );
+	}
+	/**
+	 * Returns the missile's current location's x-component
+	 * @return		missile current x-component
+	 */
+	public double getX() {
+		return store.getX( index );
+	}
+	/**
+	 * Returns the missile's current location's y-component
+	 * @return		missile current y-component
+	 */
+	public double getY() {
+		return store.getY( index );
+	}
+	/**
+	 * Returns the missile's target location's x-component
+	 * @return		missile target x-component
+	 */
+	public int getTargetX() {
+		return store.getTargetX( index );
+	}
+	/**
+	 * Returns the missile's target location's y-component
+	 * @return		missile target y-component
+	 */
+	public int getTargetY() {
+		return store.getTargetY( index );
+	}
+	/**
+	 * Returns whether or not the missile is still moving
+	 * @return		whether missile is still moving or not
+	 */
+	public boolean isShot() {
+		return index >= 0;
+	}
+	/**
+	 * Returns the color of the missile
+	 * @return		missile color
+	 */
+	public Color getColor() {
+		return store.getColor( index );
+	}
+	/**
+	 * Returns the width of the missile's drawn representation
+	 * @return		missile width
+	 */
+	public int getWidth() {
+		return SIZE;
+	}
+	/**
+	 * Returns the height of the missile's drawn representation
+	 * @return		missile height
+	 */
+	public int getHeight() {
+		return SIZE;
+	}
+	/**
+	 * Returns the x-component of the missile's location before its last move
+	 * @return		previous x-component
+	 */
+	public double getPrevX() {
+		return store.getPrevX( index );
+	}
+	/**
+	 * Returns the y-component of the missile's location before its last move
+	 * @return		previous y-component
+	 */
+	public double getPrevY() {
+		return store.getPrevY( index );
+	}
+	/**
+	 * Returns the slot of the tank that fired the missile
+	 * @return		tank slot in its store, or -1 if the tank has been removed
+	 */
+	public int getOwner() {
+		return store.getOwner( index );
+	}
+	/**
+	 * Determines the change in x and y to get the missile
+	 * to the target location
+	 * @param x		target location's x-component
+	 * @param y		target location's y-component
+	 */
+	public void findMoveRate( int x, int y ) {
+		store.findMoveRate( index, x, y );
+	}
+	/**
+	 * Moves the missile based on the change in x and y values found
+	 * in findMoveRate()
+	 */
+	public void moveMissile() {
+		store.moveMissile( index );
+	}
+	/**
+	 * Once the missile has hit a tank or an obstacle, remove
+	 * the missile from the screen and return it to the pool.
+	 */
+	public void reset() {
+		store.remove( index );
+	}
+}
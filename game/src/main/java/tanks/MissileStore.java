@@ -0,0 +1,424 @@
+package tanks;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * Pool of the missiles fired by the tanks of one TankStore, kept in parallel
+ * primitive arrays of a fixed capacity. Missiles in flight fill the first
+ * slots; when a missile hits something the last missile is moved into its
+ * slot, so every missile in flight is moved by one loop over the front of the
+ * arrays and a spent slot is simply reused by the next shot. Missile objects
+ * are pooled handles onto a slot, created with the pool, so firing and
+ * recycling missiles doesn't allocate. The pool only grows when tanks are
+ * added; a shot fired while the pool is full is refused.
+ * @author Nicholas Grant
+ *
+ */
+public class MissileStore {
+	/**
+	 * Fraction of a move a missile is pushed past the edge of a wall it runs into
+	 */
+	private static final double WALL_NUDGE = 1e-4;
+	/**
+	 * The shared game map the missiles fly over
+	 */
+	private final GameMap map;
+	/**
+	 * Number of missiles in flight
+	 */
+	private int count;
+	/**
+	 * Pooled handles onto each slot
+	 */
+	private Missile[] handles;
+	/**
+	 * Slot of each missile's tank in its store, or -1 once the tank is removed
+	 */
+	private int[] owner;
+	/**
+	 * Missile x-components, kept to a fraction of a pixel
+	 */
+	private double[] x;
+	/**
+	 * Missile y-components, kept to a fraction of a pixel
+	 */
+	private double[] y;
+	/**
+	 * Missile x-components before their last move
+	 */
+	private double[] prevX;
+	/**
+	 * Missile y-components before their last move
+	 */
+	private double[] prevY;
+	/**
+	 * Missile start x-components
+	 */
+	private int[] startX;
+	/**
+	 * Missile start y-components
+	 */
+	private int[] startY;
+	/**
+	 * Missile target x-components
+	 */
+	private int[] targetX;
+	/**
+	 * Missile target y-components
+	 */
+	private int[] targetY;
+	/**
+	 * Change in each missile's x-component per move
+	 */
+	private double[] stepX;
+	/**
+	 * Change in each missile's y-component per move
+	 */
+	private double[] stepY;
+	/**
+	 * Missile speeds
+	 */
+	private int[] move;
+	/**
+	 * Missile colors
+	 */
+	private Color[] color;
+	/**
+	 * Number of missiles in flight per tank, indexed by the tank's slot
+	 */
+	private int[] inFlight;
+	/**
+	 * True = missiles that run into a brick wear it down
+	 */
+	private boolean damaging;
+	/**
+	 * Creates an empty pool
+	 * @param m			the shared game map the missiles fly over
+	 * @param capacity	number of missiles the pool can hold
+	 */
+	public MissileStore( GameMap m, int capacity ) {
+		map = m;
+		damaging = true;
+		inFlight = new int[0];
+		handles = new Missile[0];
+		ensureCapacity( capacity );
+	}
+	/**
+	 * Grows the pool to hold at least the given number of missiles
+	 * @param n		number of missiles
+	 */
+	public void ensureCapacity( int n ) {
+		if ( n <= handles.length ) {
+			return;
+		}
+		int size = Math.max( n, handles.length * 2 );
+		int old = handles.length;
+		handles = Arrays.copyOf( handles, size );
+		for ( int m = old; m < size; m++ ) {
+			handles[m] = new Missile( this );
+		}
+		owner = ( owner == null ) ? new int[size] : Arrays.copyOf( owner, size );
+		x = ( x == null ) ? new double[size] : Arrays.copyOf( x, size );
+		y = ( y == null ) ? new double[size] : Arrays.copyOf( y, size );
+		prevX = ( prevX == null ) ? new double[size] : Arrays.copyOf( prevX, size );
+		prevY = ( prevY == null ) ? new double[size] : Arrays.copyOf( prevY, size );
+		startX = ( startX == null ) ? new int[size] : Arrays.copyOf( startX, size );
+		startY = ( startY == null ) ? new int[size] : Arrays.copyOf( startY, size );
+		targetX = ( targetX == null ) ? new int[size] : Arrays.copyOf( targetX, size );
+		targetY = ( targetY == null ) ? new int[size] : Arrays.copyOf( targetY, size );
+		stepX = ( stepX == null ) ? new double[size] : Arrays.copyOf( stepX, size );
+		stepY = ( stepY == null ) ? new double[size] : Arrays.copyOf( stepY, size );
+		move = ( move == null ) ? new int[size] : Arrays.copyOf( move, size );
+		color = ( color == null ) ? new Color[size] : Arrays.copyOf( color, size );
+	}
+	/**
+	 * Grows the per-tank missile counts to cover the given number of tank slots
+	 * @param n		number of tank slots
+	 */
+	void ensureOwners( int n ) {
+		if ( n > inFlight.length ) {
+			inFlight = Arrays.copyOf( inFlight, Math.max( n, inFlight.length * 2 ) );
+		}
+	}
+	/**
+	 * Launches a missile from a start location toward a target
+	 * @param tank		slot of the firing tank in its store
+	 * @param fromX		start location's x-component
+	 * @param fromY		start location's y-component
+	 * @param toX		target location's x-component
+	 * @param toY		target location's y-component
+	 * @param speed		missile's distance per tick
+	 * @param c			missile color
+	 * @return			slot of the new missile, or -1 if the pool is full
+	 */
+	public int launch( int tank, int fromX, int fromY, int toX, int toY, int speed, Color c ) {
+		if ( count == handles.length ) {
+			return -1;
+		}
+		int m = count++;
+		owner[m] = tank;
+		startX[m] = fromX;
+		startY[m] = fromY;
+		x[m] = prevX[m] = fromX;
+		y[m] = prevY[m] = fromY;
+		targetX[m] = toX;
+		targetY[m] = toY;
+		move[m] = speed;
+		color[m] = c;
+		findMoveRate( m, toX, toY );
+		handles[m].setIndex( m );
+		inFlight[tank]++;
+		return m;
+	}
+	/**
+	 * Recycles a missile, moving the last missile into its slot. The removed
+	 * missile's handle is detached and goes back to the pool.
+	 * @param m		slot of the missile to remove
+	 */
+	public void remove( int m ) {
+		if ( owner[m] >= 0 ) {
+			inFlight[owner[m]]--;
+		}
+		int last = --count;
+		Missile spent = handles[m];
+		spent.setIndex( -1 );
+		if ( m != last ) {
+			owner[m] = owner[last];
+			x[m] = x[last];
+			y[m] = y[last];
+			prevX[m] = prevX[last];
+			prevY[m] = prevY[last];
+			startX[m] = startX[last];
+			startY[m] = startY[last];
+			targetX[m] = targetX[last];
+			targetY[m] = targetY[last];
+			stepX[m] = stepX[last];
+			stepY[m] = stepY[last];
+			move[m] = move[last];
+			color[m] = color[last];
+			handles[m] = handles[last];
+			handles[m].setIndex( m );
+			handles[last] = spent;
+		}
+		color[last] = null;
+	}
+	/**
+	 * Recycles every missile in flight
+	 */
+	public void clear() {
+		while ( count > 0 ) {
+			remove( count - 1 );
+		}
+	}
+	/**
+	 * Follows the tanks of the store as one is removed and the last tank moves
+	 * into its slot. Missiles of the removed tank keep flying without an owner.
+	 * @param t			slot of the removed tank
+	 * @param last		slot of the tank moved into it
+	 */
+	void ownerRemoved( int t, int last ) {
+		for ( int m = 0; m < count; m++ ) {
+			if ( owner[m] == t ) {
+				owner[m] = -1;
+			}
+			else if ( owner[m] == last ) {
+				owner[m] = t;
+			}
+		}
+		inFlight[t] = inFlight[last];
+		inFlight[last] = 0;
+	}
+	/**
+	 * Advances every missile by one simulation tick, recycling the missiles
+	 * that have run into an obstacle or left the map. A missile that ran into
+	 * a brick wears it down. Tiles outside the map aren't walls, so on a map
+	 * without a solid border nothing else would stop a missile that left it.
+	 */
+	public void updateAll() {
+		int m = 0;
+		while ( m < count ) {
+			if ( map.hitsObstacle( x[m], y[m] ) ) {
+				if ( damaging ) {
+					map.damage( x[m], y[m] );
+				}
+				// the last missile moves into this slot and is updated next
+				remove( m );
+				continue;
+			}
+			if ( !map.contains( x[m], y[m] ) ) {
+				remove( m );
+				continue;
+			}
+			moveMissile( m );
+			m++;
+		}
+	}
+	/**
+	 * Determines the change in x and y to get a missile from its start
+	 * location to the target location
+	 * @param m		missile slot
+	 * @param tx	target location's x-component
+	 * @param ty	target location's y-component
+	 */
+	public void findMoveRate( int m, int tx, int ty ) {
+		int dx = tx - startX[m];
+		int dy = ty - startY[m];
+		double magnitude = Math.sqrt( (double)dx * dx + (double)dy * dy );
+		if ( magnitude == 0 ) {
+			stepX[m] = stepY[m] = 0;
+			return;
+		}
+		stepX[m] = ( dx * move[m] ) / magnitude;
+		stepY[m] = ( dy * move[m] ) / magnitude;
+	}
+	/**
+	 * Moves a missile by the change in x and y found in findMoveRate(). The path
+	 * of the move is traced through the map, so a missile fast enough to jump
+	 * over a wall in one move stops where it enters the wall instead of passing
+	 * through it. The stopped missile is inside the wall, so the next update
+	 * recycles it.
+	 * @param m		missile slot
+	 */
+	public void moveMissile( int m ) {
+		double fromX = prevX[m] = x[m];
+		double fromY = prevY[m] = y[m];
+		double toX = fromX + stepX[m];
+		double toY = fromY + stepY[m];
+		double t = map.findWallHit( fromX, fromY, toX, toY );
+		if ( t <= 1 ) {
+			// nudge just past the wall's edge so the stopped missile is inside it
+			t += WALL_NUDGE;
+			toX = fromX + stepX[m] * t;
+			toY = fromY + stepY[m] * t;
+		}
+		x[m] = toX;
+		y[m] = toY;
+	}
+	/**
+	 * Sets whether missiles that run into a brick wear it down. Predicted
+	 * missiles don't, since the map's bricks are the server's to change.
+	 * @param b		true to wear bricks down, false to only stop at them
+	 */
+	public void setDamaging( boolean b ) {
+		damaging = b;
+	}
+	/**
+	 * Returns the number of missiles in flight
+	 * @return		missile count
+	 */
+	public int size() {
+		return count;
+	}
+	/**
+	 * Returns the number of missiles the pool can hold
+	 * @return		pool capacity
+	 */
+	public int getCapacity() {
+		return handles.length;
+	}
+	/**
+	 * Returns the handle onto a missile
+	 * @param m		missile slot
+	 * @return		the missile's handle
+	 */
+	public Missile get( int m ) {
+		return handles[m];
+	}
+	/**
+	 * Returns the number of missiles a tank has in flight
+	 * @param tank	slot of the tank in its store
+	 * @return		missiles in flight
+	 */
+	public int getInFlight( int tank ) {
+		return inFlight[tank];
+	}
+	/**
+	 * Returns the slot of a missile's tank in its store
+	 * @param m		missile slot
+	 * @return		tank slot, or -1 if the tank has been removed
+	 */
+	public int getOwner( int m ) {
+		return owner[m];
+	}
+	/**
+	 * Returns a missile's x-component
+	 * @param m		missile slot
+	 * @return		missile x-component
+	 */
+	public double getX( int m ) {
+		return x[m];
+	}
+	/**
+	 * Returns a missile's y-component
+	 * @param m		missile slot
+	 * @return		missile y-component
+	 */
+	public double getY( int m ) {
+		return y[m];
+	}
+	/**
+	 * Returns a missile's x-component before its last move
+	 * @param m		missile slot
+	 * @return		previous missile x-component
+	 */
+	public double getPrevX( int m ) {
+		return prevX[m];
+	}
+	/**
+	 * Returns a missile's y-component before its last move
+	 * @param m		missile slot
+	 * @return		previous missile y-component
+	 */
+	public double getPrevY( int m ) {
+		return prevY[m];
+	}
+	/**
+	 * Returns a missile's start x-component
+	 * @param m		missile slot
+	 * @return		missile start x-component
+	 */
+	public int getStartX( int m ) {
+		return startX[m];
+	}
+	/**
+	 * Returns a missile's start y-component
+	 * @param m		missile slot
+	 * @return		missile start y-component
+	 */
+	public int getStartY( int m ) {
+		return startY[m];
+	}
+	/**
+	 * Returns a missile's target x-component
+	 * @param m		missile slot
+	 * @return		missile target x-component
+	 */
+	public int getTargetX( int m ) {
+		return targetX[m];
+	}
+	/**
+	 * Returns a missile's target y-component
+	 * @param m		missile slot
+	 * @return		missile target y-component
+	 */
+	public int getTargetY( int m ) {
+		return targetY[m];
+	}
+	/**
+	 * Returns a missile's speed
+	 * @param m		missile slot
+	 * @return		missile speed
+	 */
+	public int getMove( int m ) {
+		return move[m];
+	}
+	/**
+	 * Returns a missile's color
+	 * @param m		missile slot
+	 * @return		missile color
+	 */
+	public Color getColor( int m ) {
+		return color[m];
+	}
+}
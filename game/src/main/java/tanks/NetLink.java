@@ -0,0 +1,267 @@
+package tanks;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Random;
+
+/**
+ * One end of a UDP connection, used by GameServer and GameClient. Packets are
+ * sent and received through a non-blocking DatagramChannel, so neither end
+ * ever waits on the network.
+ *
+ * A link can simulate a poor network for testing on loopback: each packet
+ * sent is dropped with the set probability, and the rest are held back for
+ * the set latency, plus up to the set jitter, before they really go out.
+ * Held packets keep their order. The held packets are copied into buffers
+ * that are reused, so a steady stream of packets doesn't allocate.
+ * @author Nicholas Grant
+ *
+ */
+public class NetLink {
+	/**
+	 * Largest packet a link sends or receives
+	 */
+	public static final int MAX_PACKET = 65507;
+	/**
+	 * The socket
+	 */
+	private final DatagramChannel channel;
+	/**
+	 * Picks which packets are dropped and how late each one is
+	 */
+	private final Random rand;
+	/**
+	 * Milliseconds each sent packet is held back
+	 */
+	private int latency;
+	/**
+	 * Most extra milliseconds a sent packet can be held back
+	 */
+	private int jitter;
+	/**
+	 * Chance that a sent packet is dropped (0 to 1)
+	 */
+	private double loss;
+	/**
+	 * Contents of the held packets, used as a ring
+	 */
+	private ByteBuffer[] held;
+	/**
+	 * Address each held packet is sent to
+	 */
+	private SocketAddress[] heldTo;
+	/**
+	 * Time in milliseconds each held packet goes out at
+	 */
+	private long[] heldUntil;
+	/**
+	 * Ring index of the oldest held packet
+	 */
+	private int head;
+	/**
+	 * Number of held packets
+	 */
+	private int heldCount;
+	/**
+	 * Bytes handed to send(), including dropped packets
+	 */
+	private long bytesSent;
+	/**
+	 * Packets handed to send()
+	 */
+	private long packetsSent;
+	/**
+	 * Packets dropped by the simulated loss
+	 */
+	private long packetsDropped;
+	/**
+	 * Bytes received
+	 */
+	private long bytesReceived;
+	/**
+	 * Creates a link on an open channel, with a perfect network
+	 * @param c		the channel, which is switched to non-blocking mode
+	 * @param seed	seed for the simulated loss and jitter
+	 * @throws IOException	if the channel can't be switched to non-blocking mode
+	 */
+	public NetLink( DatagramChannel c, long seed ) throws IOException {
+		channel = c;
+		channel.configureBlocking( false );
+		rand = new Random( seed );
+		held = new ByteBuffer[0];
+		heldTo = new SocketAddress[0];
+		heldUntil = new long[0];
+	}
+	/**
+	 * Sets the simulated network conditions of packets sent from now on
+	 * @param l		milliseconds each packet is held back
+	 * @param j		most extra milliseconds a packet can be held back
+	 * @param p		chance that a packet is dropped (0 to 1)
+	 */
+	public void setConditions( int l, int j, double p ) {
+		latency = l;
+		jitter = j;
+		loss = p;
+	}
+	/**
+	 * Sends a packet, or holds it back if a latency is set
+	 * @param packet	the packet, from its position to its limit
+	 * @param to		address of the other end
+	 * @param now		the current time in milliseconds
+	 */
+	public void send( ByteBuffer packet, SocketAddress to, long now ) {
+		packetsSent++;
+		bytesSent += packet.remaining();
+		if ( loss > 0 && rand.nextDouble() < loss ) {
+			packetsDropped++;
+			return;
+		}
+		if ( latency == 0 && jitter == 0 && heldCount == 0 ) {
+			transmit( packet, to );
+			return;
+		}
+		if ( heldCount == held.length ) {
+			growHeld();
+		}
+		int slot = ( head + heldCount ) % held.length;
+		long until = now + latency + ( ( jitter > 0 ) ? rand.nextInt( jitter + 1 ) : 0 );
+		if ( heldCount > 0 ) {
+			// never overtake the packet held before this one
+			until = Math.max( until, heldUntil[( slot + held.length - 1 ) % held.length] );
+		}
+		ByteBuffer copy = held[slot];
+		if ( copy == null || copy.capacity() < packet.remaining() ) {
+			copy = held[slot] = ByteBuffer.allocate( Math.max( packet.remaining(), 512 ) );
+		}
+		copy.clear();
+		copy.put( packet );
+		copy.flip();
+		heldTo[slot] = to;
+		heldUntil[slot] = until;
+		heldCount++;
+	}
+	/**
+	 * Sends the held packets whose time has come
+	 * @param now	the current time in milliseconds
+	 */
+	public void flush( long now ) {
+		while ( heldCount > 0 && heldUntil[head] <= now ) {
+			transmit( held[head], heldTo[head] );
+			heldTo[head] = null;
+			head = ( head + 1 ) % held.length;
+			heldCount--;
+		}
+	}
+	/**
+	 * Receives the next waiting packet, if there is one
+	 * @param in	buffer the packet is read into; flipped, ready to read
+	 * @return		address of the sender, or null if no packet was waiting
+	 */
+	public SocketAddress receive( ByteBuffer in ) {
+		in.clear();
+		try {
+			SocketAddress from = channel.receive( in );
+			in.flip();
+			if ( from != null ) {
+				bytesReceived += in.remaining();
+			}
+			return from;
+		} catch (IOException e) {
+			// an ICMP error from a peer that has gone away; treat it as no packet
+			in.limit( 0 );
+			return null;
+		}
+	}
+	/**
+	 * Writes one packet to the socket
+	 * @param packet	the packet
+	 * @param to		address of the other end
+	 */
+	private void transmit( ByteBuffer packet, SocketAddress to ) {
+		try {
+			channel.send( packet, to );
+		} catch (IOException e) {
+			System.out.println("Could not send packet.");
+		}
+	}
+	/**
+	 * Doubles the room for held packets, keeping them in order
+	 */
+	private void growHeld() {
+		int size = Math.max( 16, held.length * 2 );
+		ByteBuffer[] h = new ByteBuffer[size];
+		SocketAddress[] to = new SocketAddress[size];
+		long[] until = new long[size];
+		for ( int k = 0; k < heldCount; k++ ) {
+			int from = ( head + k ) % held.length;
+			h[k] = held[from];
+			to[k] = heldTo[from];
+			until[k] = heldUntil[from];
+		}
+		for ( int k = heldCount; k < held.length; k++ ) {
+			h[k] = held[( head + k ) % held.length];
+		}
+		held = h;
+		heldTo = to;
+		heldUntil = until;
+		head = 0;
+	}
+	/**
+	 * Closes the socket
+	 */
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			System.out.println("Could not close socket.");
+		}
+	}
+	/**
+	 * Returns the channel the link sends and receives on
+	 * @return		the channel
+	 */
+	public DatagramChannel getChannel() {
+		return channel;
+	}
+	/**
+	 * Returns the local address of the socket
+	 * @return		local address, or null if it can't be read
+	 */
+	public SocketAddress getLocalAddress() {
+		try {
+			return channel.getLocalAddress();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+	/**
+	 * Returns the number of bytes handed to send(), including dropped packets
+	 * @return		bytes sent
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+	/**
+	 * Returns the number of packets handed to send()
+	 * @return		packets sent
+	 */
+	public long getPacketsSent() {
+		return packetsSent;
+	}
+	/**
+	 * Returns the number of packets dropped by the simulated loss
+	 * @return		packets dropped
+	 */
+	public long getPacketsDropped() {
+		return packetsDropped;
+	}
+	/**
+	 * Returns the number of bytes received
+	 * @return		bytes received
+	 */
+	public long getBytesReceived() {
+		return bytesReceived;
+	}
+}
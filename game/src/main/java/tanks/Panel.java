@@ -0,0 +1,732 @@
+package tanks;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Toolkit;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Panel runs the game loop, turns keyboard and mouse events into player input
+ * for the GameWorld, and actively renders the world to the frame through a
+ * BufferStrategy. The game thread is the only thread that touches the world;
+ * after each tick it publishes a copy of the world through a FrameBuffer, and
+ * rendering only reads that copy. The view scrolls with the player on maps
+ * larger than the window, and only the tiles, tanks and missiles in view are
+ * drawn, so a frame costs the same on any size of map.
+ * @author Nicholas Grant
+ *
+ */
+public class Panel extends Canvas implements Runnable, KeyListener, MouseListener,
+MouseMotionListener {
+	/**
+	 * Number of simulation ticks per second used when none is given.
+	 */
+	public static final int DEFAULT_TICKS_PER_SECOND = 20;
+	/**
+	 * Name of the map file loaded when none is given.
+	 */
+	public static final String DEFAULT_MAP = "map1.txt";
+	/**
+	 * Longest stretch of real time (in nanoseconds) simulated in one pass of the
+	 * game loop, so a long stall doesn't trigger an endless burst of catch-up ticks.
+	 */
+	private static final long MAX_FRAME_NANOS = 250000000L;
+	/**
+	 * Upper bound on the time (in milliseconds) the game loop sleeps between frames.
+	 */
+	private static final long FRAME_MILLIS = 16;
+	/**
+	 * Font of the lives counter and the end of game messages.
+	 */
+	private static final Font MESSAGE_FONT = new Font( Font.DIALOG, Font.PLAIN, 18 );
+	/**
+	 * Font of the frame rate overlay.
+	 */
+	private static final Font STATS_FONT = new Font( Font.MONOSPACED, Font.PLAIN, 12 );
+	/**
+	 * Brick colors by the number of hits the brick can still take.
+	 */
+	private static final Color[] BRICK_COLORS = { Color.BLACK, new Color( 120, 50, 20 ),
+			new Color( 170, 75, 30 ), new Color( 220, 100, 40 ) };
+	/**
+	 * Value of pendingFire when no shot is waiting.
+	 */
+	private static final long NO_FIRE = Long.MIN_VALUE;
+	/**
+	 * Nanoseconds between rebuilds of the frame rate overlay's text.
+	 */
+	private static final long STATS_REFRESH_NANOS = 250_000_000L;
+	/**
+	 * Thread used to continuously run the game.
+	 */
+	private Thread t;
+	/**
+	 * The game state and rules. Only touched by the game thread once it has started.
+	 */
+	private GameWorld world;
+	/**
+	 * Hands finished frames from the game thread to the renderer.
+	 */
+	private FrameBuffer frames;
+	/**
+	 * Number of simulation ticks per second.
+	 */
+	private int ticksPerSecond;
+	/**
+	 * The tiles around the view pre-rendered, so walls aren't redrawn tile by
+	 * tile every frame. The layer covers the view plus one tile on each side and
+	 * is only redrawn when the view scrolls onto another tile.
+	 */
+	private VolatileImage mapLayer;
+	/**
+	 * The map the cached map layer was drawn from.
+	 */
+	private GameMap mapLayerSource;
+	/**
+	 * Number of the map's logged brick hits already drawn into the cached map layer.
+	 */
+	private int mapLayerChanges;
+	/**
+	 * Map row of the top tile of the cached map layer.
+	 */
+	private int mapLayerRow;
+	/**
+	 * Map column of the left tile of the cached map layer.
+	 */
+	private int mapLayerCol;
+	/**
+	 * The part of the map in view. Only touched by the game thread.
+	 */
+	private Camera camera;
+	/**
+	 * Measures the rendered frames.
+	 */
+	private FrameTimer timer;
+	/**
+	 * True = the frame rate overlay is shown (toggled with F3, hidden at first)
+	 */
+	private volatile boolean showStats;
+	/**
+	 * Lines of the frame rate overlay, rebuilt every STATS_REFRESH_NANOS so the
+	 * frames in between draw without formatting. A null line isn't drawn.
+	 * Only touched by the game thread.
+	 */
+	private String[] statsLines;
+	/**
+	 * System.nanoTime() when statsLines was last rebuilt.
+	 */
+	private long statsBuilt;
+	/**
+	 * The player's input handed to the world each tick.
+	 */
+	private PlayerInput input;
+	/**
+	 * Remembers the movement keys currently being pressed, one bit per key.
+	 * Only touched by the Event Dispatch Thread.
+	 */
+	private int pressed;
+	/**
+	 * Direction chosen from the keys currently being pressed.
+	 */
+	private volatile int direction;
+	/**
+	 * Represents the location of the mouse, packed by pack() so both components
+	 * are read and written together.
+	 */
+	private volatile long mouseLoc;
+	/**
+	 * Target of the missile the player clicked to fire, packed by pack() and
+	 * taken by the next tick. NO_FIRE when no shot is waiting.
+	 */
+	private AtomicLong pendingFire;
+	/**
+	 * Records every tick's input to a replay file, or null when not recording.
+	 */
+	private ReplayRecorder recorder;
+	/**
+	 * Panel constructor, initializes game board and all elements necessary.
+	 * @param d		difficulty level
+	 */
+	public Panel( int d ) {
+		this( d, DEFAULT_TICKS_PER_SECOND, GameMap.load( DEFAULT_MAP ) );
+	}
+	/**
+	 * Panel constructor, initializes game board and all elements necessary.
+	 * @param d		difficulty level
+	 * @param tps	number of simulation ticks per second
+	 * @param m		game map shared by the world and every tank
+	 */
+	public Panel( int d, int tps, GameMap m ) {
+		this( new GameWorld( d, m ), tps );
+	}
+	/**
+	 * Panel constructor for a world that has already been set up.
+	 * @param w		the world to run
+	 * @param tps	number of simulation ticks per second
+	 */
+	public Panel( GameWorld w, int tps ) {
+		this( w, tps, null );
+	}
+	/**
+	 * Panel constructor for a world that has already been set up, recording
+	 * the match to a replay.
+	 * @param w		the world to run
+	 * @param tps	number of simulation ticks per second
+	 * @param r		records the player's input, or null to not record
+	 */
+	public Panel( GameWorld w, int tps, ReplayRecorder r ) {
+		ticksPerSecond = tps;
+		recorder = r;
+		world = w;
+		frames = new FrameBuffer();
+		frames.getBack().copyFrom( world );
+		frames.publish();
+		input = new PlayerInput();
+		pendingFire = new AtomicLong( NO_FIRE );
+		pressed = 0;
+		timer = new FrameTimer();
+		camera = new Camera( 0, 0 );
+		showStats = false;
+		statsLines = new String[3];
+		statsBuilt = System.nanoTime() - STATS_REFRESH_NANOS;
+		setBackground( Color.BLACK );
+		setIgnoreRepaint( true );
+		t = new Thread(this);
+		mouseLoc = pack( 400, 400 );
+		addMouseMotionListener(this);
+		addKeyListener(this);
+		addMouseListener(this);
+		setFocusable(true);
+		t.start();
+	}
+	/**
+	 * Renders one frame into the back buffer and shows it. Draws the cached map
+	 * layer, the player tank, enemy tanks and missiles, and the number of lives
+	 * the player has. If the player loses, "Game over!" is displayed at the top.
+	 * Otherwise, "You win!" is displayed. Rendering only reads the latest frame published
+	 * by update(), never the world itself. The camera follows the player first,
+	 * and tanks and missiles out of view are skipped. The frame is timed by the
+	 * world's profiler, if it has one.
+	 * @param a		fraction of a tick elapsed since the last update (0 to 1)
+	 */
+	public void render( double a ) {
+		if ( !isDisplayable() ) {
+			return;
+		}
+		BufferStrategy strategy = getBufferStrategy();
+		if ( strategy == null ) {
+			createBufferStrategy( 2 );
+			return;
+		}
+		long start = System.nanoTime();
+		TickProfiler profiler = world.getProfiler();
+		if ( profiler != null ) {
+			profiler.beginFrame( start );
+		}
+		FrameState frame = frames.read();
+		followPlayer( frame, a );
+		int margin = GameMap.TILE_SIZE;
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+				g.setColor( Color.BLACK );
+				g.fillRect( 0, 0, getWidth(), getHeight() );
+				g.translate( -camera.getX(), -camera.getY() );
+				drawMap( g, frame );
+				for ( int i = 0; i < frame.getTankCount(); i++ ) {
+					if ( camera.isVisible( frame.getX( i ), frame.getY( i ), margin ) ) {
+						drawTank( g, frame, i, a );
+					}
+				}
+				for ( int m = 0; m < frame.getMissileCount(); m++ ) {
+					if ( camera.isVisible( frame.getMissileX( m ), frame.getMissileY( m ), margin ) ) {
+						drawMissile( g, frame, m, a );
+					}
+				}
+				g.translate( camera.getX(), camera.getY() );
+				if ( frame.getPlayerLives() > 0 ) {
+					drawLives( g, frame.getPlayerLives() );
+				}
+				g.setFont( MESSAGE_FONT );
+				if ( frame.isGameOver() ) {
+					g.setColor( Color.RED );
+					g.drawString( "Game over!", 385, 50);
+				}
+				if ( frame.isWin() ) {
+					g.setColor( Color.RED );
+					g.drawString( "You win!", 390, 50);
+				}
+				if ( showStats ) {
+					drawStats( g );
+				}
+				g.dispose();
+			} while ( strategy.contentsRestored() );
+			strategy.show();
+		} while ( strategy.contentsLost() );
+		Toolkit.getDefaultToolkit().sync();
+		long end = System.nanoTime();
+		timer.record( start, end );
+		if ( profiler != null ) {
+			profiler.endFrame( end );
+		}
+	}
+	/**
+	 * Centers the camera on the player where it is drawn this frame. While the
+	 * player is dead the camera stays where it was.
+	 * @param frame	the frame being drawn
+	 * @param a		fraction of a tick elapsed since the last update (0 to 1)
+	 */
+	public void followPlayer( FrameState frame, double a ) {
+		GameMap map = frame.getMap();
+		int x = camera.getX() + camera.getWidth() / 2;
+		int y = camera.getY() + camera.getHeight() / 2;
+		if ( frame.getPlayerLives() > 0 && frame.getTankCount() > 0 ) {
+			x = (int)( frame.getPrevX( 0 ) + ( frame.getX( 0 ) - frame.getPrevX( 0 ) ) * a );
+			y = (int)( frame.getPrevY( 0 ) + ( frame.getY( 0 ) - frame.getPrevY( 0 ) ) * a );
+		}
+		camera.follow( x, y, getWidth(), getHeight(),
+				map.getWidth() * GameMap.TILE_SIZE, map.getHeight() * GameMap.TILE_SIZE );
+	}
+	/**
+	 * Draws the frame rate and frame times in the top left corner, and the
+	 * tick times if the world is profiled. The text is rebuilt a few times a
+	 * second rather than formatted every frame.
+	 * @param g		the Graphics object necessary to paint to the frame
+	 */
+	public void drawStats( Graphics g ) {
+		long now = System.nanoTime();
+		if ( now - statsBuilt >= STATS_REFRESH_NANOS ) {
+			statsBuilt = now;
+			statsLines[0] = String.format( "FPS: %.1f", timer.getFps() );
+			statsLines[1] = String.format( "Frame: %.2f ms avg, %.2f ms max",
+					timer.getAverageMillis(), timer.getMaxMillis() );
+			TickProfiler profiler = world.getProfiler();
+			statsLines[2] = ( profiler == null ) ? null
+					: String.format( "Tick: %.0f us p50, %.0f us p99, %.0f us p99.9",
+							profiler.getTickP50Micros(), profiler.getTickP99Micros(),
+							profiler.getTickP999Micros() );
+		}
+		g.setFont( STATS_FONT );
+		g.setColor( Color.GREEN );
+		for ( int i = 0; i < statsLines.length; i++ ) {
+			if ( statsLines[i] != null ) {
+				g.drawString( statsLines[i], 5, 15 + i * 15 );
+			}
+		}
+	}
+	/**
+	 * Draws a tank and its barrel between the tank's previous and current
+	 * positions.
+	 * @param g		the Graphics object necessary to paint to the frame
+	 * @param frame	the frame holding the tank
+	 * @param i		index of the tank in the frame
+	 * @param a		fraction of a tick elapsed since the last update (0 to 1)
+	 */
+	public void drawTank( Graphics g, FrameState frame, int i, double a ) {
+		int x = (int)( frame.getPrevX( i ) + ( frame.getX( i ) - frame.getPrevX( i ) ) * a );
+		int y = (int)( frame.getPrevY( i ) + ( frame.getY( i ) - frame.getPrevY( i ) ) * a );
+		int w = frame.getWidth( i );
+		int h = frame.getHeight( i );
+		g.setColor( frame.getColor( i ) );
+		g.fillRect( x - (w/2), y - (h/2), w, h );
+		int barrelX = x + frame.getBarrelX( i ) - frame.getX( i );
+		int barrelY = y + frame.getBarrelY( i ) - frame.getY( i );
+		g.drawLine( barrelX, barrelY, x, y );
+	}
+	/**
+	 * Draws a missile between its previous and current positions.
+	 * @param g		the Graphics object necessary to paint to the frame
+	 * @param frame	the frame holding the missile
+	 * @param m		index of the missile in the frame
+	 * @param a		fraction of a tick elapsed since the last update (0 to 1)
+	 */
+	public void drawMissile( Graphics g, FrameState frame, int m, double a ) {
+		int mx = (int)( frame.getMissilePrevX( m ) + ( frame.getMissileX( m ) - frame.getMissilePrevX( m ) ) * a );
+		int my = (int)( frame.getMissilePrevY( m ) + ( frame.getMissileY( m ) - frame.getMissilePrevY( m ) ) * a );
+		g.setColor( frame.getMissileColor( m ) );
+		g.fillRect( mx, my, Missile.SIZE, Missile.SIZE );
+	}
+	/**
+	 * Draws the tank's number of lives to the frame
+	 * @param g		the Graphics object necessary to paint to the frame
+	 * @param lives	number of lives to draw
+	 */
+	public void drawLives( Graphics g, int lives ) {
+		g.setColor( Color.RED );
+		g.setFont( MESSAGE_FONT );
+		g.drawString("Lives: "+lives, 390, 25);
+	}
+	/**
+	 * Draws the tiles in view to the frame from the cached map layer. The layer
+	 * is rebuilt first if the map was replaced or the view scrolled onto another
+	 * tile since it was last drawn; otherwise only the bricks hit since the last
+	 * frame are redrawn into it, one tile at a time, from the map's change log.
+	 * The graphics are expected to be offset by the camera.
+	 * @param g		the Graphics object necessary to paint to the frame
+	 * @param frame	the frame being drawn
+	 */
+	public void drawMap( Graphics g, FrameState frame ) {
+		GameMap map = frame.getMap();
+		int size = GameMap.TILE_SIZE;
+		int row = Math.floorDiv( camera.getY(), size );
+		int col = Math.floorDiv( camera.getX(), size );
+		if ( mapLayer == null || mapLayerSource != map || mapLayer.contentsLost()
+				|| row != mapLayerRow || col != mapLayerCol
+				|| mapLayer.getWidth() != layerTiles( camera.getWidth() ) * size
+				|| mapLayer.getHeight() != layerTiles( camera.getHeight() ) * size ) {
+			buildMapLayer( map, row, col );
+			mapLayerChanges = frame.getMapChanges();
+		}
+		if ( mapLayerChanges < frame.getMapChanges() ) {
+			int rows = mapLayer.getHeight() / size;
+			int cols = mapLayer.getWidth() / size;
+			Graphics layer = mapLayer.createGraphics();
+			for ( int k = mapLayerChanges; k < frame.getMapChanges(); k++ ) {
+				int tile = map.getChangeTile( k );
+				int r = tile / map.getWidth() - mapLayerRow;
+				int c = tile % map.getWidth() - mapLayerCol;
+				if ( r >= 0 && c >= 0 && r < rows && c < cols ) {
+					drawTile( layer, r, c, GameMap.BRICK, map.getChangeStrength( k ) );
+				}
+			}
+			layer.dispose();
+			mapLayerChanges = frame.getMapChanges();
+		}
+		g.drawImage( mapLayer, mapLayerCol * size, mapLayerRow * size, null );
+	}
+	/**
+	 * Returns the number of tiles the cached map layer spans along one side of
+	 * the view: every tile the view can overlap, wherever it is scrolled to
+	 * @param pixels	length of the view's side
+	 * @return			number of tiles
+	 */
+	private static int layerTiles( int pixels ) {
+		return Math.max( 1, pixels / GameMap.TILE_SIZE + 2 );
+	}
+	/**
+	 * Iterates over the tiles around the view to draw them into the cached map
+	 * layer, starting at the given tile. Tiles off the map are left black.
+	 * @param map	the map to draw
+	 * @param row	map row of the layer's top tile
+	 * @param col	map column of the layer's left tile
+	 */
+	public void buildMapLayer( GameMap map, int row, int col ) {
+		int size = GameMap.TILE_SIZE;
+		int rows = layerTiles( camera.getHeight() );
+		int cols = layerTiles( camera.getWidth() );
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		if ( mapLayer == null || mapLayer.getWidth() != cols * size
+				|| mapLayer.getHeight() != rows * size
+				|| mapLayer.validate( gc ) == VolatileImage.IMAGE_INCOMPATIBLE ) {
+			mapLayer = gc.createCompatibleVolatileImage( cols * size, rows * size );
+		}
+		mapLayerSource = map;
+		mapLayerRow = row;
+		mapLayerCol = col;
+		Graphics g = mapLayer.createGraphics();
+		g.setColor( Color.BLACK );
+		g.fillRect( 0, 0, cols * size, rows * size );
+		int lastRow = Math.min( map.getHeight(), row + rows );
+		int lastCol = Math.min( map.getWidth(), col + cols );
+		for ( int i = Math.max( 0, row ); i < lastRow; i++ ) {
+			for( int j = Math.max( 0, col ); j < lastCol; j++ ) {
+				drawTile( g, i - row, j - col, map.getTile( i, j ), map.getStrength( i, j ) );
+			}  
+		}
+		g.dispose();
+	}
+	/**
+	 * Draws one tile into the cached map layer
+	 * @param g			the Graphics object of the map layer
+	 * @param row		tile row in the layer
+	 * @param col		tile column in the layer
+	 * @param tile		tile value
+	 * @param strength	hits a brick tile can still take, 0 once it has broken
+	 */
+	public void drawTile( Graphics g, int row, int col, int tile, int strength ) {
+		int size = GameMap.TILE_SIZE;
+		switch( tile ) {
+	    	case GameMap.FLOOR:
+	     		g.setColor( Color.BLACK );
+	     		g.fillRect( col*size, row*size, size, size );
+	     		break;
+	     	case GameMap.WALL:
+	     		g.setColor( Color.YELLOW );
+	     		g.fillRect( col*size, row*size, size, size );
+	     		break;
+	     	case GameMap.BRICK:
+	     		g.setColor( BRICK_COLORS[Math.min( strength, BRICK_COLORS.length - 1 )] );
+	     		g.fillRect( col*size, row*size, size, size );
+	     		break;
+	     }
+	}
+	/**
+	 * Throws away the cached map layer so it is rebuilt on the next frame
+	 */
+	public void invalidateMapLayer() {
+		mapLayerSource = null;
+	}
+	/**
+	 * Not used for this program.
+	 */
+	public void mouseDragged(MouseEvent e) {
+	}
+	/**
+	 * When the mouse is moved, its location in the window is recorded to
+	 * mouseLoc. The next tick turns it into a map location with the camera,
+	 * and the player's barrel is aimed at it.
+	 */
+	public void mouseMoved( MouseEvent e ) {
+		int x = e.getX();
+		int y = e.getY();
+		mouseLoc = pack( x, y );
+	}
+	/**
+	 * When the mouse is clicked, the mouse's position in the window is recorded
+	 * as the target of the player's next missile, which is fired on the next
+	 * tick if the player has reloaded and has a missile to spare.
+	 */
+	public void mouseClicked( MouseEvent e ) {
+		pendingFire.set( pack( e.getX(), e.getY() ) );
+	}
+	/**
+	 * Not used for this program.
+	 */
+	public void mouseEntered(MouseEvent e) {
+	}
+	/**
+	 * Not used for this program.
+	 */
+	public void mouseExited(MouseEvent e) {
+	}
+	/**
+	 * Not used for this program.
+	 */
+	public void mousePressed(MouseEvent e) {
+	}
+	/**
+	 * Not used for this program.
+	 */
+	public void mouseReleased(MouseEvent e) {
+	}
+	/**
+	 * When the user presses a key, that key is placed into the 
+	 * keys pressed. As that key is pressed, the user's tank moves in that
+	 * direction. Also allows for ordinal directions in addition to cardinal directions.
+	 * When the key is released, the tank stops moving. F3 shows or hides the
+	 * frame rate overlay.
+	 */
+	public void keyPressed( KeyEvent e ) {
+		if ( e.getKeyCode() == KeyEvent.VK_F3 ) {
+			showStats = !showStats;
+			return;
+		}
+		pressed |= keyBit( e.getKeyChar() );
+		determineDirection();
+		if ( Integer.bitCount( pressed ) >= 4 ) {
+			return;
+		}
+	}
+	/**
+	 * Once the key is released, that key is removed from
+	 * the keys pressed, then the current direction
+	 * is determined from the remaining keys.
+	 */
+	public void keyReleased(KeyEvent e) {
+		pressed &= ~keyBit( e.getKeyChar() );
+		if ( Integer.bitCount( pressed ) == 0 ) {
+			direction = 0;
+		}
+		else {
+			determineDirection();
+		}
+	}
+	/**
+	 * Not used for this program.
+	 */
+	public void keyTyped(KeyEvent e) {
+	}
+	/**
+	 * Returns the bit remembering a movement key in pressed
+	 * @param c		the key's character
+	 * @return		the key's bit, or 0 if it isn't a movement key
+	 */
+	public static int keyBit( char c ) {
+		switch ( Character.toLowerCase( c ) ) {
+			case 'w':
+				return 1;
+			case 'a':
+				return 2;
+			case 's':
+				return 4;
+			case 'd':
+				return 8;
+			default:
+				return 0;
+		}
+	}
+	/**
+	 * Checks to see if a movement key is in a set of keys held down
+	 * @param keys	the movement keys held, as bits from keyBit()
+	 * @param c		the key's character
+	 * @return		true if pressed, false if not
+	 */
+	private static boolean isPressed( int keys, char c ) {
+		return ( keys & keyBit( c ) ) != 0;
+	}
+	/**
+	 * Packs a location into one long so it can be handed between threads in one write
+	 * @param x		x-component
+	 * @param y		y-component
+	 * @return		packed location
+	 */
+	private static long pack( int x, int y ) {
+		return ( (long)x << 32 ) | ( y & 0xFFFFFFFFL );
+	}
+	/**
+	 * Returns the x-component of a location packed by pack()
+	 * @param p		packed location
+	 * @return		x-component
+	 */
+	private static int unpackX( long p ) {
+		return (int)( p >> 32 );
+	}
+	/**
+	 * Returns the y-component of a location packed by pack()
+	 * @param p		packed location
+	 * @return		y-component
+	 */
+	private static int unpackY( long p ) {
+		return (int)p;
+	}
+	/**
+	 * Determines the direction the tank will move based
+	 * on the current keys pressed.
+	 */
+	public void determineDirection() {
+		direction = directionOf( pressed, direction );
+	}
+	/**
+	 * Determines the direction a tank moves in for a set of movement keys held
+	 * down. Opposite keys cancel out; with four keys held, or two opposite
+	 * ones, the tank keeps its current direction.
+	 * @param keys		the movement keys held, as bits from keyBit()
+	 * @param current	the tank's current direction
+	 * @return			the new direction
+	 */
+	public static int directionOf( int keys, int current ) {
+		if ( Integer.bitCount( keys ) == 1 ) {
+			if ( isPressed( keys, 'w' ) ) {
+				current = -1;
+			}
+			else if ( isPressed( keys, 'a' ) ) {
+				current = -2;
+			}
+			else if ( isPressed( keys, 's' ) ) {
+				current = 1;
+			}
+			else if ( isPressed( keys, 'd' ) ) {
+				current = 2;
+			}
+		}
+		
+		if ( Integer.bitCount( keys ) == 2 ) {
+			if ( isPressed( keys, 'w' ) && isPressed( keys, 'd' ) ) {
+				current = 3;
+			}
+			else if ( isPressed( keys, 'w' ) && isPressed( keys, 'a' ) ) {
+				current = -3;
+			}
+			else if ( isPressed( keys, 's' ) && isPressed( keys, 'd' ) ) {
+				current = 4;
+			}
+			else if ( isPressed( keys, 's' ) && isPressed( keys, 'a' ) ) {
+				current = -4;
+			}
+		}
+		
+		
+		if ( Integer.bitCount( keys ) == 3 ) {
+			if ( isPressed( keys, 'a' ) && isPressed( keys, 'd' ) ) {
+				if ( isPressed( keys, 'w' ) ) {
+					current = -1;
+				}
+				if ( isPressed( keys, 's' ) ) {
+					current = 1;
+				}
+			}
+			if ( isPressed( keys, 'w' ) && isPressed( keys, 's' ) ) {
+				if ( isPressed( keys, 'a' ) ) {
+					current = -2;
+				}
+				if ( isPressed( keys, 'd' ) ) {
+					current = 2;
+				}
+			}
+		}
+		return current;
+	}
+	/**
+	 * Runs the thread necessary to run the game. Real time is accumulated and
+	 * consumed in fixed ticks of 1/ticksPerSecond, so the game runs at the same
+	 * speed however long a frame takes to render. The game thread renders
+	 * every frame itself instead of waiting for Swing to repaint.
+	 */
+	public void run() {
+		long tickNanos = 1000000000L / ticksPerSecond;
+		long previous = System.nanoTime();
+		long accumulator = 0;
+		while ( true ) {
+			long now = System.nanoTime();
+			accumulator += Math.min( now - previous, MAX_FRAME_NANOS );
+			previous = now;
+			while ( accumulator >= tickNanos ) {
+				update();
+				accumulator -= tickNanos;
+			}
+			render( (double)accumulator / tickNanos );
+			try {
+				Thread.sleep( Math.max( 1, Math.min( FRAME_MILLIS,
+						( tickNanos - accumulator ) / 1000000 ) ) );
+			} catch (InterruptedException e) {
+				System.out.println("Program interrupted.");
+			}
+		}
+	}
+	/**
+	 * Gathers the player's input from the latest keyboard and mouse events,
+	 * turning the mouse's window location into a map location with the camera
+	 * of the last frame drawn, and advances the world by one tick. When recording, the input is recorded
+	 * first and the replay is finished once the match is over.
+	 */
+	public void update() {
+		long mouse = mouseLoc;
+		input.setDirection( direction );
+		input.setAim( camera.toMapX( unpackX( mouse ) ), camera.toMapY( unpackY( mouse ) ) );
+		input.clearFire();
+		long fire = pendingFire.getAndSet( NO_FIRE );
+		if ( fire != NO_FIRE ) {
+			input.fireAt( camera.toMapX( unpackX( fire ) ), camera.toMapY( unpackY( fire ) ) );
+		}
+		if ( recorder != null ) {
+			recorder.record( input );
+		}
+		world.step( input );
+		if ( recorder != null && ( world.isGameOver() || world.isWin() ) ) {
+			recorder.finish( world );
+			recorder = null;
+		}
+		frames.getBack().copyFrom( world );
+		frames.publish();
+	}
+}
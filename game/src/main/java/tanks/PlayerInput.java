@@ -0,0 +1,130 @@
+package tanks;
+
+/**
+ * Holds the player's input for one simulation tick.
+ * @author Nicholas Grant
+ *
+ */
+public class PlayerInput {
+	/**
+	 * Direction the player's tank moves in (0 = standing still)
+	 */
+	private int direction;
+	/**
+	 * x-component of the point the player's barrel aims at
+	 */
+	private int aimX;
+	/**
+	 * y-component of the point the player's barrel aims at
+	 */
+	private int aimY;
+	/**
+	 * True = the player fires a missile this tick
+	 */
+	private boolean fire;
+	/**
+	 * x-component of the fired missile's target
+	 */
+	private int fireX;
+	/**
+	 * y-component of the fired missile's target
+	 */
+	private int fireY;
+	/**
+	 * Returns the direction the player's tank moves in
+	 * @return		tank direction
+	 */
+	public int getDirection() {
+		return direction;
+	}
+	/**
+	 * Sets the direction the player's tank moves in
+	 * @param d		tank direction
+	 */
+	public void setDirection( int d ) {
+		direction = d;
+	}
+	/**
+	 * Returns the aimed location's x-component
+	 * @return		aimed x-component
+	 */
+	public int getAimX() {
+		return aimX;
+	}
+	/**
+	 * Returns the aimed location's y-component
+	 * @return		aimed y-component
+	 */
+	public int getAimY() {
+		return aimY;
+	}
+	/**
+	 * Sets the location the player's barrel aims at
+	 * @param x		aimed x-component
+	 * @param y		aimed y-component
+	 */
+	public void setAim( int x, int y ) {
+		aimX = x;
+		aimY = y;
+	}
+	/**
+	 * Returns whether the player fires this tick
+	 * @return		true if firing, false if not
+	 */
+	public boolean isFire() {
+		return fire;
+	}
+	/**
+	 * Returns the fired missile target's x-component
+	 * @return		target x-component
+	 */
+	public int getFireX() {
+		return fireX;
+	}
+	/**
+	 * Returns the fired missile target's y-component
+	 * @return		target y-component
+	 */
+	public int getFireY() {
+		return fireY;
+	}
+	/**
+	 * Fires a missile toward the given location this tick
+	 * @param x		target x-component
+	 * @param y		target y-component
+	 */
+	public void fireAt( int x, int y ) {
+		fire = true;
+		fireX = x;
+		fireY = y;
+	}
+	/**
+	 * Clears the fire request once it has been handled
+	 */
+	public void clearFire() {
+		fire = false;
+	}
+	/**
+	 * Resets the input to standing still, aiming at the origin and not firing
+	 */
+	public void reset() {
+		direction = 0;
+		aimX = 0;
+		aimY = 0;
+		fire = false;
+		fireX = 0;
+		fireY = 0;
+	}
+	/**
+	 * Copies another input into this one
+	 * @param other		the input to copy
+	 */
+	public void copyFrom( PlayerInput other ) {
+		direction = other.direction;
+		aimX = other.aimX;
+		aimY = other.aimY;
+		fire = other.fire;
+		fireX = other.fireX;
+		fireY = other.fireY;
+	}
+}
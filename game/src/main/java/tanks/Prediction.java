@@ -0,0 +1,260 @@
+package tanks;
+
+import java.awt.Color;
+
+/**
+ * Predicts a GameClient's own tank, so the player sees each input take effect
+ * straight away rather than a round trip later. Every input sent is applied at
+ * once to a copy of the player's tank in a one-tank TankStore, with the same
+ * code the server steps the tank with: TankStore.update() for the move and
+ * aim, and shootToward() for a shot, whose missile is then flown by the
+ * store's own MissileStore.
+ *
+ * The server's snapshots say which input it applied last. When one arrives,
+ * the position predicted for that input is checked against the server's, then
+ * the tank is rolled back to the server's state and every input the server
+ * hasn't applied yet is replayed on top of it. Predicted missiles are dropped
+ * in the rollback and the replay fires again only those of inputs still
+ * unacknowledged, since the snapshot already holds the missiles of the rest.
+ * Movement only depends on the map and the input, so the prediction misses
+ * only when the server had to apply an input late or not at all.
+ * @author Nicholas Grant
+ *
+ */
+public class Prediction {
+	/**
+	 * Number of inputs kept; inputs older than this can't be replayed
+	 */
+	public static final int HISTORY = 64;
+	/**
+	 * The predicted tank, in slot 0, and its predicted missiles
+	 */
+	private final TankStore tank;
+	/**
+	 * Inputs predicted, indexed by sequence number modulo HISTORY
+	 */
+	private final PlayerInput[] inputs;
+	/**
+	 * Predicted x-component of the tank after each input
+	 */
+	private final int[] predictedX;
+	/**
+	 * Predicted y-component of the tank after each input
+	 */
+	private final int[] predictedY;
+	/**
+	 * Predicted reload countdown after each input
+	 */
+	private final int[] cooldowns;
+	/**
+	 * Sequence number of the newest input, or -1
+	 */
+	private int newestSeq;
+	/**
+	 * True once a snapshot has placed the tank
+	 */
+	private boolean placed;
+	/**
+	 * True = the server says the tank still has lives
+	 */
+	private boolean alive;
+	/**
+	 * Predicted positions checked against the server's
+	 */
+	private long checked;
+	/**
+	 * Predicted positions that didn't match the server's
+	 */
+	private long misses;
+	/**
+	 * Sum of the distances the tank was moved by corrections, in pixels
+	 */
+	private long correction;
+	/**
+	 * Inputs replayed in rollbacks
+	 */
+	private long replayed;
+	/**
+	 * Creates a prediction for a tank on a map
+	 * @param m		the client's copy of the map, which is only read
+	 * @param c		color of the tank
+	 */
+	public Prediction( GameMap m, Color c ) {
+		tank = new TankStore( m );
+		tank.add( 0, 0, 0, c );
+		tank.setMissileLimit( 0, GameWorld.PLAYER_MISSILES );
+		tank.setReload( 0, GameWorld.PLAYER_RELOAD );
+		tank.getMissiles().setDamaging( false );
+		inputs = new PlayerInput[HISTORY];
+		for ( int k = 0; k < HISTORY; k++ ) {
+			inputs[k] = new PlayerInput();
+		}
+		predictedX = new int[HISTORY];
+		predictedY = new int[HISTORY];
+		cooldowns = new int[HISTORY];
+		newestSeq = -1;
+		alive = true;
+	}
+	/**
+	 * Keeps the next input sent and applies it to the tank
+	 * @param seq		the input's sequence number, one more than the last one
+	 * @param input		the input
+	 */
+	public void predict( int seq, PlayerInput input ) {
+		inputs[seq % HISTORY].copyFrom( input );
+		newestSeq = seq;
+		if ( placed ) {
+			apply( seq );
+		}
+	}
+	/**
+	 * Rolls the tank back to a snapshot's state and replays every input sent
+	 * after the last one the server applied
+	 * @param s			the newest snapshot
+	 * @param slot		slot of the player's tank
+	 * @param acked		sequence number of the last input the server applied
+	 * 					before the snapshot, or -1
+	 */
+	public void reconcile( Snapshot s, int slot, int acked ) {
+		if ( slot < 0 || slot >= s.getPlayerCount() ) {
+			return;
+		}
+		int x = s.getX( slot );
+		int y = s.getY( slot );
+		boolean known = acked >= 0 && acked <= newestSeq && newestSeq - acked < HISTORY;
+		if ( placed && known ) {
+			int k = acked % HISTORY;
+			int error = Math.abs( predictedX[k] - x ) + Math.abs( predictedY[k] - y );
+			checked++;
+			if ( error != 0 ) {
+				misses++;
+				correction += error;
+			}
+		}
+		alive = s.getLives( slot ) > 0;
+		tank.setLocation( 0, x, y );
+		tank.aimAt( 0, s.getBarrelX( slot ), s.getBarrelY( slot ) );
+		tank.setCooldown( 0, known ? cooldowns[acked % HISTORY] : 0 );
+		tank.getMissiles().clear();
+		placed = true;
+		int from = Math.max( acked + 1, newestSeq - HISTORY + 1 );
+		for ( int seq = from; seq <= newestSeq; seq++ ) {
+			apply( seq );
+			replayed++;
+		}
+	}
+	/**
+	 * Applies one kept input to the tank, the way GameWorld.step() applies a
+	 * player's input, and records the result
+	 * @param seq	the input's sequence number
+	 */
+	private void apply( int seq ) {
+		int k = seq % HISTORY;
+		PlayerInput input = inputs[k];
+		if ( alive ) {
+			tank.setDirection( 0, input.getDirection() );
+			if ( input.isFire() ) {
+				tank.shootToward( 0, input.getFireX(), input.getFireY() );
+			}
+			tank.update( 0, input.getAimX(), input.getAimY() );
+		}
+		tank.updateMissiles();
+		predictedX[k] = tank.getX( 0 );
+		predictedY[k] = tank.getY( 0 );
+		cooldowns[k] = tank.getCooldown( 0 );
+	}
+	/**
+	 * Returns a kept input
+	 * @param seq	the input's sequence number, no older than HISTORY inputs
+	 * @return		the input
+	 */
+	public PlayerInput getInput( int seq ) {
+		return inputs[seq % HISTORY];
+	}
+	/**
+	 * Checks to see if a snapshot has placed the tank yet
+	 * @return		true if the predicted state can be drawn, false otherwise
+	 */
+	public boolean isPlaced() {
+		return placed;
+	}
+	/**
+	 * Returns the predicted x-component of the tank's center
+	 * @return		center x-component
+	 */
+	public int getX() {
+		return tank.getX( 0 );
+	}
+	/**
+	 * Returns the predicted y-component of the tank's center
+	 * @return		center y-component
+	 */
+	public int getY() {
+		return tank.getY( 0 );
+	}
+	/**
+	 * Returns the predicted x-component of the barrel's end point
+	 * @return		barrel x-component
+	 */
+	public int getBarrelX() {
+		return tank.getBarrelX( 0 );
+	}
+	/**
+	 * Returns the predicted y-component of the barrel's end point
+	 * @return		barrel y-component
+	 */
+	public int getBarrelY() {
+		return tank.getBarrelY( 0 );
+	}
+	/**
+	 * Returns the missiles fired by inputs the server hasn't applied yet
+	 * @return		predicted missiles
+	 */
+	public MissileStore getMissiles() {
+		return tank.getMissiles();
+	}
+	/**
+	 * Returns the position predicted after an input
+	 * @param seq	the input's sequence number, no older than HISTORY inputs
+	 * @return		predicted center x-component
+	 */
+	public int getPredictedX( int seq ) {
+		return predictedX[seq % HISTORY];
+	}
+	/**
+	 * Returns the position predicted after an input
+	 * @param seq	the input's sequence number, no older than HISTORY inputs
+	 * @return		predicted center y-component
+	 */
+	public int getPredictedY( int seq ) {
+		return predictedY[seq % HISTORY];
+	}
+	/**
+	 * Returns the number of predicted positions checked against the server's
+	 * @return		positions checked
+	 */
+	public long getChecked() {
+		return checked;
+	}
+	/**
+	 * Returns the number of predicted positions that didn't match the server's
+	 * @return		mispredictions
+	 */
+	public long getMisses() {
+		return misses;
+	}
+	/**
+	 * Returns the sum of the distances the tank was moved by corrections
+	 * @return		pixels, as the sum of x and y distances
+	 */
+	public long getCorrection() {
+		return correction;
+	}
+	/**
+	 * Returns the number of inputs replayed in rollbacks
+	 * @return		inputs replayed
+	 */
+	public long getReplayed() {
+		return replayed;
+	}
+}
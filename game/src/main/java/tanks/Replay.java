@@ -0,0 +1,295 @@
+package tanks;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+
+/**
+ * A match recorded by ReplayRecorder. The whole file is read into memory, and
+ * play() recreates the world from its seed and steps it with the recorded
+ * inputs, decoding them straight from the file's bytes, so a replay runs as
+ * fast as the simulation itself.
+ * @author Nicholas Grant
+ *
+ */
+public class Replay {
+	/**
+	 * Seed of the recorded world
+	 */
+	private long seed;
+	/**
+	 * Difficulty of the recorded world
+	 */
+	private int difficulty;
+	/**
+	 * Number of enemies the recorded world started with
+	 */
+	private int enemyCount;
+	/**
+	 * The recorded map
+	 */
+	private GameMap map;
+	/**
+	 * The recorded inputs
+	 */
+	private byte[] inputs;
+	/**
+	 * Offset of the first recorded input
+	 */
+	private int inputStart;
+	/**
+	 * Offset just past the last complete recorded input
+	 */
+	private int inputEnd;
+	/**
+	 * True = the recording was ended properly, so the result can be checked
+	 */
+	private boolean ended;
+	/**
+	 * Number of ticks recorded, if the recording was ended
+	 */
+	private long endTick;
+	/**
+	 * State hash of the recorded world at the end, if the recording was ended
+	 */
+	private long endHash;
+	/**
+	 * Offset of the next byte to decode
+	 */
+	private int pos;
+	/**
+	 * Loads a replay file
+	 * @param fileName	name of the replay file
+	 * @return			the replay, or null if the file wasn't found or isn't a replay
+	 */
+	public static Replay load( String fileName ) {
+		byte[] data;
+		try {
+			data = Files.readAllBytes( Paths.get( fileName ) );
+		} catch (NoSuchFileException nsf) {
+			System.out.println("File not found.");
+			return null;
+		} catch (IOException e) {
+			System.out.println("Could not read replay.");
+			return null;
+		}
+		try {
+			return parse( data );
+		} catch (BufferUnderflowException bu) {
+			System.out.println("Not a replay file.");
+			return null;
+		}
+	}
+	/**
+	 * Reads a replay's header and map and finds the end of its inputs
+	 * @param data		the replay file's contents
+	 * @return			the replay, or null if the data isn't a replay
+	 */
+	private static Replay parse( byte[] data ) {
+		ByteBuffer header = ByteBuffer.wrap( data );
+		if ( header.getInt() != ReplayRecorder.MAGIC || header.get() != ReplayRecorder.VERSION ) {
+			System.out.println("Not a replay file.");
+			return null;
+		}
+		Replay r = new Replay();
+		r.seed = header.getLong();
+		r.difficulty = header.get();
+		r.enemyCount = header.getInt();
+		int w = header.getInt();
+		int h = header.getInt();
+		int[][] t = new int[h][w];
+		readTiles( header, t, GameMap.WALL );
+		readTiles( header, t, GameMap.BRICK );
+		r.map = new GameMap( t );
+		r.inputs = data;
+		r.inputStart = header.position();
+		r.findEnd();
+		return r;
+	}
+	/**
+	 * Reads one bit per tile, setting the tiles whose bit is set to a value
+	 * @param header	the replay file's contents, at the first byte of bits
+	 * @param t			tiles indexed [row][column]
+	 * @param value		tile value of the tiles read
+	 */
+	private static void readTiles( ByteBuffer header, int[][] t, int value ) {
+		int n = 0;
+		int bits = 0;
+		for ( int i = 0; i < t.length; i++ ) {
+			for ( int j = 0; j < t[i].length; j++ ) {
+				if ( n % 8 == 0 ) {
+					bits = header.get();
+				}
+				if ( ( bits & ( 1 << ( n % 8 ) ) ) != 0 ) {
+					t[i][j] = value;
+				}
+				n++;
+			}
+		}
+	}
+	/**
+	 * Creates the recorded world as it was before its first tick
+	 * @return		the new world
+	 */
+	public GameWorld createWorld() {
+		if ( difficulty == GameWorld.HORDE ) {
+			return GameWorld.createHorde( map, enemyCount, seed );
+		}
+		return new GameWorld( difficulty, map, seed );
+	}
+	/**
+	 * Plays the whole replay in a new world
+	 * @return		the world once every recorded tick has been played
+	 */
+	public GameWorld play() {
+		GameWorld world = createWorld();
+		play( world, new PlayerInput() );
+		return world;
+	}
+	/**
+	 * Steps a world created by createWorld() with every recorded input. Decoding
+	 * reuses the given input object, so playing doesn't allocate.
+	 * @param world		the world to step
+	 * @param input		reused to hold each tick's input
+	 */
+	public void play( GameWorld world, PlayerInput input ) {
+		pos = inputStart;
+		input.setDirection( 0 );
+		input.setAim( 0, 0 );
+		input.clearFire();
+		while ( pos < inputEnd ) {
+			int flags = inputs[pos++] & 0xFF;
+			input.clearFire();
+			if ( flags == 0 ) {
+				int run = readVarint();
+				for ( int i = 0; i < run; i++ ) {
+					world.step( input );
+				}
+				continue;
+			}
+			if ( ( flags & ReplayRecorder.DIRECTION ) != 0 ) {
+				input.setDirection( inputs[pos++] );
+			}
+			if ( ( flags & ReplayRecorder.AIM ) != 0 ) {
+				int x = input.getAimX() + readVarint();
+				int y = input.getAimY() + readVarint();
+				input.setAim( x, y );
+			}
+			if ( ( flags & ReplayRecorder.FIRE ) != 0 ) {
+				int x = input.getAimX() + readVarint();
+				int y = input.getAimY() + readVarint();
+				input.fireAt( x, y );
+			}
+			world.step( input );
+		}
+	}
+	/**
+	 * Checks a played world against the recorded end of the match
+	 * @param world		the world the replay was played in
+	 * @return			true if the world ended in the recorded state, false if
+	 * 					it diverged or the recording has no end to check against
+	 */
+	public boolean matches( GameWorld world ) {
+		return ended && world.getTick() == endTick && world.stateHash() == endHash;
+	}
+	/**
+	 * Skips through the inputs to find the end of the recording and reads the
+	 * recorded result after it. A recording cut short in the middle of an input,
+	 * such as by a crash, is played up to its last complete input.
+	 */
+	private void findEnd() {
+		pos = inputStart;
+		inputEnd = inputs.length;
+		while ( pos < inputs.length ) {
+			int record = pos;
+			int flags = inputs[pos++] & 0xFF;
+			if ( flags == ReplayRecorder.END ) {
+				inputEnd = record;
+				if ( inputs.length - pos >= 16 ) {
+					ByteBuffer end = ByteBuffer.wrap( inputs, pos, 16 );
+					endTick = end.getLong();
+					endHash = end.getLong();
+					ended = true;
+				}
+				return;
+			}
+			try {
+				skipInput( flags );
+			} catch (ArrayIndexOutOfBoundsException cut) {
+				inputEnd = record;
+				return;
+			}
+			if ( pos > inputs.length ) {
+				inputEnd = record;
+				return;
+			}
+		}
+	}
+	/**
+	 * Skips over the rest of one recorded input
+	 * @param flags		the input's flags byte
+	 */
+	private void skipInput( int flags ) {
+		if ( flags == 0 ) {
+			readVarint();
+			return;
+		}
+		if ( ( flags & ReplayRecorder.DIRECTION ) != 0 ) {
+			pos++;
+		}
+		if ( ( flags & ReplayRecorder.AIM ) != 0 ) {
+			readVarint();
+			readVarint();
+		}
+		if ( ( flags & ReplayRecorder.FIRE ) != 0 ) {
+			readVarint();
+			readVarint();
+		}
+	}
+	/**
+	 * Reads a zigzag varint written by ReplayRecorder
+	 * @return		the value
+	 */
+	private int readVarint() {
+		int z = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = inputs[pos++];
+			z |= ( b & 0x7F ) << shift;
+			shift += 7;
+		} while ( ( b & 0x80 ) != 0 );
+		return ( z >>> 1 ) ^ -( z & 1 );
+	}
+	/**
+	 * Returns the seed of the recorded world
+	 * @return		the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	/**
+	 * Returns the difficulty of the recorded world
+	 * @return		difficulty level
+	 */
+	public int getDifficulty() {
+		return difficulty;
+	}
+	/**
+	 * Returns whether the recording was ended properly, so it can be checked
+	 * @return		true if ended, false if the recording was cut short
+	 */
+	public boolean isEnded() {
+		return ended;
+	}
+	/**
+	 * Returns the number of ticks recorded, if the recording was ended
+	 * @return		recorded tick count
+	 */
+	public long getEndTick() {
+		return endTick;
+	}
+}
@@ -0,0 +1,50 @@
+package tanks;
+
+/**
+ * Plays a recorded replay without a window, as fast as the CPU allows, and
+ * checks that it ends the same way the recorded match did.
+ * Usage: java ReplayMain replayFile [runs]
+ * Playing the same replay several times gives an identical workload for
+ * comparing the simulation's speed between builds.
+ * @author Nicholas Grant
+ *
+ */
+public class ReplayMain {
+	/**
+	 * Plays the replay the requested number of times and prints the results.
+	 */
+	public static void main( String[] args ) {
+		if ( args.length == 0 ) {
+			System.out.println("Usage: java ReplayMain replayFile [runs]");
+			return;
+		}
+		Replay replay = Replay.load( args[0] );
+		if ( replay == null ) {
+			return;
+		}
+		int runs = ( args.length > 1 ) ? Integer.parseInt( args[1] ) : 1;
+		PlayerInput input = new PlayerInput();
+		boolean matches = true;
+		long ticks = 0;
+		long start = System.nanoTime();
+		for ( int i = 0; i < runs; i++ ) {
+			GameWorld world = replay.createWorld();
+			replay.play( world, input );
+			matches &= replay.matches( world );
+			ticks += world.getTick();
+		}
+		double seconds = ( System.nanoTime() - start ) / 1e9;
+		System.out.printf( "seed %d: %d runs, %d ticks in %.2f s (%.0f ticks/s)%n",
+				replay.getSeed(), runs, ticks, seconds, ticks / seconds );
+		if ( !replay.isEnded() ) {
+			System.out.println("The recording was cut short, so the result can't be checked.");
+		}
+		else if ( matches ) {
+			System.out.println("Replay matches the recorded match.");
+		}
+		else {
+			System.out.println("Replay diverged from the recorded match.");
+			System.exit( 1 );
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package tanks;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Records a match as a compact binary replay: the world's seed, setup and map,
+ * followed by the player's input for every tick. The simulation is deterministic,
+ * so the seed and the inputs are enough to play the match again with Replay.
+ *
+ * Inputs are delta encoded. Each tick starts with a flags byte saying which
+ * parts of the input changed since the previous tick; only those follow, with
+ * the aim as the change from the previous aim and the fire target as the offset
+ * from the aim, both as zigzag varints. A run of unchanged ticks is written as
+ * a zero flags byte and the length of the run, so idle stretches cost a couple
+ * of bytes in total. The replay ends with an END byte, the number of ticks and
+ * the world's state hash, which Replay checks its result against.
+ * @author Nicholas Grant
+ *
+ */
+public class ReplayRecorder {
+	/**
+	 * First four bytes of every replay file ("TNKR")
+	 */
+	public static final int MAGIC = 0x544E4B52;
+	/**
+	 * Version of the replay format
+	 */
+	public static final int VERSION = 2;
+	/**
+	 * Flag set when the direction changed
+	 */
+	public static final int DIRECTION = 1;
+	/**
+	 * Flag set when the aim changed
+	 */
+	public static final int AIM = 2;
+	/**
+	 * Flag set when the player fired
+	 */
+	public static final int FIRE = 4;
+	/**
+	 * Marks the end of the recorded ticks
+	 */
+	public static final int END = 0x80;
+	/**
+	 * The replay file being written, or null once the recording is closed
+	 */
+	private DataOutputStream out;
+	/**
+	 * Number of unchanged ticks not written yet
+	 */
+	private int run;
+	/**
+	 * Direction recorded for the previous tick
+	 */
+	private int direction;
+	/**
+	 * Aim x-component recorded for the previous tick
+	 */
+	private int aimX;
+	/**
+	 * Aim y-component recorded for the previous tick
+	 */
+	private int aimY;
+	/**
+	 * Starts recording a world that hasn't been stepped yet, writing its seed,
+	 * setup and map. Only difficulty and horde worlds can be recorded, since a
+	 * replay recreates the world from its difficulty and enemy count.
+	 * @param fileName	name of the replay file
+	 * @param world		the world to record
+	 */
+	public ReplayRecorder( String fileName, GameWorld world ) {
+		if ( world.getDifficulty() < 1 || world.getDifficulty() > GameWorld.HORDE
+				|| world.getTick() != 0 ) {
+			System.out.println("Only new difficulty and horde games can be recorded.");
+			return;
+		}
+		try {
+			out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( fileName ) ) );
+			out.writeInt( MAGIC );
+			out.writeByte( VERSION );
+			out.writeLong( world.getSeed() );
+			out.writeByte( world.getDifficulty() );
+			out.writeInt( world.getEnemies().size() );
+			writeMap( world.getMap() );
+		} catch (IOException e) {
+			fail();
+		}
+	}
+	/**
+	 * Writes the map's size, its walls and then its bricks, one bit per tile each
+	 * @param m		the map
+	 * @throws IOException	if the file can't be written
+	 */
+	private void writeMap( GameMap m ) throws IOException {
+		out.writeInt( m.getWidth() );
+		out.writeInt( m.getHeight() );
+		writeTiles( m, GameMap.WALL );
+		writeTiles( m, GameMap.BRICK );
+	}
+	/**
+	 * Writes one bit per tile of the map, set for the tiles of one value
+	 * @param m			the map
+	 * @param value		tile value to write
+	 * @throws IOException	if the file can't be written
+	 */
+	private void writeTiles( GameMap m, int value ) throws IOException {
+		int bits = 0;
+		int n = 0;
+		for ( int i = 0; i < m.getHeight(); i++ ) {
+			for ( int j = 0; j < m.getWidth(); j++ ) {
+				if ( m.getTile( i, j ) == value ) {
+					bits |= 1 << n;
+				}
+				if ( ++n == 8 ) {
+					out.writeByte( bits );
+					bits = 0;
+					n = 0;
+				}
+			}
+		}
+		if ( n > 0 ) {
+			out.writeByte( bits );
+		}
+	}
+	/**
+	 * Records the input the world is about to be stepped with
+	 * @param input		the player's input for this tick
+	 */
+	public synchronized void record( PlayerInput input ) {
+		if ( out == null ) {
+			return;
+		}
+		int flags = 0;
+		if ( input.getDirection() != direction ) {
+			flags |= DIRECTION;
+		}
+		if ( input.getAimX() != aimX || input.getAimY() != aimY ) {
+			flags |= AIM;
+		}
+		if ( input.isFire() ) {
+			flags |= FIRE;
+		}
+		if ( flags == 0 ) {
+			run++;
+			return;
+		}
+		try {
+			writeRun();
+			out.writeByte( flags );
+			if ( ( flags & DIRECTION ) != 0 ) {
+				out.writeByte( input.getDirection() );
+			}
+			if ( ( flags & AIM ) != 0 ) {
+				writeVarint( input.getAimX() - aimX );
+				writeVarint( input.getAimY() - aimY );
+			}
+			if ( ( flags & FIRE ) != 0 ) {
+				writeVarint( input.getFireX() - input.getAimX() );
+				writeVarint( input.getFireY() - input.getAimY() );
+			}
+		} catch (IOException e) {
+			fail();
+			return;
+		}
+		direction = input.getDirection();
+		aimX = input.getAimX();
+		aimY = input.getAimY();
+	}
+	/**
+	 * Ends the recording once the match is over, writing the number of ticks
+	 * and the world's state hash, and closes the file
+	 * @param world		the recorded world
+	 */
+	public synchronized void finish( GameWorld world ) {
+		if ( out == null ) {
+			return;
+		}
+		try {
+			writeRun();
+			out.writeByte( END );
+			out.writeLong( world.getTick() );
+			out.writeLong( world.stateHash() );
+		} catch (IOException e) {
+			fail();
+			return;
+		}
+		close();
+	}
+	/**
+	 * Closes the file without ending the recording, keeping the ticks recorded
+	 * so far. A replay without an end can still be played, but not checked.
+	 */
+	public synchronized void close() {
+		if ( out == null ) {
+			return;
+		}
+		try {
+			writeRun();
+			out.close();
+		} catch (IOException e) {
+			System.out.println("Could not write replay.");
+		}
+		out = null;
+	}
+	/**
+	 * Returns whether the recording is still open
+	 * @return		true if recording, false otherwise
+	 */
+	public synchronized boolean isRecording() {
+		return out != null;
+	}
+	/**
+	 * Writes the pending run of unchanged ticks, if any
+	 * @throws IOException	if the file can't be written
+	 */
+	private void writeRun() throws IOException {
+		if ( run > 0 ) {
+			out.writeByte( 0 );
+			writeVarint( run );
+			run = 0;
+		}
+	}
+	/**
+	 * Writes an int as a zigzag varint: small values of either sign take one byte
+	 * @param v		the value
+	 * @throws IOException	if the file can't be written
+	 */
+	private void writeVarint( int v ) throws IOException {
+		int z = ( v << 1 ) ^ ( v >> 31 );
+		while ( ( z & ~0x7F ) != 0 ) {
+			out.writeByte( ( z & 0x7F ) | 0x80 );
+			z >>>= 7;
+		}
+		out.writeByte( z );
+	}
+	/**
+	 * Gives up on a recording that couldn't be written
+	 */
+	private void fail() {
+		System.out.println("Could not write replay.");
+		if ( out != null ) {
+			try {
+				out.close();
+			} catch (IOException e) {
+				// already failed, nothing more to report
+			}
+		}
+		out = null;
+	}
+}
@@ -0,0 +1,36 @@
+package tanks;
+
+import java.io.IOException;
+
+/**
+ * Hosts a networked match until the process is stopped.
+ * Usage: java ServerMain [port] [difficulty] [mapFile]
+ * The port defaults to DEFAULT_PORT and the map to Panel.DEFAULT_MAP.
+ * @author Nicholas Grant
+ *
+ */
+public class ServerMain {
+	/**
+	 * UDP port the server listens on when none is given
+	 */
+	public static final int DEFAULT_PORT = 27960;
+	/**
+	 * Starts the server and runs it on the main thread.
+	 */
+	public static void main( String[] args ) {
+		int port = ( args.length > 0 ) ? Integer.parseInt( args[0] ) : DEFAULT_PORT;
+		int difficulty = ( args.length > 1 ) ? Integer.parseInt( args[1] ) : 3;
+		GameMap map = GameMap.load( ( args.length > 2 ) ? args[2] : Panel.DEFAULT_MAP );
+		GameServer server;
+		try {
+			server = new GameServer( new GameWorld( difficulty, map ), port,
+					Panel.DEFAULT_TICKS_PER_SECOND );
+		} catch (IOException e) {
+			System.out.println("Could not open port " + port + ".");
+			return;
+		}
+		Runtime.getRuntime().addShutdownHook( new Thread( server::close ) );
+		System.out.println("Serving on " + server.getAddress());
+		server.run();
+	}
+}
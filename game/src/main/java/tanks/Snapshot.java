@@ -0,0 +1,492 @@
+package tanks;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The state of every tank and missile of a world at one tick, as sent from a
+ * GameServer to its clients. Tanks are listed players first, every player in
+ * its slot whether alive or not, then the enemies; missiles are listed player
+ * missiles first, with positions rounded to whole pixels.
+ *
+ * A snapshot is written as a delta against an older snapshot the client has
+ * acknowledged. Each tank and missile starts with a byte of flags saying which
+ * of its fields differ from the same slot of the older snapshot; only those
+ * follow, as zigzag varints of the change. A tank that didn't move costs one
+ * byte, and a moving missile a few bytes. Brick hits logged by the map since
+ * the older snapshot are sent along, so the client's map wears down the same
+ * way. With no older snapshot everything is written against zero.
+ * @author Nicholas Grant
+ *
+ */
+public class Snapshot {
+	/**
+	 * Flag set when an x-component changed
+	 */
+	private static final int X = 1;
+	/**
+	 * Flag set when a y-component changed
+	 */
+	private static final int Y = 2;
+	/**
+	 * Flag set when a tank's barrel changed
+	 */
+	private static final int BARREL = 4;
+	/**
+	 * Flag set when a tank's lives changed
+	 */
+	private static final int LIVES = 8;
+	/**
+	 * Flag set when a color changed
+	 */
+	private static final int COLOR = 16;
+	/**
+	 * The tick this snapshot was taken at, or -1 before it holds one
+	 */
+	private long tick;
+	/**
+	 * Number of player tanks, which come first in the tank arrays
+	 */
+	private int playerCount;
+	/**
+	 * Number of tanks held in the arrays below
+	 */
+	private int tankCount;
+	/**
+	 * Tank center x-components
+	 */
+	private int[] x;
+	/**
+	 * Tank center y-components
+	 */
+	private int[] y;
+	/**
+	 * Barrel end point x-components, relative to the tank center
+	 */
+	private int[] barrelX;
+	/**
+	 * Barrel end point y-components, relative to the tank center
+	 */
+	private int[] barrelY;
+	/**
+	 * Tank lives
+	 */
+	private int[] lives;
+	/**
+	 * Tank colors as RGB values
+	 */
+	private int[] color;
+	/**
+	 * Number of missiles held in the missile arrays below
+	 */
+	private int missileCount;
+	/**
+	 * Missile x-components
+	 */
+	private int[] missileX;
+	/**
+	 * Missile y-components
+	 */
+	private int[] missileY;
+	/**
+	 * Missile colors as RGB values
+	 */
+	private int[] missileColor;
+	/**
+	 * Number of brick hits the map had logged at this tick
+	 */
+	private int mapChanges;
+	/**
+	 * Creates an empty snapshot
+	 */
+	public Snapshot() {
+		tick = -1;
+		ensureCapacity( 4 );
+		ensureMissileCapacity( 4 );
+	}
+	/**
+	 * Copies the current state of a world into this snapshot. Arrays are only
+	 * reallocated when the world holds more tanks or missiles than ever before.
+	 * @param world		the world to copy
+	 */
+	public void copyFrom( GameWorld world ) {
+		TankStore players = world.getPlayers();
+		TankStore enemies = world.getEnemies();
+		tick = world.getTick();
+		playerCount = players.size();
+		tankCount = 0;
+		ensureCapacity( players.size() + enemies.size() );
+		for ( int p = 0; p < players.size(); p++ ) {
+			copyTank( players, p );
+		}
+		for ( int i = 0; i < enemies.size(); i++ ) {
+			copyTank( enemies, i );
+		}
+		MissileStore playerMissiles = players.getMissiles();
+		MissileStore enemyMissiles = enemies.getMissiles();
+		missileCount = 0;
+		ensureMissileCapacity( playerMissiles.size() + enemyMissiles.size() );
+		copyMissiles( playerMissiles );
+		copyMissiles( enemyMissiles );
+		mapChanges = world.getMap().getChangeCount();
+	}
+	/**
+	 * Copies one tank into the next free slot
+	 * @param s		the store holding the tank
+	 * @param t		the tank's slot in the store
+	 */
+	private void copyTank( TankStore s, int t ) {
+		int i = tankCount++;
+		x[i] = s.getX( t );
+		y[i] = s.getY( t );
+		barrelX[i] = s.getBarrelX( t ) - x[i];
+		barrelY[i] = s.getBarrelY( t ) - y[i];
+		lives[i] = s.getLives( t );
+		color[i] = s.getColor( t ).getRGB();
+	}
+	/**
+	 * Copies every missile of a store into the next free missile slots
+	 * @param s		the store holding the missiles
+	 */
+	private void copyMissiles( MissileStore s ) {
+		for ( int m = 0; m < s.size(); m++ ) {
+			int i = missileCount++;
+			missileX[i] = (int)Math.round( s.getX( m ) );
+			missileY[i] = (int)Math.round( s.getY( m ) );
+			missileColor[i] = s.getColor( m ).getRGB();
+		}
+	}
+	/**
+	 * Writes this snapshot as a delta against an older one
+	 * @param out		buffer the snapshot is written to
+	 * @param base		the older snapshot, or null to write everything
+	 * @param map		the map whose change log this snapshot was taken from
+	 */
+	public void write( ByteBuffer out, Snapshot base, GameMap map ) {
+		writeVarint( out, playerCount );
+		writeVarint( out, tankCount );
+		for ( int i = 0; i < tankCount; i++ ) {
+			boolean old = base != null && i < base.tankCount;
+			int flags = 0;
+			flags |= changed( x[i], old ? base.x[i] : 0, X );
+			flags |= changed( y[i], old ? base.y[i] : 0, Y );
+			if ( !old || barrelX[i] != base.barrelX[i] || barrelY[i] != base.barrelY[i] ) {
+				flags |= BARREL;
+			}
+			flags |= changed( lives[i], old ? base.lives[i] : 0, LIVES );
+			flags |= changed( color[i], old ? base.color[i] : 0, COLOR );
+			out.put( (byte)flags );
+			writeField( out, flags, X, x[i], old ? base.x[i] : 0 );
+			writeField( out, flags, Y, y[i], old ? base.y[i] : 0 );
+			writeField( out, flags, BARREL, barrelX[i], old ? base.barrelX[i] : 0 );
+			writeField( out, flags, BARREL, barrelY[i], old ? base.barrelY[i] : 0 );
+			writeField( out, flags, LIVES, lives[i], old ? base.lives[i] : 0 );
+			writeField( out, flags, COLOR, color[i], old ? base.color[i] : 0 );
+		}
+		writeVarint( out, missileCount );
+		for ( int i = 0; i < missileCount; i++ ) {
+			boolean old = base != null && i < base.missileCount;
+			int flags = 0;
+			flags |= changed( missileX[i], old ? base.missileX[i] : 0, X );
+			flags |= changed( missileY[i], old ? base.missileY[i] : 0, Y );
+			flags |= changed( missileColor[i], old ? base.missileColor[i] : 0, COLOR );
+			out.put( (byte)flags );
+			writeField( out, flags, X, missileX[i], old ? base.missileX[i] : 0 );
+			writeField( out, flags, Y, missileY[i], old ? base.missileY[i] : 0 );
+			writeField( out, flags, COLOR, missileColor[i], old ? base.missileColor[i] : 0 );
+		}
+		int from = ( base == null ) ? 0 : base.mapChanges;
+		writeVarint( out, from );
+		writeVarint( out, mapChanges - from );
+		for ( int k = from; k < mapChanges; k++ ) {
+			writeVarint( out, map.getChangeTile( k ) );
+		}
+	}
+	/**
+	 * Reads a snapshot written by write() into this one, applying the brick
+	 * hits the map hasn't seen yet
+	 * @param in		buffer the snapshot is read from
+	 * @param t			the tick the snapshot was taken at
+	 * @param base		the older snapshot it was written against, or null; must
+	 * 					not be this snapshot
+	 * @param map		the client's copy of the map
+	 */
+	public void read( ByteBuffer in, long t, Snapshot base, GameMap map ) {
+		tick = t;
+		playerCount = readVarint( in );
+		tankCount = readVarint( in );
+		ensureCapacity( tankCount );
+		for ( int i = 0; i < tankCount; i++ ) {
+			boolean old = base != null && i < base.tankCount;
+			int flags = in.get();
+			x[i] = readField( in, flags, X, old ? base.x[i] : 0 );
+			y[i] = readField( in, flags, Y, old ? base.y[i] : 0 );
+			barrelX[i] = readField( in, flags, BARREL, old ? base.barrelX[i] : 0 );
+			barrelY[i] = readField( in, flags, BARREL, old ? base.barrelY[i] : 0 );
+			lives[i] = readField( in, flags, LIVES, old ? base.lives[i] : 0 );
+			color[i] = readField( in, flags, COLOR, old ? base.color[i] : 0 );
+		}
+		missileCount = readVarint( in );
+		ensureMissileCapacity( missileCount );
+		for ( int i = 0; i < missileCount; i++ ) {
+			boolean old = base != null && i < base.missileCount;
+			int flags = in.get();
+			missileX[i] = readField( in, flags, X, old ? base.missileX[i] : 0 );
+			missileY[i] = readField( in, flags, Y, old ? base.missileY[i] : 0 );
+			missileColor[i] = readField( in, flags, COLOR, old ? base.missileColor[i] : 0 );
+		}
+		int from = readVarint( in );
+		int n = readVarint( in );
+		for ( int k = from; k < from + n; k++ ) {
+			int tile = readVarint( in );
+			// the map already has the hits sent in earlier snapshots
+			if ( k == map.getChangeCount() && map.getWidth() > 0 ) {
+				map.damage( tile / map.getWidth(), tile % map.getWidth() );
+			}
+		}
+		mapChanges = from + n;
+	}
+	/**
+	 * Forgets the tick the snapshot was taken at, so it is no longer found as
+	 * the base of a delta, such as when a new match starts
+	 */
+	public void clear() {
+		tick = -1;
+	}
+	/**
+	 * Returns a field's flag if its value differs from the older value
+	 * @param v			the value
+	 * @param old		the older value
+	 * @param flag		the field's flag
+	 * @return			the flag, or 0 if unchanged
+	 */
+	private static int changed( int v, int old, int flag ) {
+		return ( v != old ) ? flag : 0;
+	}
+	/**
+	 * Writes the change of a field if its flag is set
+	 * @param out		buffer written to
+	 * @param flags		the entity's flags
+	 * @param flag		the field's flag
+	 * @param v			the value
+	 * @param old		the older value
+	 */
+	private static void writeField( ByteBuffer out, int flags, int flag, int v, int old ) {
+		if ( ( flags & flag ) != 0 ) {
+			writeVarint( out, v - old );
+		}
+	}
+	/**
+	 * Reads the change of a field if its flag is set
+	 * @param in		buffer read from
+	 * @param flags		the entity's flags
+	 * @param flag		the field's flag
+	 * @param old		the older value
+	 * @return			the field's value
+	 */
+	private static int readField( ByteBuffer in, int flags, int flag, int old ) {
+		return ( ( flags & flag ) != 0 ) ? old + readVarint( in ) : old;
+	}
+	/**
+	 * Writes an int as a zigzag varint: 7 bits per byte, small values of
+	 * either sign in few bytes
+	 * @param out	buffer written to
+	 * @param v		the value
+	 */
+	static void writeVarint( ByteBuffer out, int v ) {
+		int z = ( v << 1 ) ^ ( v >> 31 );
+		while ( ( z & ~0x7F ) != 0 ) {
+			out.put( (byte)( ( z & 0x7F ) | 0x80 ) );
+			z >>>= 7;
+		}
+		out.put( (byte)z );
+	}
+	/**
+	 * Reads a zigzag varint written by writeVarint()
+	 * @param in	buffer read from
+	 * @return		the value
+	 */
+	static int readVarint( ByteBuffer in ) {
+		int z = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = in.get();
+			z |= ( b & 0x7F ) << shift;
+			shift += 7;
+		} while ( ( b & 0x80 ) != 0 );
+		return ( z >>> 1 ) ^ -( z & 1 );
+	}
+	/**
+	 * Checks to see if another snapshot holds the same state
+	 * @param o		the other snapshot
+	 * @return		true if every tank, missile and map change count match
+	 */
+	public boolean sameState( Snapshot o ) {
+		if ( tick != o.tick || playerCount != o.playerCount || tankCount != o.tankCount
+				|| missileCount != o.missileCount || mapChanges != o.mapChanges ) {
+			return false;
+		}
+		for ( int i = 0; i < tankCount; i++ ) {
+			if ( x[i] != o.x[i] || y[i] != o.y[i] || barrelX[i] != o.barrelX[i]
+					|| barrelY[i] != o.barrelY[i] || lives[i] != o.lives[i] || color[i] != o.color[i] ) {
+				return false;
+			}
+		}
+		for ( int i = 0; i < missileCount; i++ ) {
+			if ( missileX[i] != o.missileX[i] || missileY[i] != o.missileY[i]
+					|| missileColor[i] != o.missileColor[i] ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	/**
+	 * Grows the tank arrays to hold at least the given number of tanks
+	 * @param n		number of tanks
+	 */
+	private void ensureCapacity( int n ) {
+		if ( x != null && x.length >= n ) {
+			return;
+		}
+		int size = Math.max( n, ( x == null ) ? 0 : x.length * 2 );
+		x = grow( x, size );
+		y = grow( y, size );
+		barrelX = grow( barrelX, size );
+		barrelY = grow( barrelY, size );
+		lives = grow( lives, size );
+		color = grow( color, size );
+	}
+	/**
+	 * Grows the missile arrays to hold at least the given number of missiles
+	 * @param n		number of missiles
+	 */
+	private void ensureMissileCapacity( int n ) {
+		if ( missileX != null && missileX.length >= n ) {
+			return;
+		}
+		int size = Math.max( n, ( missileX == null ) ? 0 : missileX.length * 2 );
+		missileX = grow( missileX, size );
+		missileY = grow( missileY, size );
+		missileColor = grow( missileColor, size );
+	}
+	/**
+	 * Copies an array into a larger one
+	 * @param a		the array, or null
+	 * @param size	new length
+	 * @return		the larger array
+	 */
+	private static int[] grow( int[] a, int size ) {
+		int[] b = new int[size];
+		if ( a != null ) {
+			System.arraycopy( a, 0, b, 0, a.length );
+		}
+		return b;
+	}
+	/**
+	 * Returns the tick this snapshot was taken at
+	 * @return		tick number, or -1 if the snapshot is empty
+	 */
+	public long getTick() {
+		return tick;
+	}
+	/**
+	 * Returns the number of player tanks, which come first
+	 * @return		player count
+	 */
+	public int getPlayerCount() {
+		return playerCount;
+	}
+	/**
+	 * Returns the number of tanks in this snapshot
+	 * @return		tank count
+	 */
+	public int getTankCount() {
+		return tankCount;
+	}
+	/**
+	 * Returns a tank's center x-component
+	 * @param i		tank index
+	 * @return		center x-component
+	 */
+	public int getX( int i ) {
+		return x[i];
+	}
+	/**
+	 * Returns a tank's center y-component
+	 * @param i		tank index
+	 * @return		center y-component
+	 */
+	public int getY( int i ) {
+		return y[i];
+	}
+	/**
+	 * Returns a tank's barrel end point x-component
+	 * @param i		tank index
+	 * @return		barrel x-component
+	 */
+	public int getBarrelX( int i ) {
+		return x[i] + barrelX[i];
+	}
+	/**
+	 * Returns a tank's barrel end point y-component
+	 * @param i		tank index
+	 * @return		barrel y-component
+	 */
+	public int getBarrelY( int i ) {
+		return y[i] + barrelY[i];
+	}
+	/**
+	 * Returns a tank's lives
+	 * @param i		tank index
+	 * @return		lives left
+	 */
+	public int getLives( int i ) {
+		return lives[i];
+	}
+	/**
+	 * Returns a tank's color
+	 * @param i		tank index
+	 * @return		color as an RGB value
+	 */
+	public int getColor( int i ) {
+		return color[i];
+	}
+	/**
+	 * Returns the number of missiles in this snapshot
+	 * @return		missile count
+	 */
+	public int getMissileCount() {
+		return missileCount;
+	}
+	/**
+	 * Returns a missile's x-component
+	 * @param i		missile index
+	 * @return		missile x-component
+	 */
+	public int getMissileX( int i ) {
+		return missileX[i];
+	}
+	/**
+	 * Returns a missile's y-component
+	 * @param i		missile index
+	 * @return		missile y-component
+	 */
+	public int getMissileY( int i ) {
+		return missileY[i];
+	}
+	/**
+	 * Returns a missile's color
+	 * @param i		missile index
+	 * @return		color as an RGB value
+	 */
+	public int getMissileColor( int i ) {
+		return missileColor[i];
+	}
+	/**
+	 * Returns the number of brick hits the map had logged at this tick
+	 * @return		number of map changes
+	 */
+	public int getMapChanges() {
+		return mapChanges;
+	}
+}
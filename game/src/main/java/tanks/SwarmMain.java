@@ -0,0 +1,237 @@
+package tanks;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load tests networked play with a swarm of BotClients, entirely on one
+ * machine. By default it also starts the servers, one match per
+ * botsPerServer bots, all on loopback UDP. Given a server address, every
+ * bot joins that server instead, such as a ServerMain on another port.
+ * Usage: java SwarmMain [bots] [botsPerServer] [seconds] [threads]
+ *        [latencyMillis] [lossPercent] [host:port]
+ * The bots and servers are split between a fixed pool of threads, each
+ * updating its share about once a millisecond. Latency and loss are
+ * simulated on every socket, in each direction. At the end it prints the
+ * servers' tick time percentiles, the time from sending an input to
+ * receiving the snapshot that includes it, and what became of the inputs.
+ * @author Nicholas Grant
+ *
+ */
+public class SwarmMain {
+	/**
+	 * Seconds the swarm runs before it is measured
+	 */
+	private static final int WARM_UP_SECONDS = 2;
+	/**
+	 * Starts the swarm, runs it and prints the results.
+	 */
+	public static void main( String[] args ) throws Exception {
+		int bots = ( args.length > 0 ) ? Integer.parseInt( args[0] ) : 400;
+		int perServer = ( args.length > 1 ) ? Integer.parseInt( args[1] ) : 4;
+		int seconds = ( args.length > 2 ) ? Integer.parseInt( args[2] ) : 20;
+		int threads = ( args.length > 3 ) ? Integer.parseInt( args[3] )
+				: Runtime.getRuntime().availableProcessors();
+		int latency = ( args.length > 4 ) ? Integer.parseInt( args[4] ) : 0;
+		double loss = ( ( args.length > 5 ) ? Integer.parseInt( args[5] ) : 0 ) / 100.0;
+		InetSocketAddress external = ( args.length > 6 ) ? parseAddress( args[6] ) : null;
+		if ( args.length > 6 && external == null ) {
+			return;
+		}
+		GameMap map = GameMap.load( Panel.DEFAULT_MAP );
+		Random rand = new Random( 1 );
+		List<GameServer> servers = new ArrayList<>();
+		List<BotClient> swarm = new ArrayList<>();
+		try {
+			for ( int b = 0; b < bots; b++ ) {
+				InetSocketAddress to = external;
+				if ( to == null ) {
+					if ( b % perServer == 0 ) {
+						GameServer s = new GameServer( new GameWorld( 1, map, rand.nextLong() ), 0,
+								Panel.DEFAULT_TICKS_PER_SECOND );
+						s.getLink().setConditions( latency, latency / 4, loss );
+						servers.add( s );
+					}
+					int port = ( (InetSocketAddress)servers.get( servers.size() - 1 ).getAddress() ).getPort();
+					to = new InetSocketAddress( "127.0.0.1", port );
+				}
+				GameClient client = new GameClient( map, to, rand.nextLong() );
+				client.getLink().setConditions( latency, latency / 4, loss );
+				swarm.add( new BotClient( client, map, rand.nextLong() ) );
+			}
+		} catch (IOException e) {
+			System.out.println("Could not open socket " + ( swarm.size() + servers.size() + 1 )
+					+ ": " + e.getMessage());
+			closeAll( swarm, servers );
+			return;
+		}
+		System.out.printf( "%d bots, %d servers, %d threads, %d ms latency each way, %.0f%% loss%n",
+				bots, servers.size(), threads, latency, loss * 100 );
+		ExecutorService pool = Executors.newFixedThreadPool( threads );
+		long start = System.currentTimeMillis();
+		long measureFrom = start + WARM_UP_SECONDS * 1000L;
+		long end = measureFrom + seconds * 1000L;
+		List<Future<LatencyHistogram>> shares = new ArrayList<>();
+		for ( int t = 0; t < threads; t++ ) {
+			List<BotClient> myBots = new ArrayList<>();
+			List<GameServer> myServers = new ArrayList<>();
+			// a server and its bots share a thread
+			for ( int b = 0; b < swarm.size(); b++ ) {
+				if ( ( ( external == null ) ? b / perServer : b ) % threads == t ) {
+					myBots.add( swarm.get( b ) );
+				}
+			}
+			for ( int s = t; s < servers.size(); s += threads ) {
+				myServers.add( servers.get( s ) );
+			}
+			shares.add( pool.submit( () -> runShare( myBots, myServers, measureFrom, end ) ) );
+		}
+		LatencyHistogram snapshotLatency = new LatencyHistogram();
+		for ( Future<LatencyHistogram> f : shares ) {
+			snapshotLatency.add( f.get() );
+		}
+		pool.shutdown();
+		report( swarm, servers, snapshotLatency, seconds );
+		closeAll( swarm, servers );
+	}
+	/**
+	 * Updates a share of the bots and servers about once a millisecond until
+	 * the run ends. Runs on a pool thread.
+	 * @param myBots		the bots
+	 * @param myServers		the servers
+	 * @param measureFrom	time the warm up ends, in milliseconds since the epoch
+	 * @param end			time the run ends, in milliseconds since the epoch
+	 * @return				input to snapshot times after the warm up, in nanoseconds
+	 */
+	private static LatencyHistogram runShare( List<BotClient> myBots, List<GameServer> myServers,
+			long measureFrom, long end ) throws InterruptedException {
+		LatencyHistogram warmUp = new LatencyHistogram();
+		LatencyHistogram latency = new LatencyHistogram();
+		boolean measuring = false;
+		long now;
+		while ( ( now = System.currentTimeMillis() ) < end ) {
+			if ( !measuring && now >= measureFrom ) {
+				measuring = true;
+				for ( GameServer s : myServers ) {
+					s.getTickTimes().reset();
+				}
+			}
+			long millis = GameServer.millis();
+			for ( BotClient bot : myBots ) {
+				bot.update( millis, measuring ? latency : warmUp );
+			}
+			for ( GameServer s : myServers ) {
+				s.update( millis );
+			}
+			Thread.sleep( 1 );
+		}
+		return latency;
+	}
+	/**
+	 * Prints the results of a run
+	 * @param swarm				the bots
+	 * @param servers			the servers started, if any
+	 * @param snapshotLatency	input to snapshot times, in nanoseconds
+	 * @param seconds			seconds measured
+	 */
+	private static void report( List<BotClient> swarm, List<GameServer> servers,
+			LatencyHistogram snapshotLatency, int seconds ) {
+		int joined = 0;
+		long sent = 0;
+		long bytesUp = 0;
+		long bytesDown = 0;
+		for ( BotClient bot : swarm ) {
+			GameClient c = bot.getClient();
+			joined += c.isJoined() ? 1 : 0;
+			sent += c.getInputsSent();
+			bytesUp += c.getLink().getBytesSent();
+			bytesDown += c.getLink().getBytesReceived();
+		}
+		System.out.printf( "%d of %d bots joined; %.0f B/s up and %.0f B/s down per bot%n",
+				joined, swarm.size(), (double)bytesUp / swarm.size() / ( seconds + WARM_UP_SECONDS ),
+				(double)bytesDown / swarm.size() / ( seconds + WARM_UP_SECONDS ) );
+		if ( !servers.isEmpty() ) {
+			LatencyHistogram ticks = new LatencyHistogram();
+			long applied = 0;
+			long dropped = 0;
+			long late = 0;
+			for ( GameServer s : servers ) {
+				ticks.add( s.getTickTimes() );
+				for ( ClientConnection c : s.getClients() ) {
+					applied += c.getInputsApplied();
+					dropped += c.getInputsDropped();
+					late += c.getInputsLate();
+				}
+			}
+			System.out.printf( "server ticks: %d (%.0f/s), time p50 %s, p99 %s, p99.9 %s, max %s%n",
+					ticks.getCount(), (double)ticks.getCount() / seconds, micros( ticks.getPercentile( 50 ) ),
+					micros( ticks.getPercentile( 99 ) ), micros( ticks.getPercentile( 99.9 ) ),
+					micros( ticks.getMax() ) );
+			System.out.printf( "inputs: %d sent, %d applied, %d dropped (%.2f%%), %d ticks without one (%.2f%%)%n",
+					sent, applied, dropped, 100.0 * dropped / Math.max( 1, applied + dropped ),
+					late, 100.0 * late / Math.max( 1, applied + late ) );
+		}
+		else {
+			System.out.printf( "inputs: %d sent; server statistics are only kept for servers started here%n",
+					sent );
+		}
+		System.out.printf( "input to snapshot: %d timed, p50 %s, p99 %s, p99.9 %s, max %s%n",
+				snapshotLatency.getCount(), millis( snapshotLatency.getPercentile( 50 ) ),
+				millis( snapshotLatency.getPercentile( 99 ) ), millis( snapshotLatency.getPercentile( 99.9 ) ),
+				millis( snapshotLatency.getMax() ) );
+	}
+	/**
+	 * Formats a duration in microseconds
+	 * @param nanos		duration in nanoseconds
+	 * @return			formatted duration
+	 */
+	private static String micros( long nanos ) {
+		return String.format( "%.0f us", nanos / 1e3 );
+	}
+	/**
+	 * Formats a duration in milliseconds
+	 * @param nanos		duration in nanoseconds
+	 * @return			formatted duration
+	 */
+	private static String millis( long nanos ) {
+		return String.format( "%.1f ms", nanos / 1e6 );
+	}
+	/**
+	 * Parses a server address such as localhost:27960
+	 * @param s		the address
+	 * @return		the address, or null if it isn't valid
+	 */
+	private static InetSocketAddress parseAddress( String s ) {
+		int colon = s.lastIndexOf( ':' );
+		try {
+			if ( colon > 0 ) {
+				return new InetSocketAddress( s.substring( 0, colon ),
+						Integer.parseInt( s.substring( colon + 1 ) ) );
+			}
+		} catch (IllegalArgumentException e) {
+			// reported below
+		}
+		System.out.println("Invalid server address: " + s);
+		return null;
+	}
+	/**
+	 * Tells the servers the bots are leaving and closes every socket
+	 * @param swarm		the bots
+	 * @param servers	the servers started, if any
+	 */
+	private static void closeAll( List<BotClient> swarm, List<GameServer> servers ) {
+		for ( BotClient bot : swarm ) {
+			bot.getClient().leave();
+			bot.getClient().close();
+		}
+		for ( GameServer s : servers ) {
+			s.close();
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package tanks;
+
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * Represents a generic tank object. A Tank is a handle onto one slot of a
+ * TankStore, which holds the actual state; drawing is done by Panel.
+ * @author Nicholas Grant
+ *
+ */
+public class Tank {
+	/**
+	 * The store holding the tank's state
+	 */
+	private final TankStore store;
+	/**
+	 * The tank's slot in the store, or -1 once removed
+	 */
+	private int index;
+	/**
+	 * Creates a handle onto a slot of a store. Tanks are created by TankStore.add().
+	 * @param s		the store holding the tank's state
+	 * @param i		the tank's slot
+	 */
+	Tank( TankStore s, int i ) {
+		store = s;
+		index = i;
+	}
+	/**
+	 * Moves the handle to a new slot when the store packs its slots
+	 * @param i		the tank's new slot, or -1 once removed
+	 */
+	void setIndex( int i ) {
+		index = i;
+	}
+	/**
+	 * Returns the tank's slot in its store
+	 * @return		tank slot, or -1 once removed
+	 */
+	public int getIndex() {
+		return index;
+	}
+	/**
+	 * Returns the store holding the tank's state
+	 * @return		the tank's store
+	 */
+	public TankStore getStore() {
+		return store;
+	}
+	/**
+	 * Returns the x-component of the center of the tank
+	 * @return		center x-component
+	 */
+	public int getX() {
+		return store.getX( index );
+	}
+	/**
+	 * Returns the y-component of the center of the tank
+	 * @return		center y-component
+	 */
+	public int getY() {
+		return store.getY( index );
+	}
+	/**
+	 * Places the center of the tank
+	 * @param x		center x-component
+	 * @param y		center y-component
+	 */
+	public void setLocation( int x, int y ) {
+		store.setLocation( index, x, y );
+	}
+	/**
+	 * Returns the number of missiles the tank has in flight
+	 * @return		missiles in flight
+	 */
+	public int getMissileCount() {
+		return store.getMissileCount( index );
+	}
+	/**
+	 * Sets the number of missiles the tank can have in flight at once
+	 * @param n		missile limit
+	 */
+	public void setMissileLimit( int n ) {
+		store.setMissileLimit( index, n );
+	}
+	/**
+	 * Sets the number of ticks the tank waits between shots
+	 * @param r		reload ticks
+	 */
+	public void setReload( int r ) {
+		store.setReload( index, r );
+	}
+	/**
+	 * Checks to see if the tank can fire
+	 * @return		true if the tank has reloaded and has a missile to spare
+	 */
+	public boolean canFire() {
+		return store.canFire( index );
+	}
+	/**
+	 * Returns the x-component of the tank's barrel's end point
+	 * @return		barrel end point x-component
+	 */
+	public int getBarrelX() {
+		return store.getBarrelX( index );
+	}
+	/**
+	 * Returns the y-component of the tank's barrel's end point
+	 * @return		barrel end point y-component
+	 */
+	public int getBarrelY() {
+		return store.getBarrelY( index );
+	}
+	/**
+	 * Returns the width of the tank's bounding rectangle
+	 * @return		width of tank's bounding rectangle
+	 */
+	public int getWidth() {
+		return TankStore.TANK_SIZE;
+	}
+	/**
+	 * Returns the height of the tank's bounding rectangle
+	 * @return		height of tank's bounding rectangle
+	 */
+	public int getHeight() {
+		return TankStore.TANK_SIZE;
+	}
+	/**
+	 * Returns the color of the tank
+	 * @return		tank color
+	 */
+	public Color getColor() {
+		return store.getColor( index );
+	}
+	/**
+	 * Returns the x-component of the tank's center before its last update
+	 * @return		previous center x-component
+	 */
+	public int getPrevX() {
+		return store.getPrevX( index );
+	}
+	/**
+	 * Returns the y-component of the tank's center before its last update
+	 * @return		previous center y-component
+	 */
+	public int getPrevY() {
+		return store.getPrevY( index );
+	}
+	/**
+	 * Returns the direction of the tank
+	 * @return		tank direction
+	 */
+	public int getDirection() {
+		return store.getDirection( index );
+	}
+	/**
+	 * Sets the direction of the tank
+	 * @param d		desired tank direction
+	 */
+	public void setDirection( int d ) {
+		store.setDirection( index, d );
+	}
+	/**
+	 * Returns the tank's lives
+	 * @return		tank's lives
+	 */
+	public int getLives() {
+		return store.getLives( index );
+	}
+	/**
+	 * Sets the tank's lives
+	 * @param l		tank's lives
+	 */
+	public void setLives( int l ) {
+		store.setLives( index, l );
+	}
+	/**
+	 * Reduces the tank's lives by 1 when shot
+	 */
+	public void reduceLives() {
+		store.setLives( index, store.getLives( index ) - 1 );
+	}
+	/**
+	 * Advances the tank by one simulation tick: counts down its reload, aims
+	 * the barrel and moves the tank.
+	 * @param aimX		x-component of the point the barrel aims at
+	 * @param aimY		y-component of the point the barrel aims at
+	 */
+	public void update( int aimX, int aimY ) {
+		store.update( index, aimX, aimY );
+	}
+	/**
+	 * Checks to see if a missile hit the tank
+	 * @param x		the missile location's x-component
+	 * @param y		the missile location's y-component
+	 * @return		true if hit, false if not hit
+	 */
+	public boolean testHit( int x, int y ) {
+		return store.testHit( index, x, y );
+	}
+	/**
+	 * Points the tank's barrel's end point toward the given location
+	 * @param x		x-component of the aimed location
+	 * @param y		y-component of the aimed location
+	 */
+	public void aimAt( int x, int y ) {
+		store.aimAt( index, x, y );
+	}
+	/**
+	 * Checks to see if the tank moved by the given amount would collide with
+	 * an obstacle, without moving it
+	 * @param dx		tank movement in x direction
+	 * @param dy		tank movement in y direction
+	 * @return			true if collide, false if not
+	 */
+	public boolean checkCollision( int dx, int dy ) {
+		return store.checkCollision( index, dx, dy );
+	}
+	/**
+	 * Moves the tank based on its direction
+	 */
+	public void moveTank( ) {
+		store.moveTank( index );
+	}
+	/**
+	 * Moves the tank randomly
+	 * @param rand	the world's random number generator
+	 */
+	public void moveRandom( Random rand ) {
+		store.moveRandom( index, rand );
+	}
+	/**
+	 * Shoots a missile towards the target tank, if the tank can fire
+	 * @param t		target tank
+	 * @return		the missile, or null if the tank can't fire
+	 */
+	public Missile shootToward( Tank t ) {
+		int m = store.shootToward( index, t.getX(), t.getY() );
+		return ( m < 0 ) ? null : store.getMissiles().get( m );
+	}
+	/**
+	 * Fires a missile at another tank, aimed by the tank's aim strategy
+	 * @param t		the target tank
+	 */
+	public void fireAt( Tank t ) {
+		store.fireAt( index, t.getStore(), t.getIndex() );
+	}
+	/**
+	 * Returns how the tank aims its shots
+	 * @return		the tank's aim strategy
+	 */
+	public AimStrategy getAimStrategy() {
+		return store.getAimStrategy( index );
+	}
+	/**
+	 * Sets how the tank aims its shots
+	 * @param a		the tank's aim strategy
+	 */
+	public void setAimStrategy( AimStrategy a ) {
+		store.setAimStrategy( index, a );
+	}
+}
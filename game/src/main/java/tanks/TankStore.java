@@ -0,0 +1,756 @@
+package tanks;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Stores the state of a group of tanks in parallel primitive arrays, one slot
+ * per tank, so the per-tick loops run over plain arrays instead of chasing one
+ * object per tank. Tank objects are lightweight handles onto a slot. Removing
+ * a tank moves the last tank into its slot, so slots stay packed; handles are
+ * updated when their tank moves. The tanks' missiles are kept in the store's
+ * MissileStore; each tank can have up to its missile limit in flight and must
+ * wait its reload time between shots.
+ * @author Nicholas Grant
+ *
+ */
+public class TankStore {
+	/**
+	 * Width and height of a tank's bounding rectangle
+	 */
+	public static final int TANK_SIZE = 13;
+	/**
+	 * Distance a tank moves per tick in each direction
+	 */
+	private static final int STEP = 2;
+	/**
+	 * Change in x for each direction, indexed by direction + 4
+	 */
+	private static final int[] DIRECTION_DX = { -STEP, -STEP, -STEP, 0, 0, 0, STEP, STEP, STEP };
+	/**
+	 * Change in y for each direction, indexed by direction + 4
+	 */
+	private static final int[] DIRECTION_DY = { STEP, -STEP, 0, -STEP, 0, STEP, 0, -STEP, STEP };
+	/**
+	 * Direction for each sign of x and y movement, indexed by (sy + 1) * 3 + (sx + 1)
+	 */
+	private static final int[] DIRECTION_OF = { -3, -1, 3, -2, 0, 2, -4, 1, 4 };
+	/**
+	 * Default missile speed
+	 */
+	private static final int MISSILE_MOVE = 5;
+	/**
+	 * Number of lives a tank starts with
+	 */
+	public static final int START_LIVES = 5;
+	/**
+	 * Default number of missiles a tank can have in flight at once
+	 */
+	private static final int MISSILE_LIMIT = 1;
+	/**
+	 * Aim strategy given to new tanks
+	 */
+	private static final AimStrategy DIRECT_AIM = new DirectAim();
+	/**
+	 * The shared game map the tanks move on
+	 */
+	private final GameMap map;
+	/**
+	 * Number of tanks stored
+	 */
+	private int count;
+	/**
+	 * Handles onto each slot
+	 */
+	private Tank[] handles;
+	/**
+	 * Tank center x-components
+	 */
+	private int[] x;
+	/**
+	 * Tank center y-components
+	 */
+	private int[] y;
+	/**
+	 * Tank center x-components at the start of the last tick
+	 */
+	private int[] prevX;
+	/**
+	 * Tank center y-components at the start of the last tick
+	 */
+	private int[] prevY;
+	/**
+	 * Tank directions
+	 */
+	private int[] direction;
+	/**
+	 * Tank lives
+	 */
+	private int[] lives;
+	/**
+	 * Barrel end point x-components
+	 */
+	private int[] barrelX;
+	/**
+	 * Barrel end point y-components
+	 */
+	private int[] barrelY;
+	/**
+	 * Tank colors
+	 */
+	private Color[] color;
+	/**
+	 * Missile speeds
+	 */
+	private int[] missileMove;
+	/**
+	 * Missile colors
+	 */
+	private Color[] missileColor;
+	/**
+	 * How each tank aims its shots
+	 */
+	private AimStrategy[] aim;
+	/**
+	 * Number of missiles each tank can have in flight at once
+	 */
+	private int[] missileLimit;
+	/**
+	 * Ticks each tank waits between shots
+	 */
+	private int[] reload;
+	/**
+	 * Ticks until each tank can fire again
+	 */
+	private int[] cooldown;
+	/**
+	 * Sum of every tank's missile limit, the pool capacity needed for every
+	 * tank to fire all its missiles
+	 */
+	private int missileSlots;
+	/**
+	 * Pool of the missiles fired by the tanks
+	 */
+	private final MissileStore missiles;
+	/**
+	 * Creates an empty store
+	 * @param m		the shared game map the tanks move on
+	 */
+	public TankStore( GameMap m ) {
+		map = m;
+		missiles = new MissileStore( m, 4 * MISSILE_LIMIT );
+		grow( 4 );
+	}
+	/**
+	 * Adds a tank to the store
+	 * @param tx	x-component of tank center
+	 * @param ty	y-component of tank center
+	 * @param d		direction of tank
+	 * @param c		color of tank
+	 * @return		handle onto the new tank
+	 */
+	public Tank add( int tx, int ty, int d, Color c ) {
+		if ( count == x.length ) {
+			grow( count * 2 );
+		}
+		int i = count++;
+		x[i] = prevX[i] = barrelX[i] = tx;
+		y[i] = prevY[i] = barrelY[i] = ty;
+		direction[i] = d;
+		lives[i] = START_LIVES;
+		color[i] = c;
+		missileMove[i] = MISSILE_MOVE;
+		missileColor[i] = Color.WHITE;
+		aim[i] = DIRECT_AIM;
+		missileLimit[i] = MISSILE_LIMIT;
+		reload[i] = 0;
+		cooldown[i] = 0;
+		missileSlots += MISSILE_LIMIT;
+		missiles.ensureCapacity( missileSlots );
+		handles[i] = new Tank( this, i );
+		return handles[i];
+	}
+	/**
+	 * Removes a tank, moving the last tank into its slot. The removed tank's
+	 * handle is detached and must not be used afterwards.
+	 * @param i		slot of the tank to remove
+	 */
+	public void remove( int i ) {
+		int last = --count;
+		handles[i].setIndex( -1 );
+		missileSlots -= missileLimit[i];
+		missiles.ownerRemoved( i, last );
+		if ( i != last ) {
+			x[i] = x[last];
+			y[i] = y[last];
+			prevX[i] = prevX[last];
+			prevY[i] = prevY[last];
+			direction[i] = direction[last];
+			lives[i] = lives[last];
+			barrelX[i] = barrelX[last];
+			barrelY[i] = barrelY[last];
+			color[i] = color[last];
+			missileMove[i] = missileMove[last];
+			missileColor[i] = missileColor[last];
+			aim[i] = aim[last];
+			missileLimit[i] = missileLimit[last];
+			reload[i] = reload[last];
+			cooldown[i] = cooldown[last];
+			handles[i] = handles[last];
+			handles[i].setIndex( i );
+		}
+		handles[last] = null;
+		color[last] = null;
+		missileColor[last] = null;
+		aim[last] = null;
+	}
+	/**
+	 * Grows every array to the given capacity
+	 * @param n		new capacity
+	 */
+	private void grow( int n ) {
+		handles = ( handles == null ) ? new Tank[n] : Arrays.copyOf( handles, n );
+		x = ( x == null ) ? new int[n] : Arrays.copyOf( x, n );
+		y = ( y == null ) ? new int[n] : Arrays.copyOf( y, n );
+		prevX = ( prevX == null ) ? new int[n] : Arrays.copyOf( prevX, n );
+		prevY = ( prevY == null ) ? new int[n] : Arrays.copyOf( prevY, n );
+		direction = ( direction == null ) ? new int[n] : Arrays.copyOf( direction, n );
+		lives = ( lives == null ) ? new int[n] : Arrays.copyOf( lives, n );
+		barrelX = ( barrelX == null ) ? new int[n] : Arrays.copyOf( barrelX, n );
+		barrelY = ( barrelY == null ) ? new int[n] : Arrays.copyOf( barrelY, n );
+		color = ( color == null ) ? new Color[n] : Arrays.copyOf( color, n );
+		missileMove = ( missileMove == null ) ? new int[n] : Arrays.copyOf( missileMove, n );
+		missileColor = ( missileColor == null ) ? new Color[n] : Arrays.copyOf( missileColor, n );
+		aim = ( aim == null ) ? new AimStrategy[n] : Arrays.copyOf( aim, n );
+		missileLimit = ( missileLimit == null ) ? new int[n] : Arrays.copyOf( missileLimit, n );
+		reload = ( reload == null ) ? new int[n] : Arrays.copyOf( reload, n );
+		cooldown = ( cooldown == null ) ? new int[n] : Arrays.copyOf( cooldown, n );
+		missiles.ensureOwners( n );
+	}
+	/**
+	 * Returns the number of tanks stored
+	 * @return		tank count
+	 */
+	public int size() {
+		return count;
+	}
+	/**
+	 * Returns whether the store holds no tanks
+	 * @return		true if empty, false otherwise
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+	/**
+	 * Returns the handle onto a tank
+	 * @param i		tank slot
+	 * @return		the tank's handle
+	 */
+	public Tank get( int i ) {
+		return handles[i];
+	}
+	/**
+	 * Returns the shared game map the tanks move on
+	 * @return		the game map
+	 */
+	public GameMap getMap() {
+		return map;
+	}
+	/**
+	 * Advances every tank and missile by one simulation tick, aiming all
+	 * barrels at one point
+	 * @param aimX		x-component of the point the barrels aim at
+	 * @param aimY		y-component of the point the barrels aim at
+	 */
+	public void updateAll( int aimX, int aimY ) {
+		for ( int i = 0; i < count; i++ ) {
+			update( i, aimX, aimY );
+		}
+		missiles.updateAll();
+	}
+	/**
+	 * Advances a tank by one simulation tick: counts down its reload, aims the
+	 * barrel and moves the tank. Its missiles are moved by updateMissiles().
+	 * @param i			tank slot
+	 * @param aimX		x-component of the point the barrel aims at
+	 * @param aimY		y-component of the point the barrel aims at
+	 */
+	public void update( int i, int aimX, int aimY ) {
+		prevX[i] = x[i];
+		prevY[i] = y[i];
+		if ( cooldown[i] > 0 ) {
+			cooldown[i]--;
+		}
+		aimAt( i, aimX, aimY );
+		moveTank( i );
+	}
+	/**
+	 * Advances every missile fired by the tanks by one simulation tick,
+	 * recycling the missiles that have run into an obstacle
+	 */
+	public void updateMissiles() {
+		missiles.updateAll();
+	}
+	/**
+	 * Points a tank's barrel's end point toward the given location
+	 * @param i		tank slot
+	 * @param tx	x-component of the aimed location
+	 * @param ty	y-component of the aimed location
+	 */
+	public void aimAt( int i, int tx, int ty ) {
+		int dx = tx - x[i];
+		int dy = ty - y[i];
+		double magnitude = Math.sqrt( (double)dx * dx + (double)dy * dy );
+		if ( magnitude == 0 ) {
+			return;
+		}
+		barrelX[i] = (int)( ( dx * TANK_SIZE ) / magnitude ) + x[i];
+		barrelY[i] = (int)( ( dy * TANK_SIZE ) / magnitude ) + y[i];
+	}
+	/**
+	 * Moves a tank one step in its direction, staying put if the step would
+	 * run into an obstacle
+	 * @param i		tank slot
+	 */
+	public void moveTank( int i ) {
+		int d = direction[i];
+		if ( canMove( map, x[i], y[i], d ) ) {
+			x[i] += getStepX( d );
+			y[i] += getStepY( d );
+		}
+	}
+	/**
+	 * Checks to see if a tank moved by the given amount would collide with an
+	 * obstacle. The tank isn't moved.
+	 * @param i		tank slot
+	 * @param dx	tank movement in x direction
+	 * @param dy	tank movement in y direction
+	 * @return		true if collide, false if not
+	 */
+	public boolean checkCollision( int i, int dx, int dy ) {
+		return collides( map, x[i] + dx, y[i] + dy );
+	}
+	/**
+	 * Checks to see if a tank centered at a point would collide with an
+	 * obstacle. Depends only on its arguments, so a client can predict moves
+	 * with the same rule the server applies.
+	 * @param m		the map
+	 * @param cx	x-component of tank center
+	 * @param cy	y-component of tank center
+	 * @return		true if collide, false if not
+	 */
+	public static boolean collides( GameMap m, int cx, int cy ) {
+		return m.hitsObstacle( cx - TANK_SIZE/2, cy - TANK_SIZE/2, TANK_SIZE, TANK_SIZE );
+	}
+	/**
+	 * Checks to see if a tank centered at a point can take one step in a
+	 * direction. Depends only on its arguments.
+	 * @param m		the map
+	 * @param cx	x-component of tank center
+	 * @param cy	y-component of tank center
+	 * @param d		direction of the step
+	 * @return		true if the tank moves, false if it stays put
+	 */
+	public static boolean canMove( GameMap m, int cx, int cy, int d ) {
+		if ( d < -4 || d > 4 || d == 0 ) {
+			return false;
+		}
+		return !collides( m, cx + DIRECTION_DX[d + 4], cy + DIRECTION_DY[d + 4] );
+	}
+	/**
+	 * Returns the change in x of one step in a direction
+	 * @param d		direction, from -4 to 4
+	 * @return		change in x
+	 */
+	public static int getStepX( int d ) {
+		return DIRECTION_DX[d + 4];
+	}
+	/**
+	 * Returns the change in y of one step in a direction
+	 * @param d		direction, from -4 to 4
+	 * @return		change in y
+	 */
+	public static int getStepY( int d ) {
+		return DIRECTION_DY[d + 4];
+	}
+	/**
+	 * Picks a random direction for a tank and moves it
+	 * @param i		tank slot
+	 * @param rand	the world's random number generator
+	 */
+	public void moveRandom( int i, Random rand ) {
+		direction[i] = rand.nextInt( 9 ) - 4;
+		moveTank( i );
+	}
+	/**
+	 * Steers a tank toward a location. If a diagonal step is blocked, the tank
+	 * slides along the wall by trying each of the step's axes on its own.
+	 * @param i		tank slot
+	 * @param tx	x-component of the location
+	 * @param ty	y-component of the location
+	 */
+	public void moveToward( int i, int tx, int ty ) {
+		int sx = steer( tx - x[i] );
+		int sy = steer( ty - y[i] );
+		direction[i] = DIRECTION_OF[( sy + 1 ) * 3 + sx + 1];
+		if ( direction[i] == 0 ) {
+			return;
+		}
+		int fromX = x[i];
+		int fromY = y[i];
+		moveTank( i );
+		if ( x[i] == fromX && y[i] == fromY && sx != 0 && sy != 0 ) {
+			direction[i] = DIRECTION_OF[4 + sx];
+			moveTank( i );
+			if ( x[i] == fromX ) {
+				direction[i] = DIRECTION_OF[( sy + 1 ) * 3 + 1];
+				moveTank( i );
+			}
+		}
+	}
+	/**
+	 * Picks the sign of a move along one axis, standing still when closer than
+	 * a step so the tank doesn't jitter around the location
+	 * @param d		distance to the location along the axis
+	 * @return		-1, 0 or 1
+	 */
+	private static int steer( int d ) {
+		return ( d >= STEP ) ? 1 : ( d <= -STEP ) ? -1 : 0;
+	}
+	/**
+	 * Checks to see if a point lies inside a tank's bounding rectangle
+	 * @param i		tank slot
+	 * @param px	the point's x-component
+	 * @param py	the point's y-component
+	 * @return		true if hit, false if not hit
+	 */
+	public boolean testHit( int i, int px, int py ) {
+		int left = x[i] - TANK_SIZE/2;
+		int top = y[i] - TANK_SIZE/2;
+		return px >= left && py >= top && px < left + TANK_SIZE && py < top + TANK_SIZE;
+	}
+	/**
+	 * Fires a missile of a tank at a target tank, aimed by the tank's aim
+	 * strategy, if the tank can fire
+	 * @param i			tank slot
+	 * @param targets	store holding the target tank
+	 * @param t			slot of the target tank
+	 */
+	public void fireAt( int i, TankStore targets, int t ) {
+		aim[i].fire( this, i, targets, t );
+	}
+	/**
+	 * Checks to see if a tank can fire: it has reloaded, has fewer than its
+	 * missile limit in flight, and the missile pool isn't full
+	 * @param i		tank slot
+	 * @return		true if the tank can fire, false otherwise
+	 */
+	public boolean canFire( int i ) {
+		return cooldown[i] == 0 && missiles.getInFlight( i ) < missileLimit[i]
+				&& missiles.size() < missiles.getCapacity();
+	}
+	/**
+	 * Launches a missile from a tank's barrel toward a target
+	 * @param i		tank slot
+	 * @param tx	target x-component
+	 * @param ty	target y-component
+	 * @return		slot of the missile in the missile store, or -1 if the tank can't fire
+	 */
+	public int shootToward( int i, int tx, int ty ) {
+		return launch( i, barrelX[i], barrelY[i], tx, ty );
+	}
+	/**
+	 * Launches a missile of a tank from the given start location toward a
+	 * target, if the tank can fire, and starts the tank's reload
+	 * @param i			tank slot
+	 * @param fromX		start location's x-component
+	 * @param fromY		start location's y-component
+	 * @param toX		target location's x-component
+	 * @param toY		target location's y-component
+	 * @return			slot of the missile in the missile store, or -1 if the tank can't fire
+	 */
+	public int launch( int i, int fromX, int fromY, int toX, int toY ) {
+		if ( !canFire( i ) ) {
+			return -1;
+		}
+		cooldown[i] = reload[i];
+		return missiles.launch( i, fromX, fromY, toX, toY, missileMove[i], missileColor[i] );
+	}
+	/**
+	 * Checks to see if a line segment passes through a tank's bounding rectangle.
+	 * Missiles are tested along the segment they moved over in the last tick, so
+	 * a missile that moves further than a tank's size per tick still hits it.
+	 * @param i		tank slot
+	 * @param x0	the segment's start x-component
+	 * @param y0	the segment's start y-component
+	 * @param x1	the segment's end x-component
+	 * @param y1	the segment's end y-component
+	 * @return		true if hit, false if not hit
+	 */
+	public boolean testHit( int i, double x0, double y0, double x1, double y1 ) {
+		int left = x[i] - TANK_SIZE/2;
+		int top = y[i] - TANK_SIZE/2;
+		// clip the segment's 0 to 1 range against the rectangle's x and y slabs
+		double enter = 0;
+		double exit = 1;
+		double dx = x1 - x0;
+		if ( dx == 0 ) {
+			if ( x0 < left || x0 >= left + TANK_SIZE ) {
+				return false;
+			}
+		}
+		else {
+			double a = ( left - x0 ) / dx;
+			double b = ( left + TANK_SIZE - x0 ) / dx;
+			enter = Math.max( enter, Math.min( a, b ) );
+			exit = Math.min( exit, Math.max( a, b ) );
+		}
+		double dy = y1 - y0;
+		if ( dy == 0 ) {
+			if ( y0 < top || y0 >= top + TANK_SIZE ) {
+				return false;
+			}
+		}
+		else {
+			double a = ( top - y0 ) / dy;
+			double b = ( top + TANK_SIZE - y0 ) / dy;
+			enter = Math.max( enter, Math.min( a, b ) );
+			exit = Math.min( exit, Math.max( a, b ) );
+		}
+		return enter <= exit;
+	}
+	/**
+	 * Checks to see if a missile passed through a tank's bounding rectangle
+	 * during its last move
+	 * @param i			slot of the tank that may be hit
+	 * @param s			store holding the missile
+	 * @param m			slot of the missile in its store
+	 * @return			true if hit, false if not hit
+	 */
+	public boolean testMissileHit( int i, MissileStore s, int m ) {
+		return testHit( i, s.getPrevX( m ), s.getPrevY( m ), s.getX( m ), s.getY( m ) );
+	}
+	/**
+	 * Returns a tank's center x-component
+	 * @param i		tank slot
+	 * @return		center x-component
+	 */
+	public int getX( int i ) {
+		return x[i];
+	}
+	/**
+	 * Returns a tank's center y-component
+	 * @param i		tank slot
+	 * @return		center y-component
+	 */
+	public int getY( int i ) {
+		return y[i];
+	}
+	/**
+	 * Places a tank's center
+	 * @param i		tank slot
+	 * @param tx	center x-component
+	 * @param ty	center y-component
+	 */
+	public void setLocation( int i, int tx, int ty ) {
+		x[i] = tx;
+		y[i] = ty;
+	}
+	/**
+	 * Returns a tank's center x-component before its last update
+	 * @param i		tank slot
+	 * @return		previous center x-component
+	 */
+	public int getPrevX( int i ) {
+		return prevX[i];
+	}
+	/**
+	 * Returns a tank's center y-component before its last update
+	 * @param i		tank slot
+	 * @return		previous center y-component
+	 */
+	public int getPrevY( int i ) {
+		return prevY[i];
+	}
+	/**
+	 * Returns a tank's direction
+	 * @param i		tank slot
+	 * @return		tank direction
+	 */
+	public int getDirection( int i ) {
+		return direction[i];
+	}
+	/**
+	 * Sets a tank's direction
+	 * @param i		tank slot
+	 * @param d		tank direction
+	 */
+	public void setDirection( int i, int d ) {
+		direction[i] = d;
+	}
+	/**
+	 * Returns how far a tank moves in x per tick in its current direction
+	 * @param i		tank slot
+	 * @return		change in x per tick
+	 */
+	public int getVelocityX( int i ) {
+		int d = direction[i];
+		return ( d < -4 || d > 4 ) ? 0 : DIRECTION_DX[d + 4];
+	}
+	/**
+	 * Returns how far a tank moves in y per tick in its current direction
+	 * @param i		tank slot
+	 * @return		change in y per tick
+	 */
+	public int getVelocityY( int i ) {
+		int d = direction[i];
+		return ( d < -4 || d > 4 ) ? 0 : DIRECTION_DY[d + 4];
+	}
+	/**
+	 * Returns how a tank aims its shots
+	 * @param i		tank slot
+	 * @return		the tank's aim strategy
+	 */
+	public AimStrategy getAimStrategy( int i ) {
+		return aim[i];
+	}
+	/**
+	 * Sets how a tank aims its shots
+	 * @param i		tank slot
+	 * @param a		the tank's aim strategy
+	 */
+	public void setAimStrategy( int i, AimStrategy a ) {
+		aim[i] = a;
+	}
+	/**
+	 * Returns a tank's lives
+	 * @param i		tank slot
+	 * @return		tank lives
+	 */
+	public int getLives( int i ) {
+		return lives[i];
+	}
+	/**
+	 * Sets a tank's lives
+	 * @param i		tank slot
+	 * @param l		tank lives
+	 */
+	public void setLives( int i, int l ) {
+		lives[i] = l;
+	}
+	/**
+	 * Returns a tank's barrel end point x-component
+	 * @param i		tank slot
+	 * @return		barrel x-component
+	 */
+	public int getBarrelX( int i ) {
+		return barrelX[i];
+	}
+	/**
+	 * Returns a tank's barrel end point y-component
+	 * @param i		tank slot
+	 * @return		barrel y-component
+	 */
+	public int getBarrelY( int i ) {
+		return barrelY[i];
+	}
+	/**
+	 * Returns a tank's color
+	 * @param i		tank slot
+	 * @return		tank color
+	 */
+	public Color getColor( int i ) {
+		return color[i];
+	}
+	/**
+	 * Returns the pool of missiles fired by the tanks
+	 * @return		the missile store
+	 */
+	public MissileStore getMissiles() {
+		return missiles;
+	}
+	/**
+	 * Returns the number of missiles a tank has in flight
+	 * @param i		tank slot
+	 * @return		missiles in flight
+	 */
+	public int getMissileCount( int i ) {
+		return missiles.getInFlight( i );
+	}
+	/**
+	 * Returns the number of missiles a tank can have in flight at once
+	 * @param i		tank slot
+	 * @return		missile limit
+	 */
+	public int getMissileLimit( int i ) {
+		return missileLimit[i];
+	}
+	/**
+	 * Sets the number of missiles a tank can have in flight at once, growing
+	 * the missile pool if needed
+	 * @param i		tank slot
+	 * @param n		missile limit
+	 */
+	public void setMissileLimit( int i, int n ) {
+		missileSlots += n - missileLimit[i];
+		missileLimit[i] = n;
+		missiles.ensureCapacity( missileSlots );
+	}
+	/**
+	 * Returns the number of ticks a tank waits between shots
+	 * @param i		tank slot
+	 * @return		reload ticks
+	 */
+	public int getReload( int i ) {
+		return reload[i];
+	}
+	/**
+	 * Sets the number of ticks a tank waits between shots
+	 * @param i		tank slot
+	 * @param r		reload ticks
+	 */
+	public void setReload( int i, int r ) {
+		reload[i] = r;
+	}
+	/**
+	 * Returns the number of ticks until a tank can fire again
+	 * @param i		tank slot
+	 * @return		ticks left to reload
+	 */
+	public int getCooldown( int i ) {
+		return cooldown[i];
+	}
+	/**
+	 * Sets the number of ticks until a tank can fire again
+	 * @param i		tank slot
+	 * @param c		ticks left to reload
+	 */
+	public void setCooldown( int i, int c ) {
+		cooldown[i] = c;
+	}
+	/**
+	 * Returns the speed of a tank's missiles
+	 * @param i		tank slot
+	 * @return		missile speed
+	 */
+	public int getMissileMove( int i ) {
+		return missileMove[i];
+	}
+	/**
+	 * Sets the speed of a tank's missiles
+	 * @param i		tank slot
+	 * @param m		missile speed
+	 */
+	public void setMissileMove( int i, int m ) {
+		missileMove[i] = m;
+	}
+	/**
+	 * Returns the color of a tank's missiles
+	 * @param i		tank slot
+	 * @return		missile color
+	 */
+	public Color getMissileColor( int i ) {
+		return missileColor[i];
+	}
+}
@@ -0,0 +1,96 @@
+package tanks;
+
+import java.util.Scanner;
+
+/**
+ * Used to run the game.
+ * Usage: java TanksMain [replayFile [mapFile [profileFile]]]
+ * Given a replay file name, the match is recorded to it and can be played
+ * again with ReplayMain. The map file defaults to Panel.DEFAULT_MAP; maps of
+ * any size can be played, and the view scrolls with the player. map2.txt is
+ * the default map with its four corner pillars made of bricks. An empty
+ * replay file name plays the map without recording. The game is profiled by
+ * a TickProfiler registered as an MBean; given a profile file name, or "-"
+ * for standard output, its report is written there when the game exits.
+ * @author Nicholas Grant
+ *
+ */
+public class TanksMain {
+	/**
+	 * Largest number of enemies allowed in horde mode
+	 */
+	public static final int MAX_HORDE = 10000;
+	/**
+	 * Reads the user's input; shared so System.in stays open between questions
+	 */
+	private static final Scanner IN = new Scanner( System.in );
+	/**
+	 * Passes the user's difficulty choice into the frame object.
+	 */
+	public static void main( String[] args ) {
+		
+		int difficulty = difficultyMenu();
+		GameMap map = GameMap.load( ( args.length > 1 ) ? args[1] : Panel.DEFAULT_MAP );
+		GameWorld world;
+		if ( difficulty == GameWorld.HORDE ) {
+			System.out.println("How many enemies? (1-" + MAX_HORDE + ")");
+			int count = getValidInt( 1, MAX_HORDE );
+			world = GameWorld.createHorde( map, count );
+		}
+		else {
+			world = new GameWorld( difficulty, map );
+		}
+		TickProfiler profiler = new TickProfiler( "game" );
+		profiler.register();
+		world.setProfiler( profiler );
+		if ( args.length > 2 ) {
+			Runtime.getRuntime().addShutdownHook( new Thread( () -> profiler.save( args[2] ) ) );
+		}
+		ReplayRecorder recorder = null;
+		if ( args.length > 0 && !args[0].isEmpty() ) {
+			recorder = new ReplayRecorder( args[0], world );
+			// keep the ticks recorded so far if the window is closed mid-match
+			Runtime.getRuntime().addShutdownHook( new Thread( recorder::close ) );
+		}
+		new Frame( world, recorder );
+	}
+	/**
+	 * Handles getting the user's desired difficulty
+	 * @return		the user's difficulty
+	 */
+	public static int difficultyMenu() {
+		System.out.println("Select a difficulty: ");
+		System.out.println("1. One enemy");
+		System.out.println("2. Two enemies");
+		System.out.println("3. Three enemies");
+		System.out.println("4. Horde");
+		return getValidInt( 1, GameWorld.HORDE );
+	}
+	/**
+	 * Error check the user's input
+	 * @param low	lower-bound of user input
+	 * @param high	upper-bound of user input
+	 * @return		user's input
+	 */
+	public static int getValidInt( int low, int high ) {
+		Scanner in = IN;
+		boolean invalid = true;
+		int value = 0;
+		while ( invalid ) {
+	            if( in.hasNextInt() ) {
+			value = in.nextInt();
+			if ( value >= low && value <= high ) {
+	                    invalid = false;
+			}
+			else {
+	                    System.out.println("Invalid- Retry: ");
+			}
+	            }
+	            else {
+	                in.next();
+	                System.out.println("Invalid input- Retry: ");
+	            }
+		}
+		return value;
+	    }
+}
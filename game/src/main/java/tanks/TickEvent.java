@@ -0,0 +1,97 @@
+package tanks;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for one tick of a GameWorld, with the time spent in
+ * each phase of the tick and what was in play afterwards. Emitted by a
+ * TickProfiler, which reuses one event for every tick, so nothing is
+ * allocated while no recording is running.
+ * @author Nicholas Grant
+ *
+ */
+@Name( "tanks.Tick" )
+@Label( "Tick" )
+@Category( "Tanks" )
+@Description( "One simulation tick, by phase" )
+@StackTrace( false )
+public class TickEvent extends Event {
+	/**
+	 * Number of the tick
+	 */
+	@Label( "Tick" )
+	private long tick;
+	/**
+	 * Time spent applying the players' input
+	 */
+	@Label( "Input" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long input;
+	/**
+	 * Time spent steering and firing the enemies
+	 */
+	@Label( "AI" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long ai;
+	/**
+	 * Time spent moving tanks and missiles
+	 */
+	@Label( "Movement" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long movement;
+	/**
+	 * Time spent building the hit grid
+	 */
+	@Label( "Collision" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long collision;
+	/**
+	 * Time spent testing missiles against tanks
+	 */
+	@Label( "Hit Detection" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long hits;
+	/**
+	 * Number of tanks in play after the tick
+	 */
+	@Label( "Tanks" )
+	private int tanks;
+	/**
+	 * Number of missiles in flight after the tick
+	 */
+	@Label( "Missiles" )
+	private int missiles;
+	/**
+	 * Bytes the tick allocated, or -1 if they aren't counted
+	 */
+	@Label( "Allocated" )
+	@DataAmount( DataAmount.BYTES )
+	private long allocated;
+	/**
+	 * Sets what the event reports
+	 * @param t			number of the tick
+	 * @param phases	time spent in each phase in nanoseconds, indexed by
+	 * 					TickProfiler phase
+	 * @param tk		number of tanks in play
+	 * @param m			number of missiles in flight
+	 * @param a			bytes allocated, or -1 if they aren't counted
+	 */
+	public void set( long t, long[] phases, int tk, int m, long a ) {
+		tick = t;
+		input = phases[TickProfiler.INPUT];
+		ai = phases[TickProfiler.AI];
+		movement = phases[TickProfiler.MOVEMENT];
+		collision = phases[TickProfiler.COLLISION];
+		hits = phases[TickProfiler.HITS];
+		tanks = tk;
+		missiles = m;
+		allocated = a;
+	}
+}
@@ -0,0 +1,555 @@
+package tanks;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Times each phase of a GameWorld's ticks and of the frames rendered from it,
+ * so it's clear where the time goes. A world with a profiler set marks the end
+ * of each phase of step(); Panel marks each frame it renders. The profiler
+ * keeps HdrHistogram-style histograms of the tick, frame and phase times,
+ * counts the tanks, missiles and bytes allocated per tick, and emits a
+ * TickEvent and a FrameEvent to Flight Recorder while a recording is running.
+ * It can be registered as an MBean, and dumped as text when the game exits.
+ *
+ * The phases of a tick are:
+ * input		the players' input applied
+ * ai			the flow field updated, enemies steered and fired
+ * movement		tanks and missiles moved, each move checked against the map
+ * collision	the hit grid built, the broad phase of the hit checks
+ * hits			missiles tested against the tanks near their paths
+ * The render phase is the time spent drawing a frame; the frame time is the
+ * time between the starts of two frames.
+ *
+ * Timing costs two clock reads per phase and never allocates. A profiler
+ * times one thread's ticks and frames; only the readers are safe to call
+ * from other threads, such as JMX's.
+ * @author Nicholas Grant
+ *
+ */
+public class TickProfiler implements TickProfilerMBean {
+	/**
+	 * Phase applying the players' input
+	 */
+	public static final int INPUT = 0;
+	/**
+	 * Phase steering and firing the enemies
+	 */
+	public static final int AI = 1;
+	/**
+	 * Phase moving tanks and missiles
+	 */
+	public static final int MOVEMENT = 2;
+	/**
+	 * Phase building the hit grid
+	 */
+	public static final int COLLISION = 3;
+	/**
+	 * Phase testing missiles against tanks
+	 */
+	public static final int HITS = 4;
+	/**
+	 * Phase drawing a frame
+	 */
+	public static final int RENDER = 5;
+	/**
+	 * Number of phases
+	 */
+	public static final int PHASES = 6;
+	/**
+	 * Name of each phase, indexed by phase
+	 */
+	private static final String[] PHASE_NAMES = { "input", "ai", "movement", "collision", "hits", "render" };
+	/**
+	 * Name the profiler is registered under
+	 */
+	private final String name;
+	/**
+	 * Time of each tick, in nanoseconds
+	 */
+	private final LatencyHistogram ticks;
+	/**
+	 * Time between the starts of two frames, in nanoseconds
+	 */
+	private final LatencyHistogram frames;
+	/**
+	 * Time of each phase, in nanoseconds, indexed by phase
+	 */
+	private final LatencyHistogram[] phases;
+	/**
+	 * Time spent in each phase of the tick in progress, indexed by phase
+	 */
+	private final long[] phaseNanos;
+	/**
+	 * Counts the bytes each tick allocates, or null if the JVM can't
+	 */
+	private final com.sun.management.ThreadMXBean threads;
+	/**
+	 * Reused for every tick's Flight Recorder event
+	 */
+	private final TickEvent tickEvent;
+	/**
+	 * Reused for every frame's Flight Recorder event
+	 */
+	private final FrameEvent frameEvent;
+	/**
+	 * True = a tick is in progress, false otherwise
+	 */
+	private boolean ticking;
+	/**
+	 * True = the tick in progress is being recorded by Flight Recorder
+	 */
+	private boolean recordingTick;
+	/**
+	 * True = the frame in progress is being recorded by Flight Recorder
+	 */
+	private boolean recordingFrame;
+	/**
+	 * Time the tick in progress started, in nanoseconds
+	 */
+	private long tickStart;
+	/**
+	 * Time the last phase ended, in nanoseconds
+	 */
+	private long phaseStart;
+	/**
+	 * Bytes the thread had allocated when the tick in progress started
+	 */
+	private long allocatedBefore;
+	/**
+	 * Time the last frame started, in nanoseconds, or 0 before the first frame
+	 */
+	private long frameStart;
+	/**
+	 * Number of tanks in play after the last tick
+	 */
+	private int tanks;
+	/**
+	 * Number of missiles in flight after the last tick
+	 */
+	private int missiles;
+	/**
+	 * Most tanks in play after any tick
+	 */
+	private int maxTanks;
+	/**
+	 * Most missiles in flight after any tick
+	 */
+	private int maxMissiles;
+	/**
+	 * Bytes allocated by the ticks timed
+	 */
+	private long allocated;
+	/**
+	 * Bytes allocated by the last tick
+	 */
+	private long lastAllocated;
+	/**
+	 * Creates a profiler with nothing timed yet
+	 * @param n		name the profiler is registered under, such as "game"
+	 */
+	public TickProfiler( String n ) {
+		name = n;
+		ticks = new LatencyHistogram();
+		frames = new LatencyHistogram();
+		phases = new LatencyHistogram[PHASES];
+		for ( int p = 0; p < PHASES; p++ ) {
+			phases[p] = new LatencyHistogram();
+		}
+		phaseNanos = new long[PHASES];
+		tickEvent = new TickEvent();
+		frameEvent = new FrameEvent();
+		threads = allocationCounter();
+		lastAllocated = ( threads == null ) ? -1 : 0;
+		allocated = lastAllocated;
+	}
+	/**
+	 * Finds the JVM's per-thread allocation counter
+	 * @return		the thread bean, or null if the JVM doesn't count allocations
+	 */
+	private static com.sun.management.ThreadMXBean allocationCounter() {
+		if ( ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean ) {
+			com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+			if ( t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled() ) {
+				return t;
+			}
+		}
+		return null;
+	}
+	/**
+	 * Starts timing a tick
+	 */
+	public void beginTick() {
+		for ( int p = 0; p < PHASES; p++ ) {
+			phaseNanos[p] = 0;
+		}
+		recordingTick = tickEvent.isEnabled();
+		if ( recordingTick ) {
+			tickEvent.begin();
+		}
+		if ( threads != null ) {
+			allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		}
+		ticking = true;
+		tickStart = phaseStart = System.nanoTime();
+	}
+	/**
+	 * Ends a phase of the tick in progress; the phase started when the last
+	 * one ended. Does nothing outside a tick, such as when a world's checks
+	 * are called on their own.
+	 * @param phase		the phase that ended
+	 */
+	public void mark( int phase ) {
+		if ( !ticking ) {
+			return;
+		}
+		long now = System.nanoTime();
+		phaseNanos[phase] += now - phaseStart;
+		phaseStart = now;
+	}
+	/**
+	 * Ends the tick in progress and records its times and counters
+	 * @param tick		number of the tick
+	 * @param tk		number of tanks in play after the tick
+	 * @param m			number of missiles in flight after the tick
+	 */
+	public void endTick( long tick, int tk, int m ) {
+		if ( !ticking ) {
+			return;
+		}
+		long elapsed = System.nanoTime() - tickStart;
+		long bytes = ( threads == null ) ? -1 : threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+		ticking = false;
+		synchronized ( this ) {
+			ticks.record( elapsed );
+			for ( int p = 0; p < RENDER; p++ ) {
+				phases[p].record( phaseNanos[p] );
+			}
+			tanks = tk;
+			missiles = m;
+			maxTanks = Math.max( maxTanks, tk );
+			maxMissiles = Math.max( maxMissiles, m );
+			if ( bytes >= 0 ) {
+				lastAllocated = bytes;
+				allocated += bytes;
+			}
+		}
+		if ( recordingTick ) {
+			tickEvent.end();
+			if ( tickEvent.shouldCommit() ) {
+				tickEvent.set( tick, phaseNanos, tk, m, bytes );
+				tickEvent.commit();
+			}
+		}
+	}
+	/**
+	 * Starts timing a frame
+	 * @param start		System.nanoTime() when the frame started
+	 */
+	public void beginFrame( long start ) {
+		if ( frameStart != 0 ) {
+			synchronized ( this ) {
+				frames.record( start - frameStart );
+			}
+		}
+		recordingFrame = frameEvent.isEnabled();
+		if ( recordingFrame ) {
+			frameEvent.begin();
+			frameEvent.setInterval( ( frameStart == 0 ) ? 0 : start - frameStart );
+		}
+		frameStart = start;
+	}
+	/**
+	 * Ends the frame in progress, recording the time spent drawing it
+	 * @param end		System.nanoTime() when the frame was shown
+	 */
+	public void endFrame( long end ) {
+		synchronized ( this ) {
+			phases[RENDER].record( end - frameStart );
+		}
+		if ( recordingFrame ) {
+			frameEvent.commit();
+		}
+	}
+	/**
+	 * Registers the profiler with the platform MBean server as
+	 * tanks:type=TickProfiler,name=the profiler's name
+	 * @return		true if registered, false otherwise
+	 */
+	public boolean register() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean( this,
+					new ObjectName( "tanks:type=TickProfiler,name=" + ObjectName.quote( name ) ) );
+			return true;
+		} catch (JMException e) {
+			System.out.println("Could not register profiler " + name + ": " + e.getMessage());
+			return false;
+		}
+	}
+	/**
+	 * Writes the text report of dump() to a file
+	 * @param fileName	name of the file, or "-" for standard output
+	 */
+	public void save( String fileName ) {
+		if ( fileName.equals( "-" ) ) {
+			System.out.print( dump() );
+			return;
+		}
+		try ( FileWriter out = new FileWriter( fileName ) ) {
+			out.write( dump() );
+		} catch (IOException e) {
+			System.out.println("Could not write profile " + fileName + ": " + e.getMessage());
+		}
+	}
+	/**
+	 * Returns a text report of the tick, phase and frame times and the
+	 * counters, one histogram per line
+	 * @return		the report
+	 */
+	@Override
+	public synchronized String dump() {
+		StringWriter s = new StringWriter();
+		PrintWriter out = new PrintWriter( s );
+		out.printf( "profile %s%n", name );
+		out.printf( "%-12s %10s %10s %10s %10s %10s %10s%n",
+				"", "count", "p50 us", "p99 us", "p99.9 us", "max us", "mean us" );
+		printRow( out, "tick", ticks );
+		for ( int p = 0; p < PHASES; p++ ) {
+			printRow( out, "  " + PHASE_NAMES[p], phases[p] );
+		}
+		printRow( out, "frame", frames );
+		out.printf( "tanks: %d after the last tick, %d at most%n", tanks, maxTanks );
+		out.printf( "missiles: %d after the last tick, %d at most%n", missiles, maxMissiles );
+		if ( allocated < 0 ) {
+			out.printf( "allocated: not counted by this JVM%n" );
+		}
+		else {
+			out.printf( "allocated: %d bytes over %d ticks (%.1f per tick), %d by the last tick%n",
+					allocated, ticks.getCount(), (double)allocated / Math.max( 1, ticks.getCount() ),
+					lastAllocated );
+		}
+		out.flush();
+		return s.toString();
+	}
+	/**
+	 * Prints one histogram's line of the report
+	 * @param out	where the report is printed
+	 * @param label	label of the line
+	 * @param h		the histogram, in nanoseconds
+	 */
+	private static void printRow( PrintWriter out, String label, LatencyHistogram h ) {
+		out.printf( "%-12s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", label, h.getCount(),
+				micros( h.getPercentile( 50 ) ), micros( h.getPercentile( 99 ) ),
+				micros( h.getPercentile( 99.9 ) ), micros( h.getMax() ), h.getMean() / 1e3 );
+	}
+	/**
+	 * Converts a time to microseconds
+	 * @param nanos		time in nanoseconds
+	 * @return			time in microseconds
+	 */
+	private static double micros( long nanos ) {
+		return nanos / 1e3;
+	}
+	/**
+	 * Returns a percentile of each phase's times
+	 * @param p		the percentile (0 to 100)
+	 * @return		times in microseconds, indexed by phase
+	 */
+	private synchronized double[] phasePercentile( double p ) {
+		double[] times = new double[PHASES];
+		for ( int i = 0; i < PHASES; i++ ) {
+			times[i] = micros( phases[i].getPercentile( p ) );
+		}
+		return times;
+	}
+	/**
+	 * Forgets every time and counter, such as after a warm up. The most tanks
+	 * and missiles start again from the last tick's.
+	 */
+	@Override
+	public synchronized void reset() {
+		ticks.reset();
+		frames.reset();
+		for ( int p = 0; p < PHASES; p++ ) {
+			phases[p].reset();
+		}
+		maxTanks = tanks;
+		maxMissiles = missiles;
+		if ( allocated >= 0 ) {
+			allocated = 0;
+		}
+	}
+	/**
+	 * Returns the name the profiler is registered under
+	 * @return		the name
+	 */
+	public String getName() {
+		return name;
+	}
+	/**
+	 * Returns the number of ticks timed
+	 * @return		tick count
+	 */
+	@Override
+	public synchronized long getTicks() {
+		return ticks.getCount();
+	}
+	/**
+	 * Returns the median tick time
+	 * @return		time in microseconds
+	 */
+	@Override
+	public synchronized double getTickP50Micros() {
+		return micros( ticks.getPercentile( 50 ) );
+	}
+	/**
+	 * Returns the 99th percentile tick time
+	 * @return		time in microseconds
+	 */
+	@Override
+	public synchronized double getTickP99Micros() {
+		return micros( ticks.getPercentile( 99 ) );
+	}
+	/**
+	 * Returns the 99.9th percentile tick time
+	 * @return		time in microseconds
+	 */
+	@Override
+	public synchronized double getTickP999Micros() {
+		return micros( ticks.getPercentile( 99.9 ) );
+	}
+	/**
+	 * Returns the longest tick time
+	 * @return		time in microseconds
+	 */
+	@Override
+	public synchronized double getTickMaxMicros() {
+		return micros( ticks.getMax() );
+	}
+	/**
+	 * Returns the number of frames timed
+	 * @return		frame count
+	 */
+	@Override
+	public synchronized long getFrames() {
+		return phases[RENDER].getCount();
+	}
+	/**
+	 * Returns the median time between the starts of two frames
+	 * @return		time in microseconds
+	 */
+	@Override
+	public synchronized double getFrameP50Micros() {
+		return micros( frames.getPercentile( 50 ) );
+	}
+	/**
+	 * Returns the 99th percentile time between the starts of two frames
+	 * @return		time in microseconds
+	 */
+	@Override
+	public synchronized double getFrameP99Micros() {
+		return micros( frames.getPercentile( 99 ) );
+	}
+	/**
+	 * Returns the 99.9th percentile time between the starts of two frames
+	 * @return		time in microseconds
+	 */
+	@Override
+	public synchronized double getFrameP999Micros() {
+		return micros( frames.getPercentile( 99.9 ) );
+	}
+	/**
+	 * Returns the longest time between the starts of two frames
+	 * @return		time in microseconds
+	 */
+	@Override
+	public synchronized double getFrameMaxMicros() {
+		return micros( frames.getMax() );
+	}
+	/**
+	 * Returns the names of the phases timed
+	 * @return		phase names, indexed by phase
+	 */
+	@Override
+	public String[] getPhaseNames() {
+		return PHASE_NAMES.clone();
+	}
+	/**
+	 * Returns the median time of each phase
+	 * @return		times in microseconds, indexed by phase
+	 */
+	@Override
+	public double[] getPhaseP50Micros() {
+		return phasePercentile( 50 );
+	}
+	/**
+	 * Returns the 99th percentile time of each phase
+	 * @return		times in microseconds, indexed by phase
+	 */
+	@Override
+	public double[] getPhaseP99Micros() {
+		return phasePercentile( 99 );
+	}
+	/**
+	 * Returns the 99.9th percentile time of each phase
+	 * @return		times in microseconds, indexed by phase
+	 */
+	@Override
+	public double[] getPhaseP999Micros() {
+		return phasePercentile( 99.9 );
+	}
+	/**
+	 * Returns the number of tanks in play after the last tick
+	 * @return		tank count
+	 */
+	@Override
+	public synchronized int getTanks() {
+		return tanks;
+	}
+	/**
+	 * Returns the number of missiles in flight after the last tick
+	 * @return		missile count
+	 */
+	@Override
+	public synchronized int getMissiles() {
+		return missiles;
+	}
+	/**
+	 * Returns the most tanks in play after any tick
+	 * @return		tank count
+	 */
+	@Override
+	public synchronized int getMaxTanks() {
+		return maxTanks;
+	}
+	/**
+	 * Returns the most missiles in flight after any tick
+	 * @return		missile count
+	 */
+	@Override
+	public synchronized int getMaxMissiles() {
+		return maxMissiles;
+	}
+	/**
+	 * Returns the bytes allocated by the ticks timed
+	 * @return		bytes, or -1 if the JVM can't count them
+	 */
+	@Override
+	public synchronized long getAllocatedBytes() {
+		return allocated;
+	}
+	/**
+	 * Returns the bytes allocated by the last tick
+	 * @return		bytes, or -1 if the JVM can't count them
+	 */
+	@Override
+	public synchronized long getLastTickAllocatedBytes() {
+		return lastAllocated;
+	}
+}
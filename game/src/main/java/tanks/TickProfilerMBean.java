@@ -0,0 +1,120 @@
+package tanks;
+
+/**
+ * The management interface of a TickProfiler, so its timings and counters can
+ * be watched live with JConsole or any other JMX client. Times are in
+ * microseconds; phases are listed in the order of getPhaseNames().
+ * @author Nicholas Grant
+ *
+ */
+public interface TickProfilerMBean {
+	/**
+	 * Returns the number of ticks timed
+	 * @return		tick count
+	 */
+	long getTicks();
+	/**
+	 * Returns the median tick time
+	 * @return		time in microseconds
+	 */
+	double getTickP50Micros();
+	/**
+	 * Returns the 99th percentile tick time
+	 * @return		time in microseconds
+	 */
+	double getTickP99Micros();
+	/**
+	 * Returns the 99.9th percentile tick time
+	 * @return		time in microseconds
+	 */
+	double getTickP999Micros();
+	/**
+	 * Returns the longest tick time
+	 * @return		time in microseconds
+	 */
+	double getTickMaxMicros();
+	/**
+	 * Returns the number of frames timed
+	 * @return		frame count
+	 */
+	long getFrames();
+	/**
+	 * Returns the median time between the starts of two frames
+	 * @return		time in microseconds
+	 */
+	double getFrameP50Micros();
+	/**
+	 * Returns the 99th percentile time between the starts of two frames
+	 * @return		time in microseconds
+	 */
+	double getFrameP99Micros();
+	/**
+	 * Returns the 99.9th percentile time between the starts of two frames
+	 * @return		time in microseconds
+	 */
+	double getFrameP999Micros();
+	/**
+	 * Returns the longest time between the starts of two frames
+	 * @return		time in microseconds
+	 */
+	double getFrameMaxMicros();
+	/**
+	 * Returns the names of the phases timed
+	 * @return		phase names
+	 */
+	String[] getPhaseNames();
+	/**
+	 * Returns the median time of each phase
+	 * @return		times in microseconds
+	 */
+	double[] getPhaseP50Micros();
+	/**
+	 * Returns the 99th percentile time of each phase
+	 * @return		times in microseconds
+	 */
+	double[] getPhaseP99Micros();
+	/**
+	 * Returns the 99.9th percentile time of each phase
+	 * @return		times in microseconds
+	 */
+	double[] getPhaseP999Micros();
+	/**
+	 * Returns the number of tanks in play after the last tick
+	 * @return		tank count
+	 */
+	int getTanks();
+	/**
+	 * Returns the number of missiles in flight after the last tick
+	 * @return		missile count
+	 */
+	int getMissiles();
+	/**
+	 * Returns the most tanks in play after any tick
+	 * @return		tank count
+	 */
+	int getMaxTanks();
+	/**
+	 * Returns the most missiles in flight after any tick
+	 * @return		missile count
+	 */
+	int getMaxMissiles();
+	/**
+	 * Returns the bytes allocated by the ticks timed
+	 * @return		bytes, or -1 if the JVM can't count them
+	 */
+	long getAllocatedBytes();
+	/**
+	 * Returns the bytes allocated by the last tick
+	 * @return		bytes, or -1 if the JVM can't count them
+	 */
+	long getLastTickAllocatedBytes();
+	/**
+	 * Forgets every time and counter, such as after a warm up
+	 */
+	void reset();
+	/**
+	 * Returns a text report of every time and counter
+	 * @return		the report
+	 */
+	String dump();
+}
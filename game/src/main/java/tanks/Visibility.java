@@ -0,0 +1,153 @@
+package tanks;
+
+/**
+ * Tile-to-tile line of sight for a game map, worked out the first time it is
+ * asked for. Two open tiles can see each other if the line between their
+ * centers doesn't enter a wall; every pair is traced through the map once,
+ * and the answers are kept one bit per pair, so a query in the game loop is a
+ * single lookup. The table grows with the square of the number of open tiles,
+ * so it is only built for maps with up to MAX_TILES open tiles. Maps that are
+ * never queried, such as the empty map load() returns for a bad file, never
+ * pay for it. A table may be shared by worlds on several threads; the first
+ * query builds it for all of them.
+ * @author Nicholas Grant
+ *
+ */
+public class Visibility {
+	/**
+	 * Most open tiles a map can have for its table to be built (512 KB of bits)
+	 */
+	public static final int MAX_TILES = 2048;
+	/**
+	 * Number of tile columns of the map
+	 */
+	private final int width;
+	/**
+	 * Number of tile rows of the map
+	 */
+	private final int height;
+	/**
+	 * The map the table is built from, dropped once it is built. Its walls
+	 * must not change.
+	 */
+	private GameMap map;
+	/**
+	 * Position of each tile among the open tiles, or -1 for walls; set by
+	 * build()
+	 */
+	private int[] openIndex;
+	/**
+	 * Number of open tiles; set by build()
+	 */
+	private int open;
+	/**
+	 * One bit per pair of open tiles, set if they can see each other, indexed
+	 * by a * open + b for open tile positions a and b, or null until the table
+	 * is built. Written last, so a thread that sees it also sees openIndex.
+	 */
+	private volatile long[] visible;
+	/**
+	 * Creates the table for a map, without building it yet
+	 * @param m		the map, whose walls must not change
+	 */
+	public Visibility( GameMap m ) {
+		width = m.getWidth();
+		height = m.getHeight();
+		map = m;
+	}
+	/**
+	 * Builds the table if it hasn't been built yet
+	 * @return		this table
+	 */
+	public synchronized Visibility build() {
+		if ( visible != null ) {
+			return this;
+		}
+		GameMap m = map;
+		int[] index = new int[width * height];
+		int n = 0;
+		for ( int i = 0; i < height; i++ ) {
+			for ( int j = 0; j < width; j++ ) {
+				index[i * width + j] = m.isWall( i, j ) ? -1 : n++;
+			}
+		}
+		openIndex = index;
+		open = n;
+		long[] bits = new long[(int)( ( (long)open * open + 63 ) >>> 6 )];
+		int[] tiles = new int[open];
+		for ( int t = 0; t < index.length; t++ ) {
+			if ( index[t] >= 0 ) {
+				tiles[index[t]] = t;
+			}
+		}
+		for ( int a = 0; a < open; a++ ) {
+			set( bits, a, a );
+			double ax = center( tiles[a] % width );
+			double ay = center( tiles[a] / width );
+			for ( int b = a + 1; b < open; b++ ) {
+				double bx = center( tiles[b] % width );
+				double by = center( tiles[b] / width );
+				if ( m.findWallHit( ax, ay, bx, by ) > 1 ) {
+					set( bits, a, b );
+					set( bits, b, a );
+				}
+			}
+		}
+		visible = bits;
+		map = null;
+		return this;
+	}
+	/**
+	 * Checks to see if the tiles at two locations can see each other
+	 * @param x0	first location's x-component
+	 * @param y0	first location's y-component
+	 * @param x1	second location's x-component
+	 * @param y1	second location's y-component
+	 * @return		true if both tiles are open and can see each other, false otherwise
+	 */
+	public boolean canSee( int x0, int y0, int x1, int y1 ) {
+		long[] bits = visible;
+		if ( bits == null ) {
+			bits = build().visible;
+		}
+		int a = indexAt( x0, y0 );
+		int b = indexAt( x1, y1 );
+		if ( a < 0 || b < 0 ) {
+			return false;
+		}
+		long bit = (long)a * open + b;
+		return ( bits[(int)( bit >>> 6 )] & ( 1L << bit ) ) != 0;
+	}
+	/**
+	 * Returns the position among the open tiles of the tile at a location
+	 * @param x		the location's x-component
+	 * @param y		the location's y-component
+	 * @return		open tile position, or -1 if off the map or in a wall
+	 */
+	private int indexAt( int x, int y ) {
+		int row = Math.floorDiv( y, GameMap.TILE_SIZE );
+		int col = Math.floorDiv( x, GameMap.TILE_SIZE );
+		if ( row < 0 || col < 0 || row >= height || col >= width ) {
+			return -1;
+		}
+		return openIndex[row * width + col];
+	}
+	/**
+	 * Marks one open tile as able to see another
+	 * @param bits	the table being built
+	 * @param a		open tile position of the viewer
+	 * @param b		open tile position of the tile seen
+	 */
+	private void set( long[] bits, int a, int b ) {
+		long bit = (long)a * open + b;
+		bits[(int)( bit >>> 6 )] |= 1L << bit;
+	}
+	/**
+	 * Returns the pixel coordinate of a tile's center
+	 * @param tile	tile row or column
+	 * @return		center pixel coordinate
+	 */
+	private static double center( int tile ) {
+		return tile * GameMap.TILE_SIZE + GameMap.TILE_SIZE / 2;
+	}
+}
@@ -0,0 +1,111 @@
+package tanks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that stepping a GameWorld doesn't allocate once it's warmed up. Reads
+ * the test thread's allocated byte counter before and after a run of ticks
+ * and fails if anything was allocated. Every other match is played with a
+ * TickProfiler set, so timing the ticks is held to the same bar.
+ * @author Nicholas Grant
+ *
+ */
+public class AllocationTest {
+	/**
+	 * Matches played before measuring, so the JIT has finished compiling the
+	 * tick path. With only 500, C2 was sometimes still swapping in new code
+	 * when measuring started, and the thread counted 48 or 96 bytes for it.
+	 */
+	private static final int WARMUP_MATCHES = 3000;
+	/**
+	 * Matches measured
+	 */
+	private static final int MEASURED_MATCHES = 500;
+	/**
+	 * Tick limit per match
+	 */
+	private static final int MAX_TICKS = 5000;
+
+	/**
+	 * Plays hard matches on the default map and checks that none of their
+	 * ticks allocated
+	 */
+	@Test
+	public void tickPathDoesNotAllocate() {
+		com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long id = Thread.currentThread().getId();
+		GameMap map = GameMap.load( Panel.DEFAULT_MAP );
+		PlayerInput input = new PlayerInput();
+		FrameState frame = new FrameState();
+		TickProfiler profiler = new TickProfiler( "check" );
+		for ( int i = 0; i < WARMUP_MATCHES; i++ ) {
+			playMatch( newWorld( map, i, profiler ), input, frame );
+		}
+		long bytes = 0;
+		long ticks = 0;
+		for ( int i = 0; i < MEASURED_MATCHES; i++ ) {
+			// creating the world may allocate; only the ticks are measured
+			GameWorld world = newWorld( map, WARMUP_MATCHES + i, profiler );
+			bytes += measureMatch( threads, id, world, input, frame );
+			ticks += world.getTick();
+		}
+		System.out.printf( "%d bytes allocated over %d ticks (%d ticks profiled)%n",
+				bytes, ticks, profiler.getTicks() );
+		assertEquals( 0, bytes, "bytes allocated by the tick path" );
+	}
+	/**
+	 * Creates a hard world, profiled if its seed is odd
+	 * @param map		the map to play on
+	 * @param seed		seed of the world
+	 * @param profiler	the profiler set on profiled worlds
+	 * @return			the new world
+	 */
+	private static GameWorld newWorld( GameMap map, long seed, TickProfiler profiler ) {
+		GameWorld world = new GameWorld( 3, map, seed );
+		if ( seed % 2 == 1 ) {
+			world.setProfiler( profiler );
+		}
+		return world;
+	}
+	/**
+	 * Plays a match and returns the number of bytes the thread allocated doing so
+	 * @param threads	the thread bean counting allocations
+	 * @param id		the test thread's id
+	 * @param world		the world to play
+	 * @param input		the player's input, reused between ticks
+	 * @param frame		the frame state each tick is published into
+	 * @return			bytes allocated
+	 */
+	private static long measureMatch( com.sun.management.ThreadMXBean threads, long id,
+			GameWorld world, PlayerInput input, FrameState frame ) {
+		long before = threads.getThreadAllocatedBytes( id );
+		playMatch( world, input, frame );
+		return threads.getThreadAllocatedBytes( id ) - before;
+	}
+	/**
+	 * Steps the world until the match ends, with a player that turns and fires
+	 * every few ticks, publishing each tick into a frame state the way the game
+	 * loop does
+	 * @param world		the world to play
+	 * @param input		the player's input, reused between ticks
+	 * @param frame		the frame state each tick is published into
+	 */
+	private static void playMatch( GameWorld world, PlayerInput input, FrameState frame ) {
+		while ( !world.isGameOver() && !world.isWin() && world.getTick() < MAX_TICKS ) {
+			long tick = world.getTick();
+			input.setDirection( (int)( tick / 40 % 9 ) - 4 );
+			input.setAim( (int)( tick % 800 ), 400 );
+			input.clearFire();
+			if ( tick % 7 == 0 ) {
+				input.fireAt( (int)( tick % 800 ), 400 );
+			}
+			world.step( input );
+			frame.copyFrom( world );
+		}
+	}
+}
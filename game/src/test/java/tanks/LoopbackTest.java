@@ -0,0 +1,290 @@
+package tanks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Plays networked matches over loopback with scripted clients and a simulated
+ * poor network, and checks that every client ends up with the server's state.
+ * The server and the clients all run on the test thread, in real time. The
+ * latency is added in each direction, plus up to a quarter of it again as
+ * jitter. Besides a plain match, a client joins a server that has been idle,
+ * which must find a match that hasn't started without it, and clients leave
+ * and rejoin, which must reuse the slots freed and get a new match once
+ * everyone has left.
+ * @author Nicholas Grant
+ *
+ */
+public class LoopbackTest {
+	/**
+	 * Map played on; it has bricks, so the clients' copies of the map must
+	 * follow the server's as they break
+	 */
+	private static final String MAP = "map2.txt";
+	/**
+	 * Simulated latency each way in milliseconds
+	 */
+	private static final int LATENCY = 50;
+	/**
+	 * Simulated loss, from 0 to 1
+	 */
+	private static final double LOSS = 0.05;
+	/**
+	 * Clients in the plain match
+	 */
+	private static final int CLIENTS = 4;
+	/**
+	 * Milliseconds the clients steer for in the plain match
+	 */
+	private static final int MATCH_MILLIS = 5000;
+	/**
+	 * Milliseconds the clients keep running after they stop sending new input,
+	 * so the last snapshots can arrive
+	 */
+	private static final int SETTLE_MILLIS = 1000;
+	/**
+	 * Milliseconds a server runs with nobody connected before a client joins
+	 */
+	private static final int IDLE_MILLIS = 3000;
+	/**
+	 * Milliseconds each client plays for in the join and rejoin cases
+	 */
+	private static final int PLAY_MILLIS = 2000;
+
+	/**
+	 * Has several clients play a match, then reports the bandwidth used and
+	 * checks that each client's newest snapshot matches the server's
+	 */
+	@Test
+	public void clientsMatchServer() throws Exception {
+		GameMap map = GameMap.load( MAP );
+		GameServer server = newServer( map, 7 );
+		List<GameClient> clients = new ArrayList<>();
+		for ( int c = 0; c < CLIENTS; c++ ) {
+			clients.add( newClient( map, server, c ) );
+		}
+		long start = GameServer.millis();
+		play( server, clients, new Random( 3 ), MATCH_MILLIS );
+		double elapsed = ( GameServer.millis() - start ) / 1000.0;
+		System.out.printf( "%d clients, %d ms latency each way, %.0f%% loss, %.1f s, %d ticks%n",
+				CLIENTS, LATENCY, LOSS * 100, elapsed, server.getWorld().getTick() );
+		int failures = 0;
+		for ( int c = 0; c < CLIENTS; c++ ) {
+			GameClient client = clients.get( c );
+			ClientConnection conn = findConnection( server, client );
+			Snapshot got = client.getSnapshot();
+			boolean ok = matches( server, client );
+			if ( !ok ) {
+				failures++;
+			}
+			System.out.printf( "client %d: down %6.0f B/s (%d snapshots, %d full), up %5.0f B/s, "
+					+ "inputs %d applied, %d dropped, %d late, snapshot at tick %d %s%n",
+					c, ( conn == null ) ? 0 : conn.getBytesSent() / elapsed,
+					( conn == null ) ? 0 : conn.getSnapshotsSent(),
+					( conn == null ) ? 0 : conn.getFullSnapshots(),
+					client.getLink().getBytesSent() / elapsed,
+					( conn == null ) ? 0 : conn.getInputsApplied(),
+					( conn == null ) ? 0 : conn.getInputsDropped(),
+					( conn == null ) ? 0 : conn.getInputsLate(),
+					( got == null ) ? -1 : got.getTick(), ok ? "matches" : "DIFFERS" );
+		}
+		closeAll( server, clients );
+		assertEquals( 0, failures, "clients out of sync with the server" );
+	}
+	/**
+	 * Lets a server sit with nobody connected, then has a client join and
+	 * play. The world must not have ticked while idle, and the client must
+	 * join a match in progress with its tank alive.
+	 */
+	@Test
+	public void joinAfterIdle() throws Exception {
+		GameMap map = GameMap.load( MAP );
+		Random rand = new Random( 5 );
+		GameServer server = newServer( map, 3 );
+		List<GameClient> clients = new ArrayList<>();
+		play( server, clients, rand, IDLE_MILLIS );
+		long idleTicks = server.getWorld().getTick();
+		clients.add( newClient( map, server, 10 ) );
+		play( server, clients, rand, PLAY_MILLIS );
+		GameClient client = clients.get( 0 );
+		Snapshot got = client.getSnapshot();
+		boolean alive = got != null && got.getLives( client.getSlot() ) > 0;
+		boolean synced = matches( server, client );
+		System.out.printf( "idle join: %d ticks while idle, then slot %d %s, %d ticks played %s%n",
+				idleTicks, client.getSlot(), alive ? "alive" : "DEAD", server.getWorld().getTick(),
+				synced ? "matches" : "DIFFERS" );
+		closeAll( server, clients );
+		assertEquals( 0, idleTicks, "ticks run with nobody connected" );
+		assertTrue( alive, "the joining client's tank is alive" );
+		assertTrue( synced, "the joining client matches the server" );
+	}
+	/**
+	 * Has two clients play, one leave and a third join in its place, then
+	 * everyone leave and a fourth join. The third must take the freed slot
+	 * without a tank being added, and the fourth must get slot 0 of a new
+	 * match.
+	 */
+	@Test
+	public void leaveAndRejoin() throws Exception {
+		GameMap map = GameMap.load( MAP );
+		Random rand = new Random( 6 );
+		GameServer server = newServer( map, 5 );
+		List<GameClient> clients = new ArrayList<>();
+		clients.add( newClient( map, server, 20 ) );
+		clients.add( newClient( map, server, 21 ) );
+		play( server, clients, rand, PLAY_MILLIS );
+		GameClient leaving = clients.remove( 0 );
+		int freed = leaving.getSlot();
+		int players = server.getWorld().getPlayers().size();
+		leaving.leave();
+		leaving.close();
+		clients.add( newClient( map, server, 22 ) );
+		play( server, clients, rand, PLAY_MILLIS );
+		GameClient joined = clients.get( 1 );
+		int joinedSlot = joined.getSlot();
+		int playersAfter = server.getWorld().getPlayers().size();
+		boolean joinedSynced = matches( server, joined );
+		int match = server.getMatch();
+		for ( GameClient client : clients ) {
+			client.leave();
+			client.close();
+		}
+		clients.clear();
+		// let the leave packets arrive
+		play( server, clients, rand, 2L * LATENCY + 100 );
+		int restartedMatch = server.getMatch();
+		long restartedTicks = server.getWorld().getTick();
+		clients.add( newClient( map, server, 23 ) );
+		play( server, clients, rand, PLAY_MILLIS );
+		GameClient last = clients.get( 0 );
+		boolean lastSynced = matches( server, last );
+		System.out.printf( "rejoin: freed slot %d, taken slot %d, match %d then %d, next client in slot %d %s%n",
+				freed, joinedSlot, match, restartedMatch, last.getSlot(), lastSynced ? "matches" : "DIFFERS" );
+		closeAll( server, clients );
+		assertEquals( freed, joinedSlot, "slot taken by the client that joined" );
+		assertEquals( players, playersAfter, "players in the world after the rejoin" );
+		assertTrue( joinedSynced, "the client that joined matches the server" );
+		assertTrue( restartedMatch > match, "a new match started once everyone left" );
+		assertEquals( 0, restartedTicks, "ticks of the new match before anyone joined" );
+		assertEquals( 0, last.getSlot(), "slot of the first client of the new match" );
+		assertTrue( lastSynced, "the first client of the new match matches the server" );
+	}
+	/**
+	 * Runs a server and its clients in real time, the clients steering for
+	 * the given time and then settling for SETTLE_MILLIS with no new input
+	 * @param server	the server
+	 * @param clients	the clients, possibly none
+	 * @param rand		random source for the moves
+	 * @param millis	milliseconds the clients steer for
+	 */
+	private static void play( GameServer server, List<GameClient> clients, Random rand, long millis )
+			throws InterruptedException {
+		long stopInput = GameServer.millis() + millis;
+		long end = stopInput + ( clients.isEmpty() ? 0 : SETTLE_MILLIS );
+		long now;
+		while ( ( now = GameServer.millis() ) < end ) {
+			for ( GameClient client : clients ) {
+				if ( now < stopInput ) {
+					steer( client, rand );
+				}
+				else {
+					client.getInput().setDirection( 0 );
+					client.getInput().clearFire();
+				}
+				client.update( now );
+			}
+			server.update( now );
+			Thread.sleep( 1 );
+		}
+	}
+	/**
+	 * Creates a server on any free port with a simulated network
+	 * @param map		the map played on
+	 * @param seed		seed of the first match's world
+	 * @return			the server
+	 */
+	private static GameServer newServer( GameMap map, long seed ) throws Exception {
+		GameServer server = new GameServer( new GameWorld( 1, map, seed ), 0,
+				Panel.DEFAULT_TICKS_PER_SECOND );
+		server.getLink().setConditions( LATENCY, LATENCY / 4, LOSS );
+		return server;
+	}
+	/**
+	 * Creates a client of a server with a simulated network
+	 * @param map		the map played on
+	 * @param server	the server
+	 * @param seed		seed of the client's link
+	 * @return			the client
+	 */
+	private static GameClient newClient( GameMap map, GameServer server, long seed ) throws Exception {
+		InetSocketAddress to = new InetSocketAddress( "127.0.0.1",
+				( (InetSocketAddress)server.getAddress() ).getPort() );
+		GameClient client = new GameClient( map, to, seed );
+		client.getLink().setConditions( LATENCY, LATENCY / 4, LOSS );
+		return client;
+	}
+	/**
+	 * Checks to see if a client's newest snapshot and map match the server's
+	 * @param server	the server
+	 * @param client	the client
+	 * @return			true if they match, false if not
+	 */
+	private static boolean matches( GameServer server, GameClient client ) {
+		Snapshot got = client.getSnapshot();
+		Snapshot expected = ( got == null ) ? null : server.getSnapshot( got.getTick() );
+		return expected != null && client.getMatch() == server.getMatch() && got.sameState( expected )
+				&& client.getMap().getChangeCount() == got.getMapChanges();
+	}
+	/**
+	 * Tells the server the clients are leaving and closes every socket
+	 * @param server	the server
+	 * @param clients	the clients
+	 */
+	private static void closeAll( GameServer server, List<GameClient> clients ) {
+		for ( GameClient client : clients ) {
+			client.leave();
+			client.close();
+		}
+		server.close();
+	}
+	/**
+	 * Changes a client's input now and then, the way a player might, called
+	 * about once a millisecond: a new direction a few times a second, the aim
+	 * always moving, and a couple of shots a second
+	 * @param client	the client
+	 * @param rand		random source for the moves
+	 */
+	private static void steer( GameClient client, Random rand ) {
+		PlayerInput input = client.getInput();
+		if ( rand.nextInt( 200 ) == 0 ) {
+			input.setDirection( rand.nextInt( 9 ) - 4 );
+		}
+		if ( rand.nextInt( 20 ) == 0 ) {
+			input.setAim( rand.nextInt( 845 ), rand.nextInt( 845 ) );
+		}
+		if ( rand.nextInt( 400 ) == 0 ) {
+			input.fireAt( input.getAimX(), input.getAimY() );
+		}
+	}
+	/**
+	 * Finds the server's record of a client
+	 * @param server	the server
+	 * @param client	the client
+	 * @return			the record, or null if the client isn't connected
+	 */
+	private static ClientConnection findConnection( GameServer server, GameClient client ) {
+		for ( ClientConnection conn : server.getClients() ) {
+			if ( conn.getSlot() == client.getSlot() ) {
+				return conn;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,194 @@
+package tanks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks client-side prediction over loopback with a simulated poor network.
+ * Scripted clients steer their tanks around the map and fire; for every input
+ * the server applies, the position the server moved the tank to is recorded.
+ * It is compared with the position the client showed as soon as it sent the
+ * input, both with prediction and as the newest snapshot had it, which is
+ * what a client without prediction would have shown.
+ * The latency is added in each direction, plus up to a quarter of it again as
+ * jitter. A prediction goes wrong for about a round trip whenever the server
+ * has to repeat an input that arrived late, so the test fails only if fewer
+ * than 80% of the predicted positions were exactly right, or if they were off
+ * by more on average than a tank moves in one tick.
+ * @author Nicholas Grant
+ *
+ */
+public class PredictionTest {
+	/**
+	 * Most inputs recorded per client
+	 */
+	private static final int MAX_INPUTS = 100000;
+	/**
+	 * Clients playing
+	 */
+	private static final int CLIENTS = 2;
+	/**
+	 * Milliseconds the clients play for
+	 */
+	private static final int MILLIS = 5000;
+	/**
+	 * Simulated latency each way in milliseconds
+	 */
+	private static final int LATENCY = 50;
+	/**
+	 * Simulated loss, from 0 to 1
+	 */
+	private static final double LOSS = 0.05;
+
+	/**
+	 * Plays a match and compares each client's predicted positions with the
+	 * server's
+	 */
+	@Test
+	public void predictionsMatchServer() throws Exception {
+		GameMap map = GameMap.load( Panel.DEFAULT_MAP );
+		GameWorld world = new GameWorld( 1, map, 9 );
+		GameServer server = new GameServer( world, 0, Panel.DEFAULT_TICKS_PER_SECOND );
+		server.getLink().setConditions( LATENCY, LATENCY / 4, LOSS );
+		InetSocketAddress to = new InetSocketAddress( "127.0.0.1",
+				( (InetSocketAddress)server.getAddress() ).getPort() );
+		GameClient[] clients = new GameClient[CLIENTS];
+		int[][] shown = new int[CLIENTS][2 * MAX_INPUTS];
+		int[][] lagging = new int[CLIENTS][2 * MAX_INPUTS];
+		int[][] truth = new int[CLIENTS][2 * MAX_INPUTS];
+		for ( int c = 0; c < CLIENTS; c++ ) {
+			clients[c] = new GameClient( map, to, c );
+			clients[c].getLink().setConditions( LATENCY, LATENCY / 4, LOSS );
+			Arrays.fill( truth[c], Integer.MIN_VALUE );
+		}
+		Random rand = new Random( 4 );
+		long end = GameServer.millis() + MILLIS;
+		long now;
+		while ( ( now = GameServer.millis() ) < end ) {
+			for ( int c = 0; c < CLIENTS; c++ ) {
+				GameClient client = clients[c];
+				steer( client.getInput(), rand );
+				int sent = client.getInputsSent();
+				client.update( now );
+				if ( client.getInputsSent() > sent && sent < MAX_INPUTS ) {
+					record( client, sent, shown[c], lagging[c] );
+				}
+			}
+			server.update( now );
+			for ( int c = 0; c < CLIENTS; c++ ) {
+				ClientConnection conn = findConnection( server, clients[c] );
+				int seq = ( conn == null ) ? -1 : conn.getLastApplied();
+				if ( seq >= 0 && seq < MAX_INPUTS && truth[c][2 * seq] == Integer.MIN_VALUE ) {
+					truth[c][2 * seq] = server.getWorld().getPlayers().getX( conn.getSlot() );
+					truth[c][2 * seq + 1] = server.getWorld().getPlayers().getY( conn.getSlot() );
+				}
+			}
+			Thread.sleep( 1 );
+		}
+		System.out.printf( "%d clients, %d ms latency each way, %.0f%% loss, %d ticks%n",
+				CLIENTS, LATENCY, LOSS * 100, server.getWorld().getTick() );
+		int inaccurate = 0;
+		for ( int c = 0; c < CLIENTS; c++ ) {
+			int n = 0;
+			int exact = 0;
+			long predictedError = 0;
+			long laggingError = 0;
+			int maxError = 0;
+			for ( int seq = 0; seq < Math.min( MAX_INPUTS, clients[c].getInputsSent() ); seq++ ) {
+				if ( truth[c][2 * seq] == Integer.MIN_VALUE || shown[c][2 * seq] == Integer.MIN_VALUE ) {
+					continue;
+				}
+				int error = distance( shown[c], truth[c], seq );
+				n++;
+				exact += ( error == 0 ) ? 1 : 0;
+				predictedError += error;
+				laggingError += distance( lagging[c], truth[c], seq );
+				maxError = Math.max( maxError, error );
+			}
+			Prediction p = clients[c].getPrediction();
+			double meanError = (double)predictedError / Math.max( 1, n );
+			System.out.printf( "client %d: %d inputs, %.1f%% predicted exactly, mean error %.2f px "
+					+ "(%.2f px without prediction), max %d px; %d of %d checks corrected, "
+					+ "%.1f inputs replayed per snapshot%n",
+					c, n, 100.0 * exact / Math.max( 1, n ), meanError,
+					(double)laggingError / Math.max( 1, n ), maxError, p.getMisses(), p.getChecked(),
+					(double)p.getReplayed() / Math.max( 1, clients[c].getSnapshotsReceived() ) );
+			if ( n == 0 || exact < 0.8 * n || meanError > 2 ) {
+				inaccurate++;
+			}
+		}
+		for ( GameClient client : clients ) {
+			client.leave();
+			client.close();
+		}
+		server.close();
+		assertEquals( 0, inaccurate, "clients whose predictions were too far from the server" );
+	}
+	/**
+	 * Records what a client showed right after sending an input: its predicted
+	 * position, and the position in its newest snapshot
+	 * @param client	the client
+	 * @param seq		the input's sequence number
+	 * @param shown		predicted positions, x and y per input
+	 * @param lagging	snapshot positions, x and y per input
+	 */
+	private static void record( GameClient client, int seq, int[] shown, int[] lagging ) {
+		Prediction p = client.getPrediction();
+		Snapshot s = client.getSnapshot();
+		if ( !p.isPlaced() || s == null ) {
+			shown[2 * seq] = lagging[2 * seq] = Integer.MIN_VALUE;
+			return;
+		}
+		shown[2 * seq] = p.getX();
+		shown[2 * seq + 1] = p.getY();
+		lagging[2 * seq] = s.getX( client.getSlot() );
+		lagging[2 * seq + 1] = s.getY( client.getSlot() );
+	}
+	/**
+	 * Returns the distance between two recorded positions
+	 * @param a		positions, x and y per input
+	 * @param b		positions, x and y per input
+	 * @param seq	the input's sequence number
+	 * @return		distance in pixels, as the sum of x and y distances
+	 */
+	private static int distance( int[] a, int[] b, int seq ) {
+		return Math.abs( a[2 * seq] - b[2 * seq] ) + Math.abs( a[2 * seq + 1] - b[2 * seq + 1] );
+	}
+	/**
+	 * Steers a tank the way a busy player might, called about once a
+	 * millisecond: a new direction several times a second, the aim always
+	 * moving, and a few shots a second
+	 * @param input		the client's input
+	 * @param rand		random source for the moves
+	 */
+	private static void steer( PlayerInput input, Random rand ) {
+		if ( rand.nextInt( 100 ) == 0 ) {
+			input.setDirection( rand.nextInt( 9 ) - 4 );
+		}
+		if ( rand.nextInt( 20 ) == 0 ) {
+			input.setAim( rand.nextInt( 845 ), rand.nextInt( 845 ) );
+		}
+		if ( rand.nextInt( 200 ) == 0 ) {
+			input.fireAt( input.getAimX(), input.getAimY() );
+		}
+	}
+	/**
+	 * Finds the server's record of a client
+	 * @param server	the server
+	 * @param client	the client
+	 * @return			the record, or null if the client isn't connected
+	 */
+	private static ClientConnection findConnection( GameServer server, GameClient client ) {
+		for ( ClientConnection conn : server.getClients() ) {
+			if ( conn.getSlot() == client.getSlot() ) {
+				return conn;
+			}
+		}
+		return null;
+	}
+}